@@ -0,0 +1,71 @@
+package com.example.back_end.configs;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Cache de segundo nível do Hibernate para locações e clientes, em Caffeine via JCache.
+ * Cada região tem tamanho e validade próprios; as estatísticas das regiões seguem para
+ * o Micrometer (cache.gets, cache.puts, cache.evictions, cache.removals).
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    public static final String LOCACOES = "locacoes";
+    public static final String CLIENTES = "clientes";
+
+    private static final List<String> REGIOES = List.of(LOCACOES, CLIENTES);
+
+    @Bean(destroyMethod = "close")
+    CacheManager cacheSegundoNivel(
+            @Value("${cache.segundo-nivel.locacoes.maximo:10000}") long maximoLocacoes,
+            @Value("${cache.segundo-nivel.locacoes.validade:30m}") Duration validadeLocacoes,
+            @Value("${cache.segundo-nivel.clientes.maximo:50000}") long maximoClientes,
+            @Value("${cache.segundo-nivel.clientes.validade:30m}") Duration validadeClientes) {
+        CacheManager manager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(null, getClass().getClassLoader());
+        manager.createCache(LOCACOES, regiao(maximoLocacoes, validadeLocacoes));
+        manager.createCache(CLIENTES, regiao(maximoClientes, validadeClientes));
+        return manager;
+    }
+
+    // o Hibernate usa este gerenciador em vez de abrir o seu; região sem configuração é erro
+    @Bean
+    HibernatePropertiesCustomizer cacheSegundoNivelHibernate(CacheManager cacheSegundoNivel) {
+        return propriedades -> {
+            propriedades.put(ConfigSettings.CACHE_MANAGER, cacheSegundoNivel);
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    MeterBinder metricasCacheSegundoNivel(CacheManager cacheSegundoNivel) {
+        return registry -> REGIOES.forEach(regiao ->
+                JCacheMetrics.monitor(registry, cacheSegundoNivel.getCache(regiao)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> regiao(long maximo, Duration validade) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(OptionalLong.of(maximo));
+        configuracao.setExpireAfterWrite(OptionalLong.of(validade.toNanos()));
+        configuracao.setStatisticsEnabled(true);
+        return configuracao;
+    }
+}
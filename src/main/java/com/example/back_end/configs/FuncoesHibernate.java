@@ -0,0 +1,24 @@
+package com.example.back_end.configs;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Funções do PostgreSQL usadas nas consultas HQL. Registrada em
+ * META-INF/services/org.hibernate.boot.model.FunctionContributor.
+ */
+public class FuncoesHibernate implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        // sobreposição de [inicio, fim) com [de, ate) escrita como o índice GiST da V8
+        // (ix_reservas_ativas_locacao_intervalo) a enxerga; com < e > ele não é usado
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder("sobrepoe", "(tsrange(?1, ?2, '[)') && tsrange(?3, ?4, '[)'))")
+                .setExactArgumentCount(4)
+                .setInvariantType(functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
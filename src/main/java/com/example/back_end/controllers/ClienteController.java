@@ -1,28 +1,41 @@
 package com.example.back_end.controllers;
 
+import java.io.InputStream;
 import java.net.URI;
 
 import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import com.example.back_end.configs.OpenApiConfig;
+import com.example.back_end.dtos.importacao.ImportacaoResultadoDTO;
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
 import com.example.back_end.dtos.cliente.*;
+import com.example.back_end.enums.ModoTotal;
+import com.example.back_end.services.ClienteLoteService;
 import com.example.back_end.services.ClienteService;
+import com.example.back_end.services.importacao.LeitorRegistros;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -34,6 +47,7 @@ import lombok.RequiredArgsConstructor;
 public class ClienteController {
 
     private final ClienteService service;
+    private final ClienteLoteService loteService;
 
     @GetMapping
     @Operation(summary = "Lista clientes com paginação")
@@ -42,11 +56,29 @@ public class ClienteController {
         @Parameter(name = "size", description = "Tamanho da página", example = "20"),
         @Parameter(name = "sort", description = "Ordenação: campo,dir (asc|desc). Pode repetir.", example = "id,asc")
     })
-    public ResponseEntity<Page<ClienteGetDTO>> listarTodos(
+    public ResponseEntity<Slice<ClienteGetDTO>> listarTodos(
             @ParameterObject
             @PageableDefault(page = 0, size = 20, sort = "id", direction = Sort.Direction.ASC)
-            Pageable pageable) {
-        return ResponseEntity.ok(service.listarTodos(pageable));
+            Pageable pageable,
+            @RequestParam(required = false)
+            @Parameter(description = "Total de elementos: none (sem count), estimate (estatística do banco) ou exact", example = "exact")
+            String total) {
+        var resultado = service.listarTodos(pageable, ModoTotal.de(total));
+        return ResponseEntity.ok().headers(resultado.cabecalhos()).body(resultado.pagina());
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Lista clientes por cursor (paginação por chave, sem contagem total)")
+    public ResponseEntity<CursorPageDTO<ClienteGetDTO>> listarPorCursor(
+            @RequestParam(required = false)
+            @Parameter(description = "Cursor retornado na página anterior (vazio para a primeira)")
+            String cursor,
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "size deve ser >= 1.")
+            @Max(value = 100, message = "size deve ser <= {value}.")
+            @Parameter(description = "Tamanho da página", example = "20")
+            int size) {
+        return ResponseEntity.ok(service.listarPorCursor(cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -68,6 +100,18 @@ public class ClienteController {
         return ResponseEntity.created(URI.create("/clientes/" + criado.getId())).body(criado);
     }
 
+    @PostMapping(path = "/lote", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            LeitorRegistros.TEXT_CSV })
+    @Operation(summary = "Importa clientes em massa (array JSON, NDJSON ou CSV com cabeçalho)")
+    @ApiResponse(responseCode = "200", description = "Resumo da carga com os registros rejeitados")
+    @RequestBody(description = "Clientes a criar, no formato de ClientePostDTO", required = true,
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ClientePostDTO.class))))
+    public ResponseEntity<ImportacaoResultadoDTO> importarLote(
+            @Parameter(hidden = true) InputStream corpo,
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType formato) {
+        return ResponseEntity.ok(loteService.importar(corpo, formato));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualiza cliente (PUT)")
     public ResponseEntity<ClienteGetDTO> atualizar(
@@ -1,28 +1,48 @@
 package com.example.back_end.controllers;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import com.example.back_end.configs.OpenApiConfig;
+import com.example.back_end.dtos.importacao.ImportacaoResultadoDTO;
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
 import com.example.back_end.dtos.locacao.*;
+import com.example.back_end.enums.ModoTotal;
+import com.example.back_end.enums.TiposLocacao;
+import com.example.back_end.services.LocacaoLoteService;
 import com.example.back_end.services.LocacaoService;
+import com.example.back_end.services.disponibilidade.FiltroDisponibilidade;
+import com.example.back_end.services.importacao.LeitorRegistros;
 
 import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -34,6 +54,7 @@ import lombok.RequiredArgsConstructor;
 public class LocacaoController {
 
     private final LocacaoService service;
+    private final LocacaoLoteService loteService;
 
     @GetMapping
     @Operation(summary = "Lista locações com paginação")
@@ -42,11 +63,29 @@ public class LocacaoController {
         @Parameter(name = "size", description = "Tamanho da página", example = "20"),
         @Parameter(name = "sort", description = "Ordenação: campo,dir (asc|desc). Pode repetir.", example = "id,asc")
     })
-    public ResponseEntity<Page<LocacaoGetDTO>> listarTodos(
+    public ResponseEntity<Slice<LocacaoGetDTO>> listarTodos(
             @ParameterObject
             @PageableDefault(page = 0, size = 20, sort = "id", direction = Sort.Direction.ASC)
-            Pageable pageable) {
-        return ResponseEntity.ok(service.listarTodos(pageable));
+            Pageable pageable,
+            @RequestParam(required = false)
+            @Parameter(description = "Total de elementos: none (sem count), estimate (estatística do banco) ou exact", example = "exact")
+            String total) {
+        var resultado = service.listarTodos(pageable, ModoTotal.de(total));
+        return ResponseEntity.ok().headers(resultado.cabecalhos()).body(resultado.pagina());
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Lista locações por cursor (paginação por chave, sem contagem total)")
+    public ResponseEntity<CursorPageDTO<LocacaoGetDTO>> listarPorCursor(
+            @RequestParam(required = false)
+            @Parameter(description = "Cursor retornado na página anterior (vazio para a primeira)")
+            String cursor,
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "size deve ser >= 1.")
+            @Max(value = 100, message = "size deve ser <= {value}.")
+            @Parameter(description = "Tamanho da página", example = "20")
+            int size) {
+        return ResponseEntity.ok(service.listarPorCursor(cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -64,14 +103,24 @@ public class LocacaoController {
         @Parameter(name = "size", description = "Tamanho da página", example = "20"),
         @Parameter(name = "sort", description = "Ordenação: campo,dir (asc|desc). Pode repetir.", example = "id,asc")
     })
-    public Page<LocacaoGetDTO> disponiveisPorData(
+    public Page<LocacaoDisponivelDTO> disponiveisPorData(
             @RequestParam
             @DateTimeFormat(iso = ISO.DATE)
             @Parameter(description = "Data de referência", example = "2025-10-30",
                        schema = @Schema(type = "string", format = "date"))
             LocalDate data,
+            @RequestParam(required = false)
+            @Parameter(description = "Tipo de locação", example = "RESIDENCIAL")
+            TiposLocacao tipo,
+            @RequestParam(required = false)
+            @DecimalMin(value = "0", message = "precoMax deve ser >= 0.")
+            @Parameter(description = "Valor total máximo do período (valorHora × horas); 400 se houver regra de preço no período", example = "500.00")
+            BigDecimal precoMax,
+            @RequestParam(required = false)
+            @Parameter(description = "valorTotal para ordenar pelo valor do período (crescente), já com as regras de preço", example = "valorTotal")
+            String ordenarPor,
             @ParameterObject Pageable pageable) {
-        return service.listarDisponiveis(data, pageable);
+        return service.listarDisponiveis(data, new FiltroDisponibilidade(tipo, precoMax), ordenarPor, pageable);
     }
 
     @GetMapping("/disponiveis-entre")
@@ -81,7 +130,7 @@ public class LocacaoController {
         @Parameter(name = "size", description = "Tamanho da página", example = "20"),
         @Parameter(name = "sort", description = "Ordenação: campo,dir (asc|desc). Pode repetir.", example = "id,asc")
     })
-    public Page<LocacaoGetDTO> disponiveisEntre(
+    public Page<LocacaoDisponivelDTO> disponiveisEntre(
             @RequestParam
             @DateTimeFormat(iso = ISO.DATE)
             @Parameter(description = "Data inicial", example = "2025-10-30",
@@ -92,8 +141,133 @@ public class LocacaoController {
             @Parameter(description = "Data final", example = "2025-10-31",
                        schema = @Schema(type = "string", format = "date"))
             LocalDate fim,
+            @RequestParam(required = false)
+            @Parameter(description = "Tipo de locação", example = "RESIDENCIAL")
+            TiposLocacao tipo,
+            @RequestParam(required = false)
+            @DecimalMin(value = "0", message = "precoMax deve ser >= 0.")
+            @Parameter(description = "Valor total máximo do período (valorHora × horas); 400 se houver regra de preço no período", example = "500.00")
+            BigDecimal precoMax,
+            @RequestParam(required = false)
+            @Parameter(description = "valorTotal para ordenar pelo valor do período (crescente), já com as regras de preço", example = "valorTotal")
+            String ordenarPor,
             @ParameterObject Pageable pageable) {
-        return service.listarDisponiveis(inicio, fim, pageable);
+        return service.listarDisponiveis(inicio, fim, new FiltroDisponibilidade(tipo, precoMax), ordenarPor, pageable);
+    }
+
+    @GetMapping("/disponiveis-por-hora")
+    @Operation(summary = "Lista locações disponíveis entre dois horários (horas cheias)")
+    @Parameters({
+        @Parameter(name = "page", description = "Página (0-base)", example = "0"),
+        @Parameter(name = "size", description = "Tamanho da página", example = "20"),
+        @Parameter(name = "sort", description = "Ordenação: campo,dir (asc|desc). Pode repetir.", example = "id,asc")
+    })
+    public Page<LocacaoDisponivelDTO> disponiveisPorHora(
+            @RequestParam
+            @DateTimeFormat(iso = ISO.DATE_TIME)
+            @Parameter(description = "Início", example = "2025-10-30T14:00:00",
+                       schema = @Schema(type = "string", format = "date-time"))
+            LocalDateTime inicio,
+            @RequestParam
+            @DateTimeFormat(iso = ISO.DATE_TIME)
+            @Parameter(description = "Fim (exclusivo)", example = "2025-10-30T16:00:00",
+                       schema = @Schema(type = "string", format = "date-time"))
+            LocalDateTime fim,
+            @RequestParam(required = false)
+            @Parameter(description = "Tipo de locação", example = "NAO_RESIDENCIAL")
+            TiposLocacao tipo,
+            @RequestParam(required = false)
+            @DecimalMin(value = "0", message = "precoMax deve ser >= 0.")
+            @Parameter(description = "Valor total máximo do período (valorHora × horas); 400 se houver regra de preço no período", example = "120.00")
+            BigDecimal precoMax,
+            @RequestParam(required = false)
+            @Parameter(description = "valorTotal para ordenar pelo valor do período (crescente), já com as regras de preço", example = "valorTotal")
+            String ordenarPor,
+            @ParameterObject Pageable pageable) {
+        return service.listarDisponiveis(inicio, fim, new FiltroDisponibilidade(tipo, precoMax), ordenarPor, pageable);
+    }
+
+    @PostMapping("/disponiveis/consulta")
+    @Operation(summary = "Lista locações disponíveis em várias janelas de uma vez")
+    public ResponseEntity<List<DisponibilidadeJanelaDTO>> consultarDisponibilidade(
+            @org.springframework.web.bind.annotation.RequestBody @Valid
+            @RequestBody(description = "Janelas [inicio, fim) a consultar", required = true)
+            ConsultaDisponibilidadeDTO consulta) {
+        return ResponseEntity.ok(service.consultarDisponibilidade(consulta));
+    }
+
+    @PostMapping("/cotacao")
+    @Operation(summary = "Cota várias locações para uma mesma janela")
+    public ResponseEntity<CotacaoResultadoDTO> cotar(
+            @org.springframework.web.bind.annotation.RequestBody @Valid
+            @RequestBody(description = "Janela [inicio, fim) e IDs das locações (opcional)", required = true)
+            CotacaoDTO cotacao) {
+        return ResponseEntity.ok(service.cotar(cotacao));
+    }
+
+    @GetMapping("/{id}/proxima-janela")
+    @Operation(summary = "Primeiro período livre de uma locação com a duração pedida")
+    public ResponseEntity<ProximaJanelaDTO> proximaJanela(
+            @Parameter(description = "Identificador da locação", example = "1")
+            @PathVariable Integer id,
+            @RequestParam
+            @Min(value = 1, message = "duracaoDias deve ser >= 1.")
+            @Max(value = 366, message = "duracaoDias deve ser <= {value}.")
+            @Parameter(description = "Duração da estadia em dias", example = "2")
+            int duracaoDias,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = ISO.DATE)
+            @Parameter(description = "Data a partir da qual procurar (padrão: hoje)", example = "2025-10-30",
+                       schema = @Schema(type = "string", format = "date"))
+            LocalDate aPartirDe) {
+        return ResponseEntity.ok(service.proximaJanela(id, duracaoDias, aPartirDe));
+    }
+
+    @GetMapping("/proxima-janela")
+    @Operation(summary = "Primeiro período livre com a duração pedida entre as locações de um tipo")
+    public ResponseEntity<ProximaJanelaDTO> proximaJanelaPorTipo(
+            @RequestParam
+            @Parameter(description = "Tipo de locação", example = "RESIDENCIAL")
+            TiposLocacao tipo,
+            @RequestParam
+            @Min(value = 1, message = "duracaoDias deve ser >= 1.")
+            @Max(value = 366, message = "duracaoDias deve ser <= {value}.")
+            @Parameter(description = "Duração da estadia em dias", example = "2")
+            int duracaoDias,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = ISO.DATE)
+            @Parameter(description = "Data a partir da qual procurar (padrão: hoje)", example = "2025-10-30",
+                       schema = @Schema(type = "string", format = "date"))
+            LocalDate aPartirDe) {
+        return ResponseEntity.ok(service.proximaJanela(tipo, duracaoDias, aPartirDe));
+    }
+
+    @GetMapping("/{id}/calendario")
+    @Operation(summary = "Ocupação diária de uma locação em um mês")
+    public ResponseEntity<CalendarioLocacaoDTO> calendario(
+            @Parameter(description = "Identificador da locação", example = "1")
+            @PathVariable Integer id,
+            @RequestParam
+            @DateTimeFormat(pattern = "yyyy-MM")
+            @Parameter(description = "Mês de referência (yyyy-MM)", example = "2025-10",
+                       schema = @Schema(type = "string"))
+            YearMonth mes) {
+        return ResponseEntity.ok(service.calendario(id, mes));
+    }
+
+    @GetMapping("/calendario")
+    @Operation(summary = "Ocupação diária de várias locações em um mês")
+    public ResponseEntity<List<CalendarioLocacaoDTO>> calendarios(
+            @RequestParam
+            @Size(min = 1, max = 100, message = "Informe de 1 a {max} locações.")
+            @Parameter(description = "Identificadores das locações", example = "1,2,3")
+            List<Integer> ids,
+            @RequestParam
+            @DateTimeFormat(pattern = "yyyy-MM")
+            @Parameter(description = "Mês de referência (yyyy-MM)", example = "2025-10",
+                       schema = @Schema(type = "string"))
+            YearMonth mes) {
+        return ResponseEntity.ok(service.calendario(ids, mes));
     }
 
     @PostMapping
@@ -107,6 +281,18 @@ public class LocacaoController {
         return ResponseEntity.created(URI.create("/locacoes/" + criado.getId())).body(criado);
     }
 
+    @PostMapping(path = "/lote", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            LeitorRegistros.TEXT_CSV })
+    @Operation(summary = "Importa locações em massa (array JSON, NDJSON ou CSV com cabeçalho)")
+    @ApiResponse(responseCode = "200", description = "Resumo da carga com os registros rejeitados")
+    @RequestBody(description = "Locações a criar, no formato de LocacaoPostDTO", required = true,
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = LocacaoPostDTO.class))))
+    public ResponseEntity<ImportacaoResultadoDTO> importarLote(
+            @Parameter(hidden = true) InputStream corpo,
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType formato) {
+        return ResponseEntity.ok(loteService.importar(corpo, formato));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualiza locação (PUT)")
     public ResponseEntity<LocacaoGetDTO> atualizar(
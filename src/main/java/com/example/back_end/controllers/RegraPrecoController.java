@@ -0,0 +1,78 @@
+package com.example.back_end.controllers;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.back_end.configs.OpenApiConfig;
+import com.example.back_end.dtos.preco.*;
+import com.example.back_end.services.RegraPrecoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/regras-preco")
+@SecurityRequirement(name = OpenApiConfig.BEARER_KEY)
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Regras de preço")
+public class RegraPrecoController {
+
+    private final RegraPrecoService service;
+
+    @GetMapping
+    @Operation(summary = "Lista as regras de preço")
+    public ResponseEntity<List<RegraPrecoGetDTO>> listarTodos() {
+        return ResponseEntity.ok(service.listarTodos());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Busca regra de preço por ID")
+    public ResponseEntity<RegraPrecoGetDTO> buscarPorId(
+            @Parameter(description = "Identificador da regra", example = "1")
+            @PathVariable Integer id) {
+        return ResponseEntity.ok(service.buscarPorId(id));
+    }
+
+    @PostMapping
+    @Operation(summary = "Cria uma regra de preço")
+    @ApiResponse(responseCode = "201", description = "Criado (Location no header)")
+    public ResponseEntity<RegraPrecoGetDTO> criar(
+            @org.springframework.web.bind.annotation.RequestBody @Valid
+            @RequestBody(description = "Dados da regra a ser criada", required = true)
+            RegraPrecoPostDTO dto) {
+        RegraPrecoGetDTO criada = service.criar(dto);
+        return ResponseEntity.created(URI.create("/regras-preco/" + criada.getId())).body(criada);
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Atualiza regra de preço (PUT)")
+    public ResponseEntity<RegraPrecoGetDTO> atualizar(
+            @Parameter(description = "Identificador da regra", example = "1")
+            @PathVariable Integer id,
+            @org.springframework.web.bind.annotation.RequestBody @Valid
+            @RequestBody(description = "Dados completos para atualização", required = true)
+            RegraPrecoPutDTO dto) {
+        return ResponseEntity.ok(service.atualizar(id, dto));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Remove regra de preço por ID")
+    @ApiResponse(responseCode = "204", description = "Removido (sem corpo)")
+    public ResponseEntity<Void> deletar(
+            @Parameter(description = "Identificador da regra", example = "1")
+            @PathVariable Integer id) {
+        service.deletar(id);
+        return ResponseEntity.noContent().build();
+    }
+}
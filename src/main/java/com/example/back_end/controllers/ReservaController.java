@@ -1,24 +1,44 @@
 package com.example.back_end.controllers;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.time.LocalDate;
 
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.back_end.configs.OpenApiConfig;
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
 import com.example.back_end.dtos.reserva.*;
+import com.example.back_end.enums.FormatoExportacao;
+import com.example.back_end.enums.ModoTotal;
+import com.example.back_end.services.ReservaExportacaoService;
+import com.example.back_end.services.ReservaLoteService;
 import com.example.back_end.services.ReservaService;
+import com.example.back_end.services.importacao.LeitorRegistros;
 
 import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -30,6 +50,8 @@ import lombok.RequiredArgsConstructor;
 public class ReservaController {
 
     private final ReservaService service;
+    private final ReservaLoteService loteService;
+    private final ReservaExportacaoService exportacaoService;
 
     @GetMapping
     @Operation(summary = "Lista reservas com paginação")
@@ -38,11 +60,55 @@ public class ReservaController {
         @Parameter(name = "size", description = "Tamanho da página", example = "20"),
         @Parameter(name = "sort", description = "Ordenação: campo,dir (asc|desc). Pode repetir.", example = "id,asc")
     })
-    public ResponseEntity<Page<ReservaGetDTO>> listarTodos(
+    public ResponseEntity<Slice<ReservaGetDTO>> listarTodos(
             @ParameterObject
             @PageableDefault(page = 0, size = 20, sort = "id", direction = Sort.Direction.ASC)
-            Pageable pageable) {
-        return ResponseEntity.ok(service.listarTodos(pageable));
+            Pageable pageable,
+            @RequestParam(required = false)
+            @Parameter(description = "Total de elementos: none (sem count), estimate (estatística do banco) ou exact", example = "exact")
+            String total) {
+        var resultado = service.listarTodos(pageable, ModoTotal.de(total));
+        return ResponseEntity.ok().headers(resultado.cabecalhos()).body(resultado.pagina());
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Lista reservas por cursor (paginação por chave, sem contagem total)")
+    public ResponseEntity<CursorPageDTO<ReservaGetDTO>> listarPorCursor(
+            @RequestParam(required = false)
+            @Parameter(description = "Cursor retornado na página anterior (vazio para a primeira)")
+            String cursor,
+            @RequestParam(defaultValue = "20")
+            @Min(value = 1, message = "size deve ser >= 1.")
+            @Max(value = 100, message = "size deve ser <= {value}.")
+            @Parameter(description = "Tamanho da página", example = "20")
+            int size) {
+        return ResponseEntity.ok(service.listarPorCursor(cursor, size));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exporta reservas em CSV ou NDJSON, em streaming")
+    public WebAsyncTask<Void> exportar(
+            @RequestParam(required = false)
+            @Parameter(description = "csv (padrão) ou ndjson", example = "csv")
+            String formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Data de início mínima (inclusiva)", example = "2025-10-01")
+            LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Data de início máxima (exclusiva)", example = "2025-11-01")
+            LocalDate ate,
+            @Parameter(hidden = true) HttpServletResponse response) {
+        FormatoExportacao f = FormatoExportacao.de(formato);
+        StreamingResponseBody corpo = exportacaoService.exportar(f, de, ate);
+        response.setContentType(f.mediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("reservas." + f.extensao()).build().toString());
+        // tarefa com prazo próprio: só a exportação pode levar minutos
+        return new WebAsyncTask<>(exportacaoService.tempoLimite().toMillis(), () -> {
+            corpo.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
     }
 
     @GetMapping("/{id}")
@@ -64,6 +130,18 @@ public class ReservaController {
         return ResponseEntity.created(URI.create("/reservas/" + criado.getId())).body(criado);
     }
 
+    @PostMapping(path = "/lote", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+            LeitorRegistros.TEXT_CSV })
+    @Operation(summary = "Importa reservas em lote (array JSON, NDJSON ou CSV com cabeçalho)")
+    @ApiResponse(responseCode = "200", description = "Resultado por registro; rejeições não impedem os demais")
+    @RequestBody(description = "Reservas a criar, no formato de ReservaPostDTO", required = true,
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = ReservaPostDTO.class))))
+    public ResponseEntity<ReservaLoteResultadoDTO> importarLote(
+            @Parameter(hidden = true) InputStream corpo,
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType formato) {
+        return ResponseEntity.ok(loteService.importar(corpo, formato));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualiza reserva (PUT)")
     public ResponseEntity<ReservaGetDTO> atualizar(
@@ -0,0 +1,21 @@
+package com.example.back_end.dtos.importacao;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "ImportacaoErroDTO", description = "Registro rejeitado na importação")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportacaoErroDTO {
+
+    @Schema(description = "Posição do registro no arquivo (1-based, sem contar o cabeçalho CSV)", example = "3")
+    private Integer linha;
+
+    @Schema(description = "Motivo da rejeição", example = "E-mail já cadastrado.")
+    private String erro;
+}
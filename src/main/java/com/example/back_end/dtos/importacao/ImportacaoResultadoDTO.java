@@ -0,0 +1,29 @@
+package com.example.back_end.dtos.importacao;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "ImportacaoResultadoDTO", description = "Resumo de uma importação em massa")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportacaoResultadoDTO {
+
+    @Schema(description = "Registros lidos", example = "1000")
+    private int total;
+
+    @Schema(description = "Registros gravados", example = "998")
+    private int importados;
+
+    @Schema(description = "Registros rejeitados", example = "2")
+    private int rejeitados;
+
+    @Schema(description = "Registros rejeitados, em ordem de linha")
+    private List<ImportacaoErroDTO> erros;
+}
@@ -0,0 +1,29 @@
+package com.example.back_end.dtos.locacao;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "CalendarioLocacaoDTO", description = "Ocupação diária de uma locação em um mês")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarioLocacaoDTO {
+
+    @Schema(description = "ID da locação", example = "1")
+    private Integer locacaoId;
+
+    @Schema(description = "Mês de referência", type = "string", example = "2025-10")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM")
+    private YearMonth mes;
+
+    @Schema(description = "Ocupação de cada dia do mês")
+    private List<DiaCalendarioDTO> dias;
+}
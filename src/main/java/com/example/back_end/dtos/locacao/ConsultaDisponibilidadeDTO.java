@@ -0,0 +1,27 @@
+package com.example.back_end.dtos.locacao;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "ConsultaDisponibilidadeDTO", description = "Janelas a consultar em uma única requisição")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsultaDisponibilidadeDTO {
+
+    @Schema(description = "Janelas candidatas")
+    @NotEmpty(message = "Informe ao menos uma janela.")
+    @Size(max = 20, message = "Informe no máximo {max} janelas.")
+    private List<@Valid @NotNull(message = "A janela não pode ser nula.") JanelaDTO> janelas;
+}
@@ -0,0 +1,22 @@
+package com.example.back_end.dtos.locacao;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "CotacaoDTO", description = "Janela a cotar e, opcionalmente, as locações a considerar")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CotacaoDTO extends JanelaDTO {
+
+    @Schema(description = "IDs das locações; vazio ou ausente cota todas", example = "[1, 2, 3]")
+    @Size(max = 500, message = "Informe no máximo {max} locações.")
+    private List<@NotNull(message = "O ID da locação não pode ser nulo.") Integer> locacaoIds;
+}
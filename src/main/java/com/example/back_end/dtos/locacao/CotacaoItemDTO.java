@@ -0,0 +1,32 @@
+package com.example.back_end.dtos.locacao;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "CotacaoItemDTO", description = "Preço e situação de uma locação para a janela cotada")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CotacaoItemDTO {
+
+    @Schema(description = "ID da locação", example = "1")
+    private Integer locacaoId;
+
+    @Schema(description = "Nome da locação", example = "Casa de Praia")
+    private String nome;
+
+    @Schema(description = "Valor final de uma reserva na janela (valorHora × horas)", example = "480.00")
+    private BigDecimal valorFinal;
+
+    @Schema(description = "A duração da janela cabe em tempoMinimo/tempoMaximo da locação", example = "true")
+    private boolean duracaoAdmitida;
+
+    @Schema(description = "Não há reserva pendente ou confirmada sobreposta à janela", example = "true")
+    private boolean disponivel;
+}
@@ -0,0 +1,30 @@
+package com.example.back_end.dtos.locacao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "CotacaoResultadoDTO", description = "Cotação de várias locações para uma mesma janela")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CotacaoResultadoDTO {
+
+    @Schema(description = "Data inicial (inclusiva)", type = "string", format = "date", example = "2025-10-31")
+    private LocalDate inicio;
+
+    @Schema(description = "Data final (exclusiva)", type = "string", format = "date", example = "2025-11-02")
+    private LocalDate fim;
+
+    @Schema(description = "Horas da janela", example = "48")
+    private int horas;
+
+    @Schema(description = "Locações cotadas, em ordem de ID; IDs inexistentes não aparecem")
+    private List<CotacaoItemDTO> itens;
+}
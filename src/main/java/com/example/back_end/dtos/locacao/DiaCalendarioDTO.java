@@ -0,0 +1,29 @@
+package com.example.back_end.dtos.locacao;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "DiaCalendarioDTO", description = "Ocupação de uma locação em um dia")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiaCalendarioDTO {
+
+    @Schema(description = "Dia", type = "string", format = "date", example = "2025-10-30")
+    private LocalDate data;
+
+    @Schema(description = "Indica se resta unidade livre da locação no dia", example = "false")
+    private boolean disponivel;
+
+    @Schema(description = "Unidades livres no dia (quantidade menos reservas ativas)", example = "0")
+    private int unidadesLivres;
+
+    @Schema(description = "ID de uma reserva que ocupa o dia (nulo se disponível)", example = "1")
+    private Integer reservaId;
+}
@@ -0,0 +1,27 @@
+package com.example.back_end.dtos.locacao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "DisponibilidadeJanelaDTO", description = "Locações disponíveis em uma janela")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DisponibilidadeJanelaDTO {
+
+    @Schema(description = "Data inicial (inclusiva)", type = "string", format = "date", example = "2025-10-31")
+    private LocalDate inicio;
+
+    @Schema(description = "Data final (exclusiva)", type = "string", format = "date", example = "2025-11-02")
+    private LocalDate fim;
+
+    @Schema(description = "Locações livres no período e cuja faixa de tempo admite a duração da janela")
+    private List<LocacaoGetDTO> locacoes;
+}
@@ -0,0 +1,35 @@
+package com.example.back_end.dtos.locacao;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "JanelaDTO", description = "Período [inicio, fim) de uma estadia candidata")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class JanelaDTO {
+
+    @Schema(description = "Data inicial (inclusiva)", type = "string", format = "date", example = "2025-10-31")
+    @NotNull(message = "O início da janela é um campo obrigatório.")
+    private LocalDate inicio;
+
+    @Schema(description = "Data final (exclusiva)", type = "string", format = "date", example = "2025-11-02")
+    @NotNull(message = "O fim da janela é um campo obrigatório.")
+    private LocalDate fim;
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "O fim da janela deve ser posterior ao início.")
+    public boolean isPeriodoValido() {
+        if (inicio == null || fim == null) return true;
+        return fim.isAfter(inicio);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.back_end.dtos.locacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.back_end.enums.TiposLocacao;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "LocacaoDisponivelDTO", description = "Locação disponível, com o valor total do período consultado")
+@Getter
+@Setter
+@NoArgsConstructor
+public class LocacaoDisponivelDTO extends LocacaoGetDTO {
+
+    @Schema(description = "Valor total do período (valorHora × horas), calculado na consulta", example = "480.00")
+    private BigDecimal valorTotal;
+
+    public LocacaoDisponivelDTO(Integer id, String nome, TiposLocacao tipo, String descricao, BigDecimal valorHora,
+            Integer tempoMinimo, Integer tempoMaximo, Integer quantidade, LocalDateTime dataCriacao,
+            BigDecimal valorTotal) {
+        super(id, nome, tipo, descricao, valorHora, tempoMinimo, tempoMaximo, quantidade, dataCriacao);
+        this.valorTotal = valorTotal;
+    }
+}
@@ -39,6 +39,9 @@ public class LocacaoGetDTO {
     @Schema(description = "Tempo máximo (horas)", example = "72")
     private Integer tempoMaximo;
 
+    @Schema(description = "Unidades idênticas disponíveis para reserva simultânea", example = "1")
+    private Integer quantidade;
+
     @Schema(description = "Data/hora de criação (ISO-8601)", type = "string", format = "date-time",
             example = "2025-10-31T14:23:11")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
@@ -48,6 +48,10 @@ public class LocacaoPatchDTO {
     @Positive(message = "O tempo máximo deve ser um número > 0.")
     private Integer tempoMaximo;
 
+    @Schema(description = "Unidades idênticas disponíveis para reserva simultânea", example = "1")
+    @Positive(message = "A quantidade deve ser um número > 0.")
+    private Integer quantidade;
+
     @AssertTrue(message = "O tempo máximo da locação não pode ser menor do que o tempo mínimo.")
     public boolean isTempoRangeValido() {
         if (tempoMinimo == null || tempoMaximo == null) return true;
@@ -53,6 +53,10 @@ public class LocacaoPutDTO {
     @Positive(message = "O tempo máximo deve ser um número > 0.")
     private Integer tempoMaximo;
 
+    @Schema(description = "Unidades idênticas disponíveis para reserva simultânea (padrão 1)", example = "1")
+    @Positive(message = "A quantidade deve ser um número > 0.")
+    private Integer quantidade;
+
     @AssertTrue(message = "tempoMaximo não pode ser menor que tempoMinimo.")
     public boolean isTempoRangeValido() {
         if (tempoMinimo == null || tempoMaximo == null) return true;
@@ -0,0 +1,26 @@
+package com.example.back_end.dtos.locacao;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "ProximaJanelaDTO", description = "Primeiro período livre com a duração pedida")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProximaJanelaDTO {
+
+    @Schema(description = "ID da locação", example = "1")
+    private Integer locacaoId;
+
+    @Schema(description = "Data inicial (inclusiva)", type = "string", format = "date", example = "2025-11-07")
+    private LocalDate inicio;
+
+    @Schema(description = "Data final (exclusiva)", type = "string", format = "date", example = "2025-11-09")
+    private LocalDate fim;
+}
@@ -0,0 +1,29 @@
+package com.example.back_end.dtos.paginacao;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "CursorPageDTO", description = "Página obtida por cursor (sem contagem total)")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Itens da página")
+    private List<T> conteudo;
+
+    @Schema(description = "Tamanho solicitado", example = "20")
+    private int tamanho;
+
+    @Schema(description = "Indica se há mais itens após esta página", example = "true")
+    private boolean temProximo;
+
+    @Schema(description = "Cursor opaco para a próxima página (nulo na última)", example = "MjA")
+    private String proximoCursor;
+}
@@ -0,0 +1,58 @@
+package com.example.back_end.dtos.preco;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.back_end.enums.TipoRegraPreco;
+import com.example.back_end.enums.TiposLocacao;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "RegraPrecoGetDTO", description = "Representação de regra de preço para leitura")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegraPrecoGetDTO {
+
+    @Schema(description = "ID da regra", example = "1")
+    private Integer id;
+
+    @Schema(description = "Nome da regra", example = "Alta temporada 2025")
+    private String nome;
+
+    @Schema(description = "Tipo da regra", implementation = TipoRegraPreco.class, example = "TEMPORADA")
+    private TipoRegraPreco tipoRegra;
+
+    @Schema(description = "Locação a que a regra se aplica", example = "1")
+    private Integer locacaoId;
+
+    @Schema(description = "Tipo de locação a que a regra se aplica", implementation = TiposLocacao.class,
+            example = "TEMPORADA")
+    private TiposLocacao tipoLocacao;
+
+    @Schema(description = "Ajuste em % sobre o valor (negativo para desconto)", example = "25.00")
+    private BigDecimal percentual;
+
+    @Schema(description = "Início da vigência (inclusivo)", type = "string", format = "date", example = "2025-12-15")
+    private LocalDate dataInicio;
+
+    @Schema(description = "Fim da vigência (exclusivo)", type = "string", format = "date", example = "2026-03-01")
+    private LocalDate dataFim;
+
+    @Schema(description = "Dias mínimos da estadia", example = "7")
+    private Integer diasMinimos;
+
+    @Schema(description = "Regra em vigor", example = "true")
+    private boolean ativa;
+
+    @Schema(description = "Data/hora de criação (ISO-8601)", type = "string", format = "date-time",
+            example = "2025-10-31T14:23:11")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dataCriacao;
+}
@@ -0,0 +1,88 @@
+package com.example.back_end.dtos.preco;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.example.back_end.enums.TipoRegraPreco;
+import com.example.back_end.enums.TiposLocacao;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "RegraPrecoPostDTO", description = "Dados para criação de regra de preço")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegraPrecoPostDTO {
+
+    @Schema(description = "Nome da regra", example = "Alta temporada 2025")
+    @NotBlank(message = "O nome é um campo obrigatório.")
+    @Size(max = 50, message = "O nome não pode exceder {max} caracteres.")
+    private String nome;
+
+    @Schema(description = "Tipo da regra", implementation = TipoRegraPreco.class, example = "TEMPORADA")
+    @NotNull(message = "O tipo da regra é um campo obrigatório.")
+    private TipoRegraPreco tipoRegra;
+
+    @Schema(description = "Locação a que a regra se aplica (informe este ou tipoLocacao)", example = "1")
+    private Integer locacaoId;
+
+    @Schema(description = "Tipo de locação a que a regra se aplica (informe este ou locacaoId)",
+            implementation = TiposLocacao.class, example = "TEMPORADA")
+    private TiposLocacao tipoLocacao;
+
+    @Schema(description = "Ajuste em % sobre o valor (negativo para desconto)", example = "25.00")
+    @NotNull(message = "O percentual é um campo obrigatório.")
+    @DecimalMin(value = "-100", message = "O percentual deve ser >= {value}.")
+    @DecimalMax(value = "500", message = "O percentual deve ser <= {value}.")
+    @Digits(integer = 3, fraction = 2, message = "O percentual aceita no máximo {fraction} casas decimais.")
+    private BigDecimal percentual;
+
+    @Schema(description = "Início da vigência (inclusivo); obrigatório em TEMPORADA", type = "string",
+            format = "date", example = "2025-12-15")
+    private LocalDate dataInicio;
+
+    @Schema(description = "Fim da vigência (exclusivo); obrigatório em TEMPORADA", type = "string",
+            format = "date", example = "2026-03-01")
+    private LocalDate dataFim;
+
+    @Schema(description = "Dias mínimos da estadia; obrigatório em LONGA_ESTADIA", example = "7")
+    @Positive(message = "Os dias mínimos devem ser um número > 0.")
+    private Integer diasMinimos;
+
+    @Schema(description = "Regra em vigor", example = "true")
+    private boolean ativa = true;
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "Informe exatamente um entre locacaoId e tipoLocacao.")
+    public boolean isEscopoValido() {
+        return (locacaoId == null) != (tipoLocacao == null);
+    }
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "dataFim deve ser posterior a dataInicio.")
+    public boolean isPeriodoValido() {
+        if (dataInicio == null || dataFim == null) return true;
+        return dataFim.isAfter(dataInicio);
+    }
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "TEMPORADA exige dataInicio e dataFim; LONGA_ESTADIA exige diasMinimos.")
+    public boolean isCamposDoTipoValidos() {
+        if (tipoRegra == TipoRegraPreco.TEMPORADA) return dataInicio != null && dataFim != null;
+        if (tipoRegra == TipoRegraPreco.LONGA_ESTADIA) return diasMinimos != null;
+        return true;
+    }
+}
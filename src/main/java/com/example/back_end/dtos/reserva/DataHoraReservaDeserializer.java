@@ -0,0 +1,36 @@
+package com.example.back_end.dtos.reserva;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+// aceita data e hora ISO (2025-10-30T14:00) e, como antes das reservas por hora,
+// só a data (2025-10-30), lida como meia-noite
+public class DataHoraReservaDeserializer extends StdScalarDeserializer<LocalDateTime> {
+
+    public DataHoraReservaDeserializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public LocalDateTime deserialize(JsonParser parser, DeserializationContext ctx) throws IOException {
+        String texto = parser.getValueAsString();
+        if (texto == null || texto.isBlank()) {
+            return null;
+        }
+        texto = texto.trim();
+        try {
+            return texto.indexOf('T') < 0
+                    ? LocalDate.parse(texto).atStartOfDay()
+                    : LocalDateTime.parse(texto);
+        } catch (DateTimeParseException e) {
+            return (LocalDateTime) ctx.handleWeirdStringValue(LocalDateTime.class, texto,
+                    "use yyyy-MM-dd ou yyyy-MM-ddTHH:mm");
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.back_end.dtos.reserva;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import com.example.back_end.enums.SituacaoReserva;
@@ -28,11 +27,13 @@ public class ReservaGetDTO {
     @Schema(description = "ID da locação", example = "1")
     private Integer locacaoId;
 
-    @Schema(description = "Data de início", type = "string", format = "date", example = "2025-10-30")
-    private LocalDate dataInicio;
+    @Schema(description = "Início", type = "string", format = "date-time", example = "2025-10-30T14:00:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dataInicio;
 
-    @Schema(description = "Data de fim", type = "string", format = "date", example = "2025-10-31")
-    private LocalDate dataFim;
+    @Schema(description = "Fim (exclusivo)", type = "string", format = "date-time", example = "2025-10-30T16:00:00")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dataFim;
 
     @Schema(description = "Valor final da reserva", example = "480.00")
     private BigDecimal valorFinal;
@@ -0,0 +1,24 @@
+package com.example.back_end.dtos.reserva;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "ReservaLoteLinhaDTO", description = "Resultado de um registro da importação em lote")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservaLoteLinhaDTO {
+
+    @Schema(description = "Posição do registro no lote (1-based)", example = "1")
+    private Integer linha;
+
+    @Schema(description = "ID da reserva criada (nulo se rejeitada)", example = "1")
+    private Integer reservaId;
+
+    @Schema(description = "Motivo da rejeição (nulo se criada)", example = "Locação não encontrada.")
+    private String erro;
+}
@@ -0,0 +1,29 @@
+package com.example.back_end.dtos.reserva;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Schema(name = "ReservaLoteResultadoDTO", description = "Resumo e resultado por registro da importação em lote")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservaLoteResultadoDTO {
+
+    @Schema(description = "Registros lidos", example = "3")
+    private int total;
+
+    @Schema(description = "Reservas criadas", example = "2")
+    private int criadas;
+
+    @Schema(description = "Registros rejeitados", example = "1")
+    private int rejeitadas;
+
+    @Schema(description = "Resultado de cada registro, na ordem do lote")
+    private List<ReservaLoteLinhaDTO> linhas;
+}
@@ -1,8 +1,10 @@
 package com.example.back_end.dtos.reserva;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import com.example.back_end.enums.SituacaoReserva;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -31,11 +33,15 @@ public class ReservaPatchDTO {
     @Positive(message = "Não existe uma locação com id <= 0.")
     private Integer locacaoId;
 
-    @Schema(description = "Data de início", type = "string", format = "date", example = "2025-10-30")
-    private LocalDate dataInicio;
+    @Schema(description = "Início (hora cheia); só a data vale como meia-noite", type = "string", format = "date-time",
+            example = "2025-10-30T14:00:00")
+    @JsonDeserialize(using = DataHoraReservaDeserializer.class)
+    private LocalDateTime dataInicio;
 
-    @Schema(description = "Data de fim", type = "string", format = "date", example = "2025-10-31")
-    private LocalDate dataFim;
+    @Schema(description = "Fim, exclusivo (hora cheia); só a data vale como meia-noite", type = "string", format = "date-time",
+            example = "2025-10-30T16:00:00")
+    @JsonDeserialize(using = DataHoraReservaDeserializer.class)
+    private LocalDateTime dataFim;
 
     @Schema(description = "Situação da reserva", implementation = SituacaoReserva.class, example = "CONFIRMADA")
     @Enumerated(EnumType.STRING)
@@ -46,4 +52,10 @@ public class ReservaPatchDTO {
         if (dataInicio == null || dataFim == null) return true;
         return dataFim.isAfter(dataInicio);
     }
+
+    @AssertTrue(message = "Início e fim da Reserva devem cair em hora cheia.")
+    public boolean isHoraCheia() {
+        return (dataInicio == null || dataInicio.truncatedTo(ChronoUnit.HOURS).equals(dataInicio))
+                && (dataFim == null || dataFim.truncatedTo(ChronoUnit.HOURS).equals(dataFim));
+    }
 }
@@ -1,8 +1,10 @@
 package com.example.back_end.dtos.reserva;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import com.example.back_end.enums.SituacaoReserva;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import jakarta.persistence.EnumType;
@@ -32,13 +34,17 @@ public class ReservaPostDTO {
     @Positive(message = "Não existe uma locação com id <= 0.")
     private Integer locacaoId;
 
-    @Schema(description = "Data de início", type = "string", format = "date", example = "2025-10-30")
+    @Schema(description = "Início (hora cheia); só a data vale como meia-noite", type = "string", format = "date-time",
+            example = "2025-10-30T14:00:00")
+    @JsonDeserialize(using = DataHoraReservaDeserializer.class)
     @NotNull(message = "A data de início é um campo obrigatório.")
-    private LocalDate dataInicio;
+    private LocalDateTime dataInicio;
 
-    @Schema(description = "Data de fim", type = "string", format = "date", example = "2025-10-31")
+    @Schema(description = "Fim, exclusivo (hora cheia); só a data vale como meia-noite", type = "string", format = "date-time",
+            example = "2025-10-30T16:00:00")
+    @JsonDeserialize(using = DataHoraReservaDeserializer.class)
     @NotNull(message = "A data de fim é um campo obrigatório.")
-    private LocalDate dataFim;
+    private LocalDateTime dataFim;
 
     @Schema(description = "Situação da reserva", implementation = SituacaoReserva.class, example = "CONFIRMADA")
     @Enumerated(EnumType.STRING)
@@ -50,4 +56,10 @@ public class ReservaPostDTO {
         if (dataInicio == null || dataFim == null) return true;
         return dataFim.isAfter(dataInicio);
     }
+
+    @AssertTrue(message = "Início e fim da Reserva devem cair em hora cheia.")
+    public boolean isHoraCheia() {
+        return (dataInicio == null || dataInicio.truncatedTo(ChronoUnit.HOURS).equals(dataInicio))
+                && (dataFim == null || dataFim.truncatedTo(ChronoUnit.HOURS).equals(dataFim));
+    }
 }
@@ -3,11 +3,15 @@ package com.example.back_end.entities;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Check;
 import org.hibernate.annotations.CreationTimestamp;
 
+import com.example.back_end.configs.CacheSegundoNivelConfig;
 import com.example.back_end.enums.TiposLocacao;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -15,6 +19,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -22,12 +27,15 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.LOCACOES)
 @Table(name = "locacoes")
 @Check(constraints = """
             tempo_minimo > 0 AND
             tempo_maximo > 0 AND
             tempo_maximo >= tempo_minimo AND
-            valor_hora > 0
+            valor_hora > 0 AND
+            quantidade > 0
         """)
 @Getter
 @Setter
@@ -36,7 +44,8 @@ import lombok.Setter;
 public class LocacaoEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "locacoes_id_seq")
+    @SequenceGenerator(name = "locacoes_id_seq", sequenceName = "locacoes_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "nome", nullable = false, length = 50)
@@ -58,6 +67,10 @@ public class LocacaoEntity {
     @Column(name = "tempo_maximo", nullable = false)
     private Integer tempoMaximo;
 
+    // unidades idênticas da locação; reservas ativas simultâneas não passam deste número
+    @Column(name = "quantidade", nullable = false)
+    private Integer quantidade;
+
     @Column(name = "data_criacao", updatable = false)
     @CreationTimestamp
     private LocalDateTime dataCriacao;
@@ -0,0 +1,72 @@
+package com.example.back_end.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.example.back_end.enums.TipoRegraPreco;
+import com.example.back_end.enums.TiposLocacao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "regras_preco")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RegraPrecoEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "regras_preco_id_seq")
+    @SequenceGenerator(name = "regras_preco_id_seq", sequenceName = "regras_preco_id_seq", allocationSize = 50)
+    private Integer id;
+
+    @Column(name = "nome", nullable = false, length = 50)
+    private String nome;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_regra", nullable = false, length = 20)
+    private TipoRegraPreco tipoRegra;
+
+    // escopo: exatamente um dos dois é preenchido
+    @Column(name = "locacao_id")
+    private Integer locacaoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_locacao", length = 20)
+    private TiposLocacao tipoLocacao;
+
+    @Column(name = "percentual", nullable = false, precision = 5, scale = 2)
+    private BigDecimal percentual;
+
+    @Column(name = "data_inicio")
+    private LocalDate dataInicio;
+
+    @Column(name = "data_fim")
+    private LocalDate dataFim;
+
+    @Column(name = "dias_minimos")
+    private Integer diasMinimos;
+
+    @Column(name = "ativa", nullable = false)
+    private boolean ativa;
+
+    @Column(name = "data_criacao", updatable = false)
+    @CreationTimestamp
+    private LocalDateTime dataCriacao;
+}
@@ -1,7 +1,6 @@
 package com.example.back_end.entities;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
@@ -18,6 +17,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -33,7 +33,8 @@ import lombok.Setter;
 public class ReservaEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_id_seq")
+    @SequenceGenerator(name = "reservas_id_seq", sequenceName = "reservas_id_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -44,11 +45,11 @@ public class ReservaEntity {
     @JoinColumn(name = "locacao_id", nullable = false)
     private LocacaoEntity locacao;
 
-    @Column(name = "data_inicio", nullable = false)
-    private LocalDate dataInicio;
+    @Column(name = "data_hora_inicio", nullable = false)
+    private LocalDateTime dataInicio;
 
-    @Column(name = "data_fim", nullable = false)
-    private LocalDate dataFim;
+    @Column(name = "data_hora_fim", nullable = false)
+    private LocalDateTime dataFim;
 
     @Column(name = "valor_final", nullable = false, precision = 10, scale = 2)
     private BigDecimal valorFinal;
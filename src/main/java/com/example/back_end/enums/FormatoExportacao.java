@@ -0,0 +1,35 @@
+package com.example.back_end.enums;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+public enum FormatoExportacao {
+    CSV("text/csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE);
+
+    private final String mediaType;
+
+    FormatoExportacao(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static FormatoExportacao de(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Parâmetro 'formato' deve ser csv ou ndjson.");
+        }
+    }
+
+    public MediaType mediaType() {
+        return MediaType.parseMediaType(mediaType);
+    }
+
+    public String extensao() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
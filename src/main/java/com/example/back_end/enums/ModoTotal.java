@@ -0,0 +1,24 @@
+package com.example.back_end.enums;
+
+import java.util.Locale;
+
+public enum ModoTotal {
+    NONE,
+    ESTIMATE,
+    EXACT;
+
+    public static ModoTotal de(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Parâmetro 'total' deve ser none, estimate ou exact.");
+        }
+    }
+
+    public String valor() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -4,5 +4,10 @@ public enum SituacaoReserva {
     PENDENTE,
     CONFIRMADA,
     CANCELADA,
-    CONCLUIDA
+    CONCLUIDA;
+
+    // somente reservas pendentes ou confirmadas bloqueiam o período da locação
+    public boolean ocupaPeriodo() {
+        return this == PENDENTE || this == CONFIRMADA;
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.back_end.enums;
+
+public enum TipoRegraPreco {
+    FIM_DE_SEMANA,
+    TEMPORADA,
+    LONGA_ESTADIA
+}
@@ -122,6 +122,14 @@ public class GlobalExceptionHandler {
         @ExceptionHandler(DataIntegrityViolationException.class)
         @ResponseStatus(HttpStatus.CONFLICT)
         public ErrorResponse handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest req) {
+                if (RestricoesBanco.violouCapacidade(ex))
+                        return ErrorResponse.simple(HttpStatus.CONFLICT,
+                                        "Período indisponível: já existe reserva para essa locação.",
+                                        req.getRequestURI());
+                if (RestricoesBanco.violouQuantidade(ex))
+                        return ErrorResponse.simple(HttpStatus.CONFLICT,
+                                        "Quantidade menor que as reservas ativas simultâneas dessa locação.",
+                                        req.getRequestURI());
                 String msg = "Violação de integridade de dados.";
                 String root = ex.getMostSpecificCause() != null ? ex.getMostSpecificCause().getMessage() : null;
                 if (root != null && !root.isBlank())
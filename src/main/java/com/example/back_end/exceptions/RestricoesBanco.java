@@ -0,0 +1,37 @@
+package com.example.back_end.exceptions;
+
+import java.sql.SQLException;
+
+public final class RestricoesBanco {
+
+    // gatilho que limita as reservas ativas simultâneas à quantidade da locação
+    public static final String CAPACIDADE_RESERVA = "tg_reservas_capacidade";
+
+    // gatilho que impede baixar a quantidade abaixo das reservas ativas simultâneas
+    public static final String QUANTIDADE_LOCACAO = "tg_locacoes_quantidade";
+
+    // SQLState do PostgreSQL para violação de restrição EXCLUDE, também usado pelos gatilhos
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private RestricoesBanco() {
+    }
+
+    public static boolean violouCapacidade(Throwable ex) {
+        SQLException sql = exclusao(ex);
+        return sql != null && (sql.getMessage() == null || sql.getMessage().contains(CAPACIDADE_RESERVA));
+    }
+
+    public static boolean violouQuantidade(Throwable ex) {
+        SQLException sql = exclusao(ex);
+        return sql != null && sql.getMessage() != null && sql.getMessage().contains(QUANTIDADE_LOCACAO);
+    }
+
+    private static SQLException exclusao(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return sql;
+            }
+        }
+        return null;
+    }
+}
@@ -23,10 +23,12 @@ public interface LocacaoMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dataCriacao", ignore = true)
+    @Mapping(target = "quantidade", defaultValue = "1")
     LocacaoEntity fromPostDTO(LocacaoPostDTO dto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "dataCriacao", ignore = true)
+    @Mapping(target = "quantidade", defaultValue = "1")
     void updateFromPutDTO(LocacaoPutDTO dto, @MappingTarget LocacaoEntity target);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -0,0 +1,28 @@
+package com.example.back_end.mappers;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import com.example.back_end.dtos.preco.RegraPrecoGetDTO;
+import com.example.back_end.dtos.preco.RegraPrecoPostDTO;
+import com.example.back_end.dtos.preco.RegraPrecoPutDTO;
+import com.example.back_end.entities.RegraPrecoEntity;
+
+@Mapper(componentModel = "spring")
+public interface RegraPrecoMapper {
+
+    RegraPrecoGetDTO toGetDTO(RegraPrecoEntity entity);
+
+    List<RegraPrecoGetDTO> toGetDTO(List<RegraPrecoEntity> entities);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "dataCriacao", ignore = true)
+    RegraPrecoEntity fromPostDTO(RegraPrecoPostDTO dto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "dataCriacao", ignore = true)
+    void updateFromPutDTO(RegraPrecoPutDTO dto, @MappingTarget RegraPrecoEntity target);
+}
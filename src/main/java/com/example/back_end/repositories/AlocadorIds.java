@@ -0,0 +1,67 @@
+package com.example.back_end.repositories;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reserva ids para inserções feitas fora do Hibernate (lotes JDBC, COPY). As sequências
+ * têm INCREMENT BY 50 (V4__ids_sequencias.sql) e cada nextval entrega o bloco
+ * (valor - 49 .. valor), a mesma convenção do otimizador pooled das entidades,
+ * então os dois caminhos nunca geram o mesmo id. Como no pooled, o resto de cada bloco fica
+ * guardado para a próxima chamada: inserções de uma linha (POST /reservas) gastam um id, não 50.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlocadorIds {
+
+    public static final String CLIENTES = "public.clientes_id_seq";
+    public static final String LOCACOES = "public.locacoes_id_seq";
+    public static final String RESERVAS = "public.reservas_id_seq";
+
+    private static final int INCREMENTO_SEQUENCIA = 50;
+    private static final Set<String> SEQUENCIAS = Set.of(CLIENTES, LOCACOES, RESERVAS);
+
+    private final JdbcTemplate jdbc;
+
+    // por sequência: próximo id livre e topo do bloco em uso
+    private final Map<String, long[]> restos = new HashMap<>();
+
+    public synchronized List<Integer> alocar(String sequencia, int quantidade) {
+        if (!SEQUENCIAS.contains(sequencia)) {
+            throw new IllegalArgumentException("Sequência desconhecida: " + sequencia);
+        }
+        if (quantidade <= 0) {
+            return List.of();
+        }
+        List<Integer> ids = new ArrayList<>(quantidade);
+        long[] resto = restos.computeIfAbsent(sequencia, s -> new long[] {1, 0});
+        while (ids.size() < quantidade && resto[0] <= resto[1]) {
+            ids.add(Math.toIntExact(resto[0]++));
+        }
+        if (ids.size() == quantidade) {
+            return ids;
+        }
+
+        int faltam = quantidade - ids.size();
+        int blocos = (faltam + INCREMENTO_SEQUENCIA - 1) / INCREMENTO_SEQUENCIA;
+        List<Long> topos = jdbc.queryForList(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequencia, blocos);
+        for (Long topo : topos) {
+            long id = topo - INCREMENTO_SEQUENCIA + 1;
+            for (; id <= topo && ids.size() < quantidade; id++) {
+                ids.add(Math.toIntExact(id));
+            }
+            resto[0] = id;
+            resto[1] = topo;
+        }
+        return ids;
+    }
+}
@@ -1,11 +1,40 @@
 package com.example.back_end.repositories;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.back_end.dtos.cliente.ClienteGetDTO;
 import com.example.back_end.entities.ClienteEntity;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<ClienteEntity, Integer> {
+        // página por cursor (keyset sobre a chave primária), também direto no DTO
+        @Query("""
+                        select new com.example.back_end.dtos.cliente.ClienteGetDTO(
+                                c.id, c.nome, c.email, c.telefone, c.cpf, c.dataCriacao)
+                        from ClienteEntity c
+                        where c.id > :cursor
+                        order by c.id
+                        """)
+        List<ClienteGetDTO> findPaginaCursorDTO(@Param("cursor") Integer cursor, Limit limit);
+
+        @Query("select c.id from ClienteEntity c where c.id in :ids")
+        List<Integer> findIdsExistentes(@Param("ids") Collection<Integer> ids);
 
+        // leitura direto no DTO: nada entra no contexto de persistência
+        // e a página vem sem a consulta de count
+        @Query("""
+                        select new com.example.back_end.dtos.cliente.ClienteGetDTO(
+                                c.id, c.nome, c.email, c.telefone, c.cpf, c.dataCriacao)
+                        from ClienteEntity c
+                        """)
+        Slice<ClienteGetDTO> findPaginaDTO(Pageable pageable);
 }
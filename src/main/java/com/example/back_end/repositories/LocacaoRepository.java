@@ -1,21 +1,213 @@
 package com.example.back_end.repositories;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
+import com.example.back_end.dtos.locacao.LocacaoGetDTO;
 import com.example.back_end.entities.LocacaoEntity;
+import com.example.back_end.enums.TiposLocacao;
+import com.example.back_end.repositories.projections.CapacidadeLocacao;
+import com.example.back_end.repositories.projections.CotacaoLocacao;
 
 @Repository
 public interface LocacaoRepository extends JpaRepository<LocacaoEntity, Integer> {
-        Page<LocacaoEntity> findByIdNotIn(List<Integer> ids, Pageable pageable);
+        // página por cursor (keyset sobre a chave primária), também direto no DTO
+        @Query("""
+                        select new com.example.back_end.dtos.locacao.LocacaoGetDTO(
+                                l.id, l.nome, l.tipo, l.descricao, l.valorHora, l.tempoMinimo, l.tempoMaximo, l.quantidade, l.dataCriacao)
+                        from LocacaoEntity l
+                        where l.id > :cursor
+                        order by l.id
+                        """)
+        List<LocacaoGetDTO> findPaginaCursorDTO(@Param("cursor") Integer cursor, Limit limit);
 
-        Page<LocacaoEntity> findByTempoMinimoLessThanEqualAndTempoMaximoGreaterThanEqual(
-                        Integer horasMinIncl, Integer horasMaxIncl, Pageable pageable);
+        // leitura direto no DTO: nada entra no contexto de persistência
+        // e a página vem sem a consulta de count
+        @Query("""
+                        select new com.example.back_end.dtos.locacao.LocacaoGetDTO(
+                                l.id, l.nome, l.tipo, l.descricao, l.valorHora, l.tempoMinimo, l.tempoMaximo, l.quantidade, l.dataCriacao)
+                        from LocacaoEntity l
+                        """)
+        Slice<LocacaoGetDTO> findPaginaDTO(Pageable pageable);
 
-        Page<LocacaoEntity> findByIdNotInAndTempoMinimoLessThanEqualAndTempoMaximoGreaterThanEqual(
-                        List<Integer> ids, Integer horasMinIncl, Integer horasMaxIncl, Pageable pageable);
+        @Query("""
+                        select new com.example.back_end.repositories.projections.CapacidadeLocacao(l.id, l.quantidade)
+                        from LocacaoEntity l
+                        where l.id in :ids
+                        """)
+        List<CapacidadeLocacao> findCapacidades(@Param("ids") Collection<Integer> ids);
+
+        // só as de mais de uma unidade: as demais, que são quase todas, ficam lotadas com uma reserva
+        @Query("""
+                        select new com.example.back_end.repositories.projections.CapacidadeLocacao(l.id, l.quantidade)
+                        from LocacaoEntity l
+                        where l.quantidade > 1
+                        """)
+        List<CapacidadeLocacao> findCapacidadesMultiplas();
+
+        // locações cuja faixa de tempo cruza [horasMin, horasMax]; o filtro exato é por janela
+        @Query("""
+                        select new com.example.back_end.dtos.locacao.LocacaoGetDTO(
+                                l.id, l.nome, l.tipo, l.descricao, l.valorHora, l.tempoMinimo, l.tempoMaximo, l.quantidade, l.dataCriacao)
+                        from LocacaoEntity l
+                        where l.tempoMinimo <= :horasMax
+                          and l.tempoMaximo >= :horasMin
+                        order by l.id
+                        """)
+        List<LocacaoGetDTO> findDTOPorFaixaDeHoras(
+                        @Param("horasMin") int horasMin,
+                        @Param("horasMax") int horasMax);
+
+        @Query("""
+                        select new com.example.back_end.repositories.projections.CapacidadeLocacao(l.id, l.quantidade)
+                        from LocacaoEntity l
+                        where l.tipo = :tipo
+                          and l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                        order by l.id
+                        """)
+        List<CapacidadeLocacao> findCapacidadesPorTipoAdmitindo(
+                        @Param("tipo") TiposLocacao tipo,
+                        @Param("horas") int horas);
+
+        // cotação em uma leitura: valor da hora em centavos e lotação da janela. Com uma unidade
+        // basta uma reserva ativa sobreposta; a varredura reservas_simultaneas (V8), que devolve o
+        // máximo de reservas ativas ao mesmo tempo, só roda para locações com mais de uma
+        @Query("""
+                        select new com.example.back_end.repositories.projections.CotacaoLocacao(
+                                l.id, l.nome, l.tipo, cast(l.valorHora * 100 as Long), l.tempoMinimo, l.tempoMaximo,
+                                case when l.quantidade = 1 and exists (select 1 from ReservaEntity r
+                                                where r.locacao = l
+                                                  and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE, com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                                                  and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim)) then true
+                                     when l.quantidade > 1
+                                          and function('reservas_simultaneas', l.id, :inicio, :fim) >= l.quantidade then true
+                                     else false end)
+                        from LocacaoEntity l
+                        order by l.id
+                        """)
+        List<CotacaoLocacao> findCotacao(
+                        @Param("inicio") LocalDateTime inicioInclusivo,
+                        @Param("fim") LocalDateTime fimExclusivo);
+
+        @Query("""
+                        select new com.example.back_end.repositories.projections.CotacaoLocacao(
+                                l.id, l.nome, l.tipo, cast(l.valorHora * 100 as Long), l.tempoMinimo, l.tempoMaximo,
+                                case when l.quantidade = 1 and exists (select 1 from ReservaEntity r
+                                                where r.locacao = l
+                                                  and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE, com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                                                  and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim)) then true
+                                     when l.quantidade > 1
+                                          and function('reservas_simultaneas', l.id, :inicio, :fim) >= l.quantidade then true
+                                     else false end)
+                        from LocacaoEntity l
+                        where l.id in :ids
+                        order by l.id
+                        """)
+        List<CotacaoLocacao> findCotacaoPorIds(
+                        @Param("ids") Collection<Integer> ids,
+                        @Param("inicio") LocalDateTime inicioInclusivo,
+                        @Param("fim") LocalDateTime fimExclusivo);
+
+
+        // valorTotal (valorHora * horas) sai da própria consulta, e o preço máximo chega já
+        // convertido em valorHora máximo para a comparação ficar direto na coluna
+        @Query(value = """
+                        select new com.example.back_end.dtos.locacao.LocacaoDisponivelDTO(
+                                l.id, l.nome, l.tipo, l.descricao, l.valorHora, l.tempoMinimo, l.tempoMaximo, l.quantidade, l.dataCriacao,
+                                l.valorHora * :horas)
+                        from LocacaoEntity l
+                        where l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                          and (:tipo is null or l.tipo = :tipo)
+                          and (:valorHoraMax is null or l.valorHora <= :valorHoraMax)
+                        """, countQuery = """
+                        select count(l)
+                        from LocacaoEntity l
+                        where l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                          and (:tipo is null or l.tipo = :tipo)
+                          and (:valorHoraMax is null or l.valorHora <= :valorHoraMax)
+                        """)
+        Page<LocacaoDisponivelDTO> findAdmitindo(
+                        @Param("horas") Integer horas,
+                        @Param("tipo") TiposLocacao tipo,
+                        @Param("valorHoraMax") BigDecimal valorHoraMax,
+                        Pageable pageable);
+
+        // as lotadas vão como um único array (= any(?)): o plano não muda com a quantidade de ids
+        @Query(value = """
+                        select new com.example.back_end.dtos.locacao.LocacaoDisponivelDTO(
+                                l.id, l.nome, l.tipo, l.descricao, l.valorHora, l.tempoMinimo, l.tempoMaximo, l.quantidade, l.dataCriacao,
+                                l.valorHora * :horas)
+                        from LocacaoEntity l
+                        where l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                          and (:tipo is null or l.tipo = :tipo)
+                          and (:valorHoraMax is null or l.valorHora <= :valorHoraMax)
+                          and not array_contains(:ocupadas, l.id)
+                        """, countQuery = """
+                        select count(l)
+                        from LocacaoEntity l
+                        where l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                          and (:tipo is null or l.tipo = :tipo)
+                          and (:valorHoraMax is null or l.valorHora <= :valorHoraMax)
+                          and not array_contains(:ocupadas, l.id)
+                        """)
+        Page<LocacaoDisponivelDTO> findAdmitindoExceto(
+                        @Param("ocupadas") Integer[] ocupadas,
+                        @Param("horas") Integer horas,
+                        @Param("tipo") TiposLocacao tipo,
+                        @Param("valorHoraMax") BigDecimal valorHoraMax,
+                        Pageable pageable);
+
+        // uma unidade: NOT EXISTS fora de OR, que o planejador executa como anti-join; a varredura
+        // reservas_simultaneas só roda para as locações com mais de uma unidade
+        @Query(value = """
+                        select new com.example.back_end.dtos.locacao.LocacaoDisponivelDTO(
+                                l.id, l.nome, l.tipo, l.descricao, l.valorHora, l.tempoMinimo, l.tempoMaximo, l.quantidade, l.dataCriacao,
+                                l.valorHora * :horas)
+                        from LocacaoEntity l
+                        where l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                          and (:tipo is null or l.tipo = :tipo)
+                          and (:valorHoraMax is null or l.valorHora <= :valorHoraMax)
+                          and not exists (select 1 from ReservaEntity r
+                                          where r.locacao = l and l.quantidade = 1
+                                            and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE, com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                                            and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim))
+                          and (l.quantidade = 1 or function('reservas_simultaneas', l.id, :inicio, :fim) < l.quantidade)
+                        """, countQuery = """
+                        select count(l)
+                        from LocacaoEntity l
+                        where l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                          and (:tipo is null or l.tipo = :tipo)
+                          and (:valorHoraMax is null or l.valorHora <= :valorHoraMax)
+                          and not exists (select 1 from ReservaEntity r
+                                          where r.locacao = l and l.quantidade = 1
+                                            and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE, com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                                            and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim))
+                          and (l.quantidade = 1 or function('reservas_simultaneas', l.id, :inicio, :fim) < l.quantidade)
+                        """)
+        Page<LocacaoDisponivelDTO> findDisponiveis(
+                        @Param("inicio") LocalDateTime inicioInclusivo,
+                        @Param("fim") LocalDateTime fimExclusivo,
+                        @Param("horas") Integer horas,
+                        @Param("tipo") TiposLocacao tipo,
+                        @Param("valorHoraMax") BigDecimal valorHoraMax,
+                        Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.example.back_end.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.back_end.entities.RegraPrecoEntity;
+
+@Repository
+public interface RegraPrecoRepository extends JpaRepository<RegraPrecoEntity, Integer> {
+        List<RegraPrecoEntity> findByAtivaTrue();
+}
@@ -1,25 +1,181 @@
 package com.example.back_end.repositories;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.example.back_end.dtos.reserva.ReservaGetDTO;
 import com.example.back_end.entities.ReservaEntity;
+import com.example.back_end.enums.TiposLocacao;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface ReservaRepository extends JpaRepository<ReservaEntity, Integer> {
+public interface ReservaRepository extends JpaRepository<ReservaEntity, Integer>, ReservaRepositoryCustom {
+        // página por cursor (keyset sobre a chave primária), também direto no DTO
+        @Query("""
+                        select new com.example.back_end.dtos.reserva.ReservaGetDTO(
+                                r.id, r.cliente.id, r.locacao.id, r.dataInicio, r.dataFim, r.valorFinal, r.situacao, r.dataCriacao)
+                        from ReservaEntity r
+                        where r.id > :cursor
+                        order by r.id
+                        """)
+        List<ReservaGetDTO> findPaginaCursorDTO(@Param("cursor") Integer cursor, Limit limit);
+
+        // leitura direto no DTO: nada entra no contexto de persistência
+        // e a página vem sem a consulta de count
+        // r.cliente.id e r.locacao.id são lidos das colunas de FK, sem join nem proxy
+        @Query("""
+                        select new com.example.back_end.dtos.reserva.ReservaGetDTO(
+                                r.id, r.cliente.id, r.locacao.id, r.dataInicio, r.dataFim, r.valorFinal, r.situacao, r.dataCriacao)
+                        from ReservaEntity r
+                        """)
+        Slice<ReservaGetDTO> findPaginaDTO(Pageable pageable);
+
+        @Query("""
+                        select new com.example.back_end.dtos.reserva.ReservaGetDTO(
+                                r.id, r.cliente.id, r.locacao.id, r.dataInicio, r.dataFim, r.valorFinal, r.situacao, r.dataCriacao)
+                        from ReservaEntity r
+                        where r.id = :id
+                        """)
+        Optional<ReservaGetDTO> findDTOById(@Param("id") Integer id);
+
+        // exportação: cursor do servidor (fetch size) e DTOs, que não entram no contexto de persistência;
+        // de inclusivo e ate exclusivo sobre dataInicio, ambos opcionais
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+        })
+        @Query("""
+                        select new com.example.back_end.dtos.reserva.ReservaGetDTO(
+                                r.id, r.cliente.id, r.locacao.id, r.dataInicio, r.dataFim, r.valorFinal, r.situacao, r.dataCriacao)
+                        from ReservaEntity r
+                        where (:de is null or r.dataInicio >= :de)
+                          and (:ate is null or r.dataInicio < :ate)
+                        order by r.id
+                        """)
+        Stream<ReservaGetDTO> streamPorInicio(@Param("de") LocalDateTime de, @Param("ate") LocalDateTime ate);
+
         boolean existsByClienteId(Integer clienteId);
 
         boolean existsByLocacaoId(Integer locacaoId);
 
-        boolean existsByLocacaoIdAndDataInicioLessThanAndDataFimGreaterThan(
-                        Integer locacaoId, LocalDate fimExclusivo, LocalDate inicioInclusivo);
+        // com uma unidade, conflito é haver reserva ativa sobreposta; com mais, a varredura
+        // reservas_simultaneas (V8) devolve o máximo de reservas ativas ao mesmo tempo na janela
+        // e há conflito quando ele já alcança a quantidade da locação
+        @Query("""
+                        select count(l) > 0 from LocacaoEntity l
+                        where l.id = :locacaoId
+                          and (l.quantidade = 1 and exists (select 1 from ReservaEntity r
+                                        where r.locacao = l
+                                          and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE, com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                                          and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim))
+                               or l.quantidade > 1
+                                  and function('reservas_simultaneas', l.id, :inicio, :fim) >= l.quantidade)
+                        """)
+        boolean existsConflito(
+                        @Param("locacaoId") Integer locacaoId,
+                        @Param("inicio") LocalDateTime inicioInclusivo,
+                        @Param("fim") LocalDateTime fimExclusivo);
+
+        @Query("""
+                        select count(l) > 0 from LocacaoEntity l
+                        where l.id = :locacaoId
+                          and (l.quantidade = 1 and exists (select 1 from ReservaEntity r
+                                        where r.locacao = l and r.id <> :reservaId
+                                          and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE, com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                                          and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim))
+                               or l.quantidade > 1
+                                  and function('reservas_simultaneas', l.id, :inicio, :fim, :reservaId) >= l.quantidade)
+                        """)
+        boolean existsConflitoIgnorando(
+                        @Param("locacaoId") Integer locacaoId,
+                        @Param("reservaId") Integer reservaId,
+                        @Param("inicio") LocalDateTime inicioInclusivo,
+                        @Param("fim") LocalDateTime fimExclusivo);
+
+        @Query("""
+                        select new com.example.back_end.repositories.projections.PeriodoReserva(
+                                r.id, r.locacao.id, r.dataInicio, r.dataFim)
+                        from ReservaEntity r
+                        where r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE,
+                                             com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                        """)
+        List<PeriodoReserva> findAllPeriodos();
+
+        @Query("""
+                        select new com.example.back_end.repositories.projections.PeriodoReserva(
+                                r.id, r.locacao.id, r.dataInicio, r.dataFim)
+                        from ReservaEntity r
+                        where r.locacao.id in :locacaoIds
+                          and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE,
+                                             com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                          and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim)
+                        """)
+        List<PeriodoReserva> findPeriodosSobrepostos(
+                        @Param("locacaoIds") Collection<Integer> locacaoIds,
+                        @Param("inicio") LocalDateTime inicioInclusivo,
+                        @Param("fim") LocalDateTime fimExclusivo);
+
+        // todas as locações, para avaliar várias janelas em memória a partir de uma leitura só
+        @Query("""
+                        select new com.example.back_end.repositories.projections.PeriodoReserva(
+                                r.id, r.locacao.id, r.dataInicio, r.dataFim)
+                        from ReservaEntity r
+                        where r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE,
+                                             com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                          and sobrepoe(r.dataInicio, r.dataFim, :inicio, :fim)
+                        """)
+        List<PeriodoReserva> findPeriodosEntre(
+                        @Param("inicio") LocalDateTime inicioInclusivo,
+                        @Param("fim") LocalDateTime fimExclusivo);
 
-        boolean existsByLocacaoIdAndIdNotAndDataInicioLessThanAndDataFimGreaterThan(
-                        Integer locacaoId, Integer reservaId, LocalDate fimExclusivo, LocalDate inicioInclusivo);
+        // varredura em ordem de início pelo índice ix_reservas_ativas_inicio; quem consome
+        // pode parar ao achar a primeira lacuna sem ler o restante
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+        @Query("""
+                        select new com.example.back_end.repositories.projections.PeriodoReserva(
+                                r.id, r.locacao.id, r.dataInicio, r.dataFim)
+                        from ReservaEntity r
+                        where r.locacao.id = :locacaoId
+                          and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE,
+                                             com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                          and r.dataFim > :aPartirDe
+                        order by r.dataInicio
+                        """)
+        Stream<PeriodoReserva> streamPeriodosAPartirDe(
+                        @Param("locacaoId") Integer locacaoId,
+                        @Param("aPartirDe") LocalDateTime aPartirDe);
 
-        List<ReservaEntity> findDistinctByDataInicioLessThanAndDataFimGreaterThan(
-                        LocalDate fimExclusivo, LocalDate inicioInclusivo);
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+        @Query("""
+                        select new com.example.back_end.repositories.projections.PeriodoReserva(
+                                r.id, r.locacao.id, r.dataInicio, r.dataFim)
+                        from ReservaEntity r
+                        join r.locacao l
+                        where l.tipo = :tipo
+                          and l.tempoMinimo <= :horas
+                          and l.tempoMaximo >= :horas
+                          and r.situacao in (com.example.back_end.enums.SituacaoReserva.PENDENTE,
+                                             com.example.back_end.enums.SituacaoReserva.CONFIRMADA)
+                          and r.dataFim > :aPartirDe
+                        order by l.id, r.dataInicio
+                        """)
+        Stream<PeriodoReserva> streamPeriodosPorTipoAPartirDe(
+                        @Param("tipo") TiposLocacao tipo,
+                        @Param("horas") int horas,
+                        @Param("aPartirDe") LocalDateTime aPartirDe);
 }
@@ -0,0 +1,32 @@
+package com.example.back_end.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.example.back_end.dtos.reserva.ReservaGetDTO;
+import com.example.back_end.enums.SituacaoReserva;
+import com.example.back_end.repositories.projections.DiagnosticoReserva;
+import com.example.back_end.repositories.projections.NovaReserva;
+
+public interface ReservaRepositoryCustom {
+
+    // Insere em um único comando quando cliente e locação existem, a duração respeita
+    // tempoMinimo/tempoMaximo e (para situações ativas) resta unidade livre no período.
+    // Vazio caso contrário.
+    // O valor final chega calculado pelo motor de preços, ou null para valorHora × horas no próprio INSERT.
+    Optional<ReservaGetDTO> inserirSeDisponivel(
+            Integer clienteId, Integer locacaoId, LocalDateTime inicio, LocalDateTime fim, long horas,
+            BigDecimal valorFinal, SituacaoReserva situacao);
+
+    DiagnosticoReserva diagnosticar(Integer clienteId, Integer locacaoId);
+
+    // Linhas cujo período já não tem unidade livre entre as reservas ativas gravadas,
+    // em uma única consulta.
+    Set<Integer> linhasEmConflito(List<NovaReserva> candidatas);
+
+    // Insere em lotes JDBC de tamanhoLote; devolve os ids na mesma ordem de reservas.
+    List<Integer> inserirLote(List<NovaReserva> reservas, int tamanhoLote);
+}
@@ -0,0 +1,147 @@
+package com.example.back_end.repositories;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.example.back_end.dtos.reserva.ReservaGetDTO;
+import com.example.back_end.enums.SituacaoReserva;
+import com.example.back_end.repositories.projections.DiagnosticoReserva;
+import com.example.back_end.repositories.projections.NovaReserva;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class ReservaRepositoryCustomImpl implements ReservaRepositoryCustom {
+    private final NamedParameterJdbcTemplate jdbc;
+    private final AlocadorIds alocador;
+
+    private static final String INSERIR_SE_DISPONIVEL = """
+            INSERT INTO public.reservas (id, cliente_id, locacao_id, data_hora_inicio, data_hora_fim, valor_final, situacao)
+            SELECT :id, c.id, l.id, :inicio, :fim, COALESCE(CAST(:valorFinal AS NUMERIC), l.valor_hora * :horas), :situacao
+            FROM public.locacoes l
+            JOIN public.clientes c ON c.id = :clienteId
+            WHERE l.id = :locacaoId
+              AND l.tempo_minimo <= :horas
+              AND l.tempo_maximo >= :horas
+              AND (NOT :ativa OR CASE WHEN l.quantidade = 1
+                      THEN NOT EXISTS (SELECT 1 FROM public.reservas r
+                                       WHERE r.locacao_id = l.id
+                                         AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                                         AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(:inicio, :fim, '[)'))
+                      ELSE public.reservas_simultaneas(l.id, :inicio, :fim) < l.quantidade END)
+            RETURNING id, cliente_id, locacao_id, data_hora_inicio, data_hora_fim, valor_final, situacao, data_criacao
+            """;
+
+    private static final String DIAGNOSTICAR = """
+            SELECT EXISTS (SELECT 1 FROM public.clientes WHERE id = :clienteId) AS cliente_existe,
+                   l.tempo_minimo, l.tempo_maximo
+            FROM (SELECT 1) AS x
+            LEFT JOIN public.locacoes l ON l.id = :locacaoId
+            """;
+
+    private static final String LINHAS_EM_CONFLITO = """
+            SELECT b.linha
+            FROM unnest(?::int[], ?::int[], ?::timestamp[], ?::timestamp[]) AS b(linha, locacao_id, inicio, fim)
+            JOIN public.locacoes l ON l.id = b.locacao_id
+            WHERE CASE WHEN l.quantidade = 1
+                  THEN EXISTS (SELECT 1 FROM public.reservas r
+                               WHERE r.locacao_id = b.locacao_id
+                                 AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                                 AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(b.inicio, b.fim, '[)'))
+                  ELSE public.reservas_simultaneas(b.locacao_id, b.inicio, b.fim) >= l.quantidade END
+            """;
+
+    private static final String INSERIR = """
+            INSERT INTO public.reservas (id, cliente_id, locacao_id, data_hora_inicio, data_hora_fim, valor_final, situacao)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final RowMapper<ReservaGetDTO> RESERVA = (rs, i) -> new ReservaGetDTO(
+            rs.getInt("id"),
+            rs.getInt("cliente_id"),
+            rs.getInt("locacao_id"),
+            rs.getObject("data_hora_inicio", LocalDateTime.class),
+            rs.getObject("data_hora_fim", LocalDateTime.class),
+            rs.getBigDecimal("valor_final"),
+            SituacaoReserva.valueOf(rs.getString("situacao")),
+            rs.getTimestamp("data_criacao").toLocalDateTime());
+
+    @Override
+    public Optional<ReservaGetDTO> inserirSeDisponivel(
+            Integer clienteId, Integer locacaoId, LocalDateTime inicio, LocalDateTime fim, long horas,
+            BigDecimal valorFinal, SituacaoReserva situacao) {
+        // id do bloco da sequência, como no lote: o DEFAULT gastaria um bloco de 50 por reserva
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", alocador.alocar(AlocadorIds.RESERVAS, 1).get(0))
+                .addValue("clienteId", clienteId)
+                .addValue("locacaoId", locacaoId)
+                .addValue("inicio", inicio)
+                .addValue("fim", fim)
+                .addValue("horas", horas)
+                .addValue("valorFinal", valorFinal, Types.NUMERIC)
+                .addValue("situacao", situacao.name())
+                .addValue("ativa", situacao.ocupaPeriodo());
+        return jdbc.query(INSERIR_SE_DISPONIVEL, params, RESERVA).stream().findFirst();
+    }
+
+    @Override
+    public DiagnosticoReserva diagnosticar(Integer clienteId, Integer locacaoId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("clienteId", clienteId)
+                .addValue("locacaoId", locacaoId);
+        return jdbc.queryForObject(DIAGNOSTICAR, params, (rs, i) -> new DiagnosticoReserva(
+                rs.getBoolean("cliente_existe"),
+                (Integer) rs.getObject("tempo_minimo"),
+                (Integer) rs.getObject("tempo_maximo")));
+    }
+
+    @Override
+    public Set<Integer> linhasEmConflito(List<NovaReserva> candidatas) {
+        if (candidatas.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbc.getJdbcTemplate().query(con -> {
+            PreparedStatement ps = con.prepareStatement(LINHAS_EM_CONFLITO);
+            ps.setArray(1, con.createArrayOf("int4", candidatas.stream().map(NovaReserva::linha).toArray()));
+            ps.setArray(2, con.createArrayOf("int4", candidatas.stream().map(NovaReserva::locacaoId).toArray()));
+            ps.setArray(3, con.createArrayOf("timestamp",
+                    candidatas.stream().map(r -> Timestamp.valueOf(r.dataInicio())).toArray()));
+            ps.setArray(4, con.createArrayOf("timestamp",
+                    candidatas.stream().map(r -> Timestamp.valueOf(r.dataFim())).toArray()));
+            return ps;
+        }, (rs, i) -> rs.getInt(1)));
+    }
+
+    @Override
+    public List<Integer> inserirLote(List<NovaReserva> reservas, int tamanhoLote) {
+        if (reservas.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = alocador.alocar(AlocadorIds.RESERVAS, reservas.size());
+
+        List<Integer> indices = IntStream.range(0, reservas.size()).boxed().toList();
+        jdbc.getJdbcTemplate().batchUpdate(INSERIR, indices, tamanhoLote, (ps, i) -> {
+            NovaReserva r = reservas.get(i);
+            ps.setInt(1, ids.get(i));
+            ps.setInt(2, r.clienteId());
+            ps.setInt(3, r.locacaoId());
+            ps.setObject(4, r.dataInicio());
+            ps.setObject(5, r.dataFim());
+            ps.setBigDecimal(6, r.valorFinal());
+            ps.setString(7, r.situacao().name());
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.back_end.repositories.projections;
+
+public record CapacidadeLocacao(
+        Integer locacaoId,
+        Integer quantidade) {
+}
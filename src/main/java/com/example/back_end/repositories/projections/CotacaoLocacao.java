@@ -0,0 +1,15 @@
+package com.example.back_end.repositories.projections;
+
+import com.example.back_end.enums.TiposLocacao;
+
+// valor da hora já em centavos: valor_hora é NUMERIC(10, 2), então a conversão é exata;
+// lotada quando as reservas simultâneas na janela já alcançam a quantidade da locação
+public record CotacaoLocacao(
+        Integer locacaoId,
+        String nome,
+        TiposLocacao tipo,
+        Long valorHoraCentavos,
+        Integer tempoMinimo,
+        Integer tempoMaximo,
+        Boolean lotada) {
+}
@@ -0,0 +1,12 @@
+package com.example.back_end.repositories.projections;
+
+// tempoMinimo/tempoMaximo nulos quando a locação não existe
+public record DiagnosticoReserva(
+        boolean clienteExiste,
+        Integer tempoMinimo,
+        Integer tempoMaximo) {
+
+    public boolean locacaoExiste() {
+        return tempoMinimo != null;
+    }
+}
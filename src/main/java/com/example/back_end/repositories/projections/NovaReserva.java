@@ -0,0 +1,17 @@
+package com.example.back_end.repositories.projections;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.example.back_end.enums.SituacaoReserva;
+
+// reserva já validada, pronta para inserção em lote; linha identifica o registro de origem
+public record NovaReserva(
+        int linha,
+        Integer clienteId,
+        Integer locacaoId,
+        LocalDateTime dataInicio,
+        LocalDateTime dataFim,
+        BigDecimal valorFinal,
+        SituacaoReserva situacao) {
+}
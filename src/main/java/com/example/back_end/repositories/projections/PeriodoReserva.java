@@ -0,0 +1,24 @@
+package com.example.back_end.repositories.projections;
+
+import java.time.LocalDateTime;
+
+public record PeriodoReserva(
+        Integer reservaId,
+        Integer locacaoId,
+        LocalDateTime dataInicio,
+        LocalDateTime dataFim) {
+
+    public boolean sobrepoe(LocalDateTime inicio, LocalDateTime fim) {
+        return dataInicio.isBefore(fim) && dataFim.isAfter(inicio);
+    }
+
+    // alargado a dias inteiros, para as buscas que respondem em datas
+    public PeriodoReserva emDiasInteiros() {
+        LocalDateTime inicioDia = dataInicio.toLocalDate().atStartOfDay();
+        LocalDateTime fimDia = dataFim.toLocalDate().atStartOfDay();
+        if (inicioDia.equals(dataInicio) && fimDia.equals(dataFim)) {
+            return this;
+        }
+        return new PeriodoReserva(reservaId, locacaoId, inicioDia, fimDia.equals(dataFim) ? fimDia : fimDia.plusDays(1));
+    }
+}
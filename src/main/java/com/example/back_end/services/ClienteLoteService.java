@@ -0,0 +1,181 @@
+package com.example.back_end.services;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.back_end.dtos.cliente.ClientePostDTO;
+import com.example.back_end.dtos.importacao.ImportacaoErroDTO;
+import com.example.back_end.dtos.importacao.ImportacaoResultadoDTO;
+import com.example.back_end.repositories.AlocadorIds;
+import com.example.back_end.services.importacao.CargaCopy;
+import com.example.back_end.services.importacao.LeitorRegistros;
+import com.example.back_end.services.importacao.ValidacaoRegistros;
+
+import jakarta.validation.Validator;
+
+/**
+ * Carga em massa de clientes. O corpo é lido registro a registro e as linhas válidas vão
+ * por COPY, em blocos, para uma tabela temporária; e-mails e CPFs repetidos no próprio
+ * arquivo são barrados em memória, e os já cadastrados saem de uma única consulta antes
+ * do INSERT ... SELECT final. A transação fica aberta durante a leitura do corpo.
+ */
+@Service
+public class ClienteLoteService {
+
+    private static final String TEMPORARIA = "importacao_clientes";
+    private static final List<String> COLUNAS = List.of("linha", "id", "nome", "email", "telefone", "cpf");
+
+    private static final String CRIAR_TEMPORARIA = """
+            CREATE TEMP TABLE importacao_clientes (
+                linha       INT         PRIMARY KEY,
+                id          INT         NOT NULL,
+                nome        VARCHAR(50) NOT NULL,
+                email       VARCHAR(50) NOT NULL,
+                telefone    VARCHAR(15) NOT NULL,
+                cpf         VARCHAR(11) NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    // separa (e remove da carga) o que já existe na base, dizendo qual campo colidiu
+    private static final String REMOVER_JA_CADASTRADOS = """
+            WITH conflitos AS (
+                SELECT t.linha,
+                       EXISTS (SELECT 1 FROM public.clientes c WHERE c.email = t.email) AS email_existe,
+                       EXISTS (SELECT 1 FROM public.clientes c WHERE c.cpf = t.cpf) AS cpf_existe
+                FROM importacao_clientes t
+            ), removidos AS (
+                DELETE FROM importacao_clientes t
+                USING conflitos x
+                WHERE x.linha = t.linha AND (x.email_existe OR x.cpf_existe)
+            )
+            SELECT linha, email_existe, cpf_existe FROM conflitos
+            WHERE email_existe OR cpf_existe
+            """;
+
+    // ON CONFLICT cobre cadastros concorrentes feitos depois da verificação acima
+    private static final String INSERIR = """
+            WITH inseridos AS (
+                INSERT INTO public.clientes (id, nome, email, telefone, cpf)
+                SELECT id, nome, email, telefone, cpf FROM importacao_clientes ORDER BY linha
+                ON CONFLICT DO NOTHING
+                RETURNING email
+            )
+            SELECT t.linha FROM importacao_clientes t
+            WHERE NOT EXISTS (SELECT 1 FROM inseridos i WHERE i.email = t.email)
+            """;
+
+    private final LeitorRegistros leitor;
+    private final CargaCopy copy;
+    private final AlocadorIds alocador;
+    private final JdbcTemplate jdbc;
+    private final Validator validator;
+    private final TransactionTemplate tx;
+    private final int maximoRegistros;
+    private final int tamanhoCopy;
+
+    public ClienteLoteService(
+            LeitorRegistros leitor,
+            CargaCopy copy,
+            AlocadorIds alocador,
+            JdbcTemplate jdbc,
+            Validator validator,
+            PlatformTransactionManager txManager,
+            @Value("${importacao.maximo-registros:1000000}") int maximoRegistros,
+            @Value("${importacao.tamanho-copy:5000}") int tamanhoCopy) {
+        this.leitor = leitor;
+        this.copy = copy;
+        this.alocador = alocador;
+        this.jdbc = jdbc;
+        this.validator = validator;
+        this.tx = new TransactionTemplate(txManager);
+        this.maximoRegistros = maximoRegistros;
+        this.tamanhoCopy = tamanhoCopy;
+    }
+
+    public ImportacaoResultadoDTO importar(InputStream corpo, MediaType formato) {
+        return tx.execute(status -> {
+            jdbc.execute(CRIAR_TEMPORARIA);
+
+            List<ImportacaoErroDTO> erros = new ArrayList<>();
+            Map<String, Integer> emails = new HashMap<>();
+            Map<String, Integer> cpfs = new HashMap<>();
+            List<ClientePostDTO> pendentes = new ArrayList<>(tamanhoCopy);
+            List<Integer> linhasPendentes = new ArrayList<>(tamanhoCopy);
+
+            int total = leitor.ler(corpo, formato, ClientePostDTO.class, maximoRegistros, registro -> {
+                String erro = registro.valido()
+                        ? ValidacaoRegistros.violacoes(validator, registro.valor())
+                        : registro.erro();
+                if (erro == null) {
+                    erro = duplicado(registro.valor(), registro.linha(), emails, cpfs);
+                }
+                if (erro != null) {
+                    erros.add(new ImportacaoErroDTO(registro.linha(), erro));
+                    return;
+                }
+                pendentes.add(registro.valor());
+                linhasPendentes.add(registro.linha());
+                if (pendentes.size() == tamanhoCopy) {
+                    copiar(pendentes, linhasPendentes);
+                }
+            });
+            copiar(pendentes, linhasPendentes);
+
+            jdbc.query(REMOVER_JA_CADASTRADOS, rs -> {
+                boolean email = rs.getBoolean("email_existe");
+                boolean cpf = rs.getBoolean("cpf_existe");
+                erros.add(new ImportacaoErroDTO(rs.getInt("linha"),
+                        email && cpf ? "E-mail e CPF já cadastrados."
+                                : email ? "E-mail já cadastrado." : "CPF já cadastrado."));
+            });
+            jdbc.query(INSERIR, rs -> {
+                erros.add(new ImportacaoErroDTO(rs.getInt("linha"), "E-mail ou CPF já cadastrado."));
+            });
+
+            erros.sort(Comparator.comparing(ImportacaoErroDTO::getLinha));
+            return new ImportacaoResultadoDTO(total, total - erros.size(), erros.size(), erros);
+        });
+    }
+
+    private static String duplicado(ClientePostDTO dto, int linha, Map<String, Integer> emails,
+            Map<String, Integer> cpfs) {
+        Integer email = emails.get(dto.getEmail());
+        if (email != null) {
+            return "E-mail repetido no arquivo (registro " + email + ").";
+        }
+        Integer cpf = cpfs.get(dto.getCpf());
+        if (cpf != null) {
+            return "CPF repetido no arquivo (registro " + cpf + ").";
+        }
+        emails.put(dto.getEmail(), linha);
+        cpfs.put(dto.getCpf(), linha);
+        return null;
+    }
+
+    private void copiar(List<ClientePostDTO> pendentes, List<Integer> linhas) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = alocador.alocar(AlocadorIds.CLIENTES, pendentes.size());
+        List<Object[]> valores = new ArrayList<>(pendentes.size());
+        for (int i = 0; i < pendentes.size(); i++) {
+            ClientePostDTO dto = pendentes.get(i);
+            valores.add(new Object[] { linhas.get(i), ids.get(i), dto.getNome(), dto.getEmail(),
+                    dto.getTelefone(), dto.getCpf() });
+        }
+        copy.copiar(TEMPORARIA, COLUNAS, valores);
+        pendentes.clear();
+        linhas.clear();
+    }
+}
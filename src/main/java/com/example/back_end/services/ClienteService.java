@@ -1,18 +1,24 @@
 package com.example.back_end.services;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import com.example.back_end.dtos.cliente.ClienteGetDTO;
 import com.example.back_end.dtos.cliente.ClientePatchDTO;
 import com.example.back_end.dtos.cliente.ClientePostDTO;
 import com.example.back_end.dtos.cliente.ClientePutDTO;
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
 import com.example.back_end.entities.ClienteEntity;
+import com.example.back_end.enums.ModoTotal;
 import com.example.back_end.mappers.ClienteMapper;
 import com.example.back_end.repositories.ClienteRepository;
 import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.services.paginacao.ContagemPaginas;
+import com.example.back_end.services.paginacao.PaginacaoCursor;
+import com.example.back_end.services.paginacao.ResultadoPaginado;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -25,18 +31,31 @@ public class ClienteService {
     private final ClienteRepository clienteRepo;
     private final ReservaRepository reservaRepo;
     private final ClienteMapper mapper;
+    private final ContagemPaginas contagem;
 
-    public Page<ClienteGetDTO> listarTodos(
-            Pageable pageable) {
-        return clienteRepo.findAll(pageable).map(mapper::toGetDTO);
+    @Transactional(readOnly = true)
+    public ResultadoPaginado<ClienteGetDTO> listarTodos(
+            Pageable pageable,
+            ModoTotal modo) {
+        return contagem.completar(modo, clienteRepo.findPaginaDTO(pageable), "clientes", clienteRepo::count);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ClienteGetDTO> listarPorCursor(
+            String cursor,
+            int tamanho) {
+        int ultimoId = PaginacaoCursor.ultimoId(cursor);
+        var itens = clienteRepo.findPaginaCursorDTO(ultimoId, Limit.of(tamanho + 1));
+        return PaginacaoCursor.pagina(itens, tamanho, ClienteGetDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
     public ClienteGetDTO buscarPorId(
             Integer id) {
-        ClienteEntity cliente = clienteRepo.findById(id)
+        // por id e não por consulta, para ser atendido pelo cache de segundo nível
+        return clienteRepo.findById(id)
+                .map(mapper::toGetDTO)
                 .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado."));
-
-        return mapper.toGetDTO(cliente);
     }
 
     public ClienteGetDTO criar(
@@ -0,0 +1,104 @@
+package com.example.back_end.services;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.back_end.dtos.importacao.ImportacaoErroDTO;
+import com.example.back_end.dtos.importacao.ImportacaoResultadoDTO;
+import com.example.back_end.dtos.locacao.LocacaoPostDTO;
+import com.example.back_end.repositories.AlocadorIds;
+import com.example.back_end.services.disponibilidade.LocacaoAlteradaEvent;
+import com.example.back_end.services.importacao.CargaCopy;
+import com.example.back_end.services.importacao.LeitorRegistros;
+import com.example.back_end.services.importacao.ValidacaoRegistros;
+
+import jakarta.validation.Validator;
+
+/**
+ * Carga em massa de locações. Sem chaves únicas a conferir, as linhas válidas vão por
+ * COPY, em blocos, direto para public.locacoes, na mesma transação da leitura do corpo.
+ */
+@Service
+public class LocacaoLoteService {
+
+    private static final String TABELA = "public.locacoes";
+    private static final List<String> COLUNAS = List.of(
+            "id", "nome", "tipo", "descricao", "valor_hora", "tempo_minimo", "tempo_maximo", "quantidade");
+
+    private final LeitorRegistros leitor;
+    private final CargaCopy copy;
+    private final AlocadorIds alocador;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate tx;
+    private final int maximoRegistros;
+    private final int tamanhoCopy;
+
+    public LocacaoLoteService(
+            LeitorRegistros leitor,
+            CargaCopy copy,
+            AlocadorIds alocador,
+            Validator validator,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager txManager,
+            @Value("${importacao.maximo-registros:1000000}") int maximoRegistros,
+            @Value("${importacao.tamanho-copy:5000}") int tamanhoCopy) {
+        this.leitor = leitor;
+        this.copy = copy;
+        this.alocador = alocador;
+        this.validator = validator;
+        this.events = events;
+        this.tx = new TransactionTemplate(txManager);
+        this.maximoRegistros = maximoRegistros;
+        this.tamanhoCopy = tamanhoCopy;
+    }
+
+    public ImportacaoResultadoDTO importar(InputStream corpo, MediaType formato) {
+        return tx.execute(status -> {
+            List<ImportacaoErroDTO> erros = new ArrayList<>();
+            List<LocacaoPostDTO> pendentes = new ArrayList<>(tamanhoCopy);
+
+            int total = leitor.ler(corpo, formato, LocacaoPostDTO.class, maximoRegistros, registro -> {
+                String erro = registro.valido()
+                        ? ValidacaoRegistros.violacoes(validator, registro.valor())
+                        : registro.erro();
+                if (erro != null) {
+                    erros.add(new ImportacaoErroDTO(registro.linha(), erro));
+                    return;
+                }
+                pendentes.add(registro.valor());
+                if (pendentes.size() == tamanhoCopy) {
+                    copiar(pendentes);
+                }
+            });
+            copiar(pendentes);
+
+            return new ImportacaoResultadoDTO(total, total - erros.size(), erros.size(), erros);
+        });
+    }
+
+    private void copiar(List<LocacaoPostDTO> pendentes) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = alocador.alocar(AlocadorIds.LOCACOES, pendentes.size());
+        List<Object[]> valores = new ArrayList<>(pendentes.size());
+        for (int i = 0; i < pendentes.size(); i++) {
+            LocacaoPostDTO dto = pendentes.get(i);
+            valores.add(new Object[] { ids.get(i), dto.getNome(), dto.getTipo(), dto.getDescricao(),
+                    dto.getValorHora(), dto.getTempoMinimo(), dto.getTempoMaximo(),
+                    dto.getQuantidade() != null ? dto.getQuantidade() : 1 });
+        }
+        copy.copiar(TABELA, COLUNAS, valores);
+        events.publishEvent(LocacaoAlteradaEvent.carga());
+        pendentes.clear();
+    }
+}
@@ -1,22 +1,70 @@
 package com.example.back_end.services;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.example.back_end.dtos.locacao.CalendarioLocacaoDTO;
+import com.example.back_end.dtos.locacao.ConsultaDisponibilidadeDTO;
+import com.example.back_end.dtos.locacao.CotacaoDTO;
+import com.example.back_end.dtos.locacao.CotacaoItemDTO;
+import com.example.back_end.dtos.locacao.CotacaoResultadoDTO;
+import com.example.back_end.dtos.locacao.DiaCalendarioDTO;
+import com.example.back_end.dtos.locacao.DisponibilidadeJanelaDTO;
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
+import com.example.back_end.dtos.locacao.JanelaDTO;
 import com.example.back_end.dtos.locacao.LocacaoGetDTO;
 import com.example.back_end.dtos.locacao.LocacaoPatchDTO;
 import com.example.back_end.dtos.locacao.LocacaoPostDTO;
 import com.example.back_end.dtos.locacao.LocacaoPutDTO;
+import com.example.back_end.dtos.locacao.ProximaJanelaDTO;
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
 import com.example.back_end.entities.LocacaoEntity;
-import com.example.back_end.entities.ReservaEntity;
+import com.example.back_end.enums.ModoTotal;
+import com.example.back_end.enums.TiposLocacao;
 import com.example.back_end.mappers.LocacaoMapper;
 import com.example.back_end.repositories.LocacaoRepository;
 import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.CapacidadeLocacao;
+import com.example.back_end.repositories.projections.CotacaoLocacao;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import com.example.back_end.services.disponibilidade.CacheDisponibilidade;
+import com.example.back_end.services.disponibilidade.DisponibilidadeStrategy;
+import com.example.back_end.services.disponibilidade.FiltroDisponibilidade;
+import com.example.back_end.services.disponibilidade.LocacaoAlteradaEvent;
+import com.example.back_end.services.disponibilidade.LocacaoAlteradaEvent.Perfil;
+import com.example.back_end.services.disponibilidade.OcupacaoSimultanea;
+import com.example.back_end.services.paginacao.ContagemPaginas;
+import com.example.back_end.services.paginacao.PaginacaoCursor;
+import com.example.back_end.services.paginacao.ResultadoPaginado;
+import com.example.back_end.services.preco.MotorPrecos;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -26,55 +74,299 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Validated
 public class LocacaoService {
+    private static final long MAXIMO_DIAS_CONSULTA = 366;
+
     private final LocacaoRepository locacaoRepo;
     private final ReservaRepository reservaRepo;
     private final LocacaoMapper mapper;
+    private final DisponibilidadeStrategy disponibilidade;
+    private final ContagemPaginas contagem;
+    private final CacheDisponibilidade cacheDisponibilidade;
+    private final ApplicationEventPublisher events;
+    private final MotorPrecos precos;
+
+    @Transactional(readOnly = true)
+    public ResultadoPaginado<LocacaoGetDTO> listarTodos(
+            Pageable pageable,
+            ModoTotal modo) {
+        return contagem.completar(modo, locacaoRepo.findPaginaDTO(pageable), "locacoes", locacaoRepo::count);
+    }
 
-    public Page<LocacaoGetDTO> listarTodos(
-            Pageable pageable) {
-        return locacaoRepo.findAll(pageable).map(mapper::toGetDTO);
+    @Transactional(readOnly = true)
+    public CursorPageDTO<LocacaoGetDTO> listarPorCursor(
+            String cursor,
+            int tamanho) {
+        int ultimoId = PaginacaoCursor.ultimoId(cursor);
+        var itens = locacaoRepo.findPaginaCursorDTO(ultimoId, Limit.of(tamanho + 1));
+        return PaginacaoCursor.pagina(itens, tamanho, LocacaoGetDTO::getId);
     }
 
+    @Transactional(readOnly = true)
     public LocacaoGetDTO buscarPorId(
             Integer id) {
-        LocacaoEntity locacao = locacaoRepo.findById(id)
+        // por id e não por consulta, para ser atendido pelo cache de segundo nível
+        return locacaoRepo.findById(id)
+                .map(mapper::toGetDTO)
                 .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
+    }
 
-        return mapper.toGetDTO(locacao);
+    public Page<LocacaoDisponivelDTO> listarDisponiveis(LocalDate data, FiltroDisponibilidade filtro,
+            String ordenarPor, Pageable pageable) {
+        return listarDisponiveis(data, data.plusDays(1), filtro, ordenarPor, pageable);
     }
 
-    public Page<LocacaoGetDTO> listarDisponiveis(LocalDate data, Pageable pageable) {
-        return listarDisponiveis(data, data.plusDays(1), pageable);
+    public Page<LocacaoDisponivelDTO> listarDisponiveis(LocalDate inicio, LocalDate fim, FiltroDisponibilidade filtro,
+            String ordenarPor, Pageable pageable) {
+        if (inicio == null || fim == null) {
+            throw new IllegalArgumentException("Parâmetros 'inicio' e 'fim' são obrigatórios.");
+        }
+        return listarDisponiveis(inicio.atStartOfDay(), fim.atStartOfDay(), filtro, ordenarPor, pageable);
     }
 
-    public Page<LocacaoGetDTO> listarDisponiveis(LocalDate inicio, LocalDate fim, Pageable pageable) {
+    // janela em horas cheias; as buscas por data chegam aqui com meia-noite nos dois extremos
+    public Page<LocacaoDisponivelDTO> listarDisponiveis(LocalDateTime inicio, LocalDateTime fim,
+            FiltroDisponibilidade filtro, String ordenarPor, Pageable pageable) {
         if (inicio == null || fim == null) {
             throw new IllegalArgumentException("Parâmetros 'inicio' e 'fim' são obrigatórios.");
         }
         if (!fim.isAfter(inicio)) {
             throw new IllegalArgumentException("'fim' deve ser posterior a 'inicio'.");
         }
+        if (!inicio.truncatedTo(ChronoUnit.HOURS).equals(inicio) || !fim.truncatedTo(ChronoUnit.HOURS).equals(fim)) {
+            throw new IllegalArgumentException("'inicio' e 'fim' devem cair em hora cheia.");
+        }
 
-        long horasLong = java.time.temporal.ChronoUnit.DAYS.between(inicio, fim) * 24L;
-        int horas = Math.toIntExact(horasLong);
+        int horas = horas(inicio, fim);
+        Pageable pagina = ordenar(pageable, ordenarPor);
+        // ordem e filtro por preço saem da coluna valorHora enquanto nenhuma regra muda o período;
+        // com regras, saem do valorTotal calculado pelo motor
+        boolean porValor = ordenarPor != null && !ordenarPor.isBlank();
+        if ((porValor || filtro.precoMax() != null) && precos.ajustaPeriodo(filtro.tipo(), inicio, fim)) {
+            return cacheDisponibilidade.obter(inicio, fim, horas, filtro, pagina,
+                    () -> porValorTotal(inicio, fim, horas, filtro, porValor, pageable));
+        }
 
-        List<ReservaEntity> reservasConflitantes = reservaRepo
-                .findDistinctByDataInicioLessThanAndDataFimGreaterThan(fim, inicio);
+        return cacheDisponibilidade.obter(inicio, fim, horas, filtro, pagina,
+                () -> precificar(disponibilidade.listarDisponiveis(inicio, fim, horas, filtro, pagina), inicio, fim));
+    }
 
-        List<Integer> ocupadas = reservasConflitantes.stream()
-                .map(r -> r.getLocacao().getId())
-                .distinct()
-                .toList();
+    // todas as disponíveis do filtro são precificadas pelas tabelas de tarifas (centavos em long);
+    // precoMax, ordem e página valem sobre esse total
+    private Page<LocacaoDisponivelDTO> porValorTotal(LocalDateTime inicio, LocalDateTime fim, int horas,
+            FiltroDisponibilidade filtro, boolean porValor, Pageable pageable) {
+        Sort ordem = porValor ? Sort.by("id") : pageable.getSort();
+        Stream<LocacaoDisponivelDTO> disponiveis = precificar(disponibilidade.listarDisponiveis(inicio, fim, horas,
+                new FiltroDisponibilidade(filtro.tipo(), null), Pageable.unpaged(ordem)), inicio, fim).stream()
+                .filter(l -> filtro.precoMax() == null || l.getValorTotal().compareTo(filtro.precoMax()) <= 0);
+        if (porValor) {
+            disponiveis = disponiveis.sorted(Comparator.comparing(LocacaoDisponivelDTO::getValorTotal)
+                    .thenComparing(LocacaoDisponivelDTO::getId));
+        }
+        List<LocacaoDisponivelDTO> todas = disponiveis.toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(todas, pageable, todas.size());
+        }
+        int de = (int) Math.min(pageable.getOffset(), todas.size());
+        int ate = Math.min(de + pageable.getPageSize(), todas.size());
+        return new PageImpl<>(todas.subList(de, ate), pageable, todas.size());
+    }
 
-        Page<LocacaoEntity> page;
-        if (ocupadas.isEmpty()) {
-            page = locacaoRepo.findByTempoMinimoLessThanEqualAndTempoMaximoGreaterThanEqual(horas, horas, pageable);
-        } else {
-            page = locacaoRepo.findByIdNotInAndTempoMinimoLessThanEqualAndTempoMaximoGreaterThanEqual(
-                    ocupadas, horas, horas, pageable);
+    // o total exibido aplica as regras de preço; sem regras no período é o próprio valorHora × horas
+    private Page<LocacaoDisponivelDTO> precificar(Page<LocacaoDisponivelDTO> pagina, LocalDateTime inicio,
+            LocalDateTime fim) {
+        for (LocacaoDisponivelDTO l : pagina) {
+            l.setValorTotal(precos.valorFinal(l.getId(), l.getTipo(), l.getValorHora(), inicio, fim));
         }
+        return pagina;
+    }
+
+    // uma leitura de reservas cobrindo todas as janelas; cada janela é avaliada em memória
+    @Transactional(readOnly = true)
+    public List<DisponibilidadeJanelaDTO> consultarDisponibilidade(
+            @Valid ConsultaDisponibilidadeDTO consulta) {
+        List<JanelaDTO> janelas = consulta.getJanelas();
+        LocalDate inicio = janelas.stream().map(JanelaDTO::getInicio).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate fim = janelas.stream().map(JanelaDTO::getFim).max(Comparator.naturalOrder()).orElseThrow();
+        if (ChronoUnit.DAYS.between(inicio, fim) > MAXIMO_DIAS_CONSULTA) {
+            throw new IllegalArgumentException(
+                    "As janelas devem caber em um intervalo de até " + MAXIMO_DIAS_CONSULTA + " dias.");
+        }
+
+        int[] horas = janelas.stream().mapToInt(j -> horas(j.getInicio(), j.getFim())).toArray();
+        List<LocacaoGetDTO> candidatas = locacaoRepo.findDTOPorFaixaDeHoras(
+                Arrays.stream(horas).min().getAsInt(), Arrays.stream(horas).max().getAsInt());
+        Map<Integer, List<PeriodoReserva>> reservas = reservaRepo.findPeriodosEntre(
+                inicio.atStartOfDay(), fim.atStartOfDay()).stream()
+                .collect(Collectors.groupingBy(PeriodoReserva::locacaoId));
 
-        return page.map(mapper::toGetDTO);
+        List<DisponibilidadeJanelaDTO> resultado = new ArrayList<>(janelas.size());
+        for (int i = 0; i < janelas.size(); i++) {
+            JanelaDTO janela = janelas.get(i);
+            int horasJanela = horas[i];
+            List<LocacaoGetDTO> livres = candidatas.stream()
+                    .filter(l -> l.getTempoMinimo() <= horasJanela && horasJanela <= l.getTempoMaximo())
+                    .filter(l -> OcupacaoSimultanea.maximo(reservas.getOrDefault(l.getId(), List.of()),
+                            janela.getInicio().atStartOfDay(), janela.getFim().atStartOfDay()) < l.getQuantidade())
+                    .toList();
+            resultado.add(new DisponibilidadeJanelaDTO(janela.getInicio(), janela.getFim(), livres));
+        }
+        return resultado;
+    }
+
+    // faixa de duração e ocupação de várias locações em uma leitura; o preço sai das
+    // tabelas de tarifas em centavos (long), sem cadeia de BigDecimal por item
+    @Transactional(readOnly = true)
+    public CotacaoResultadoDTO cotar(@Valid CotacaoDTO cotacao) {
+        LocalDate inicio = cotacao.getInicio();
+        LocalDate fim = cotacao.getFim();
+        if (ChronoUnit.DAYS.between(inicio, fim) > MAXIMO_DIAS_CONSULTA) {
+            throw new IllegalArgumentException(
+                    "A janela deve ter no máximo " + MAXIMO_DIAS_CONSULTA + " dias.");
+        }
+        int horas = horas(inicio, fim);
+        List<Integer> ids = cotacao.getLocacaoIds();
+        LocalDateTime de = inicio.atStartOfDay();
+        LocalDateTime ate = fim.atStartOfDay();
+        List<CotacaoLocacao> locacoes = ids == null || ids.isEmpty()
+                ? locacaoRepo.findCotacao(de, ate)
+                : locacaoRepo.findCotacaoPorIds(new HashSet<>(ids), de, ate);
+
+        List<CotacaoItemDTO> itens = new ArrayList<>(locacoes.size());
+        for (CotacaoLocacao l : locacoes) {
+            itens.add(new CotacaoItemDTO(l.locacaoId(), l.nome(),
+                    BigDecimal.valueOf(precos.valorFinalCentavos(
+                            l.locacaoId(), l.tipo(), l.valorHoraCentavos(), de, ate), 2),
+                    l.tempoMinimo() <= horas && horas <= l.tempoMaximo(),
+                    !l.lotada()));
+        }
+        return new CotacaoResultadoDTO(inicio, fim, horas, itens);
+    }
+
+    @Transactional(readOnly = true)
+    public ProximaJanelaDTO proximaJanela(Integer id, int duracaoDias, LocalDate aPartirDe) {
+        LocacaoEntity locacao = locacaoRepo.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
+        int horas = horasDaDuracao(duracaoDias);
+        if (!Perfil.de(locacao).admite(horas, FiltroDisponibilidade.NENHUM)) {
+            throw new IllegalArgumentException("A duração de " + horas + " horas está fora da faixa da locação ("
+                    + locacao.getTempoMinimo() + " a " + locacao.getTempoMaximo() + " horas).");
+        }
+        LocalDate inicio = aPartirDe != null ? aPartirDe : LocalDate.now();
+
+        // a resposta é em datas: reservas por hora ocupam os dias que tocam
+        try (Stream<PeriodoReserva> reservas = reservaRepo.streamPeriodosAPartirDe(id, inicio.atStartOfDay())) {
+            LocalDate livre = OcupacaoSimultanea.primeiraLacuna(
+                    reservas.map(PeriodoReserva::emDiasInteiros).iterator(), inicio.atStartOfDay(),
+                    Duration.ofDays(duracaoDias), locacao.getQuantidade()).toLocalDate();
+            return new ProximaJanelaDTO(id, livre, livre.plusDays(duracaoDias));
+        }
+    }
+
+    // uma só leitura ordenada por (locação, início); vence a data mais cedo e, no empate, o menor id
+    @Transactional(readOnly = true)
+    public ProximaJanelaDTO proximaJanela(TiposLocacao tipo, int duracaoDias, LocalDate aPartirDe) {
+        if (tipo == null) {
+            throw new IllegalArgumentException("Parâmetro 'tipo' é obrigatório.");
+        }
+        int horas = horasDaDuracao(duracaoDias);
+        LocalDate inicio = aPartirDe != null ? aPartirDe : LocalDate.now();
+        Map<Integer, Integer> candidatas = locacaoRepo.findCapacidadesPorTipoAdmitindo(tipo, horas).stream()
+                .collect(Collectors.toMap(CapacidadeLocacao::locacaoId, CapacidadeLocacao::quantidade,
+                        (a, b) -> a, LinkedHashMap::new));
+        if (candidatas.isEmpty()) {
+            throw new EntityNotFoundException("Nenhuma locação do tipo admite a duração pedida.");
+        }
+
+        Integer melhorId = null;
+        LocalDate melhorInicio = null;
+        Set<Integer> comReservas = new HashSet<>();
+        try (Stream<PeriodoReserva> reservas = reservaRepo.streamPeriodosPorTipoAPartirDe(
+                tipo, horas, inicio.atStartOfDay())) {
+            Iterator<PeriodoReserva> it = reservas.iterator();
+            PeriodoReserva atual = it.hasNext() ? it.next() : null;
+            while (atual != null) {
+                Integer locacaoId = atual.locacaoId();
+                List<PeriodoReserva> daLocacao = new ArrayList<>();
+                for (; atual != null && atual.locacaoId().equals(locacaoId); atual = it.hasNext() ? it.next() : null) {
+                    daLocacao.add(atual.emDiasInteiros());
+                }
+                comReservas.add(locacaoId);
+                LocalDate livre = OcupacaoSimultanea.primeiraLacuna(daLocacao.iterator(), inicio.atStartOfDay(),
+                        Duration.ofDays(duracaoDias), candidatas.get(locacaoId)).toLocalDate();
+                if (melhorInicio == null || livre.isBefore(melhorInicio)) {
+                    melhorId = locacaoId;
+                    melhorInicio = livre;
+                }
+            }
+        }
+
+        // sem reservas a partir da data, a locação já está livre no início
+        Integer livreNoInicio = candidatas.keySet().stream().filter(c -> !comReservas.contains(c)).findFirst().orElse(null);
+        if (livreNoInicio != null
+                && (melhorInicio == null || inicio.isBefore(melhorInicio) || livreNoInicio < melhorId)) {
+            melhorId = livreNoInicio;
+            melhorInicio = inicio;
+        }
+        return new ProximaJanelaDTO(melhorId, melhorInicio, melhorInicio.plusDays(duracaoDias));
+    }
+
+    public CalendarioLocacaoDTO calendario(Integer id, YearMonth mes) {
+        if (!locacaoRepo.existsById(id)) {
+            throw new EntityNotFoundException("Locação não encontrada.");
+        }
+        return calendario(List.of(id), mes).get(0);
+    }
+
+    public List<CalendarioLocacaoDTO> calendario(List<Integer> ids, YearMonth mes) {
+        if (mes == null) {
+            throw new IllegalArgumentException("Parâmetro 'mes' é obrigatório.");
+        }
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma locação.");
+        }
+        Set<Integer> locacoes = new LinkedHashSet<>(ids);
+        Map<Integer, Integer> quantidades = locacaoRepo.findCapacidades(locacoes).stream()
+                .collect(Collectors.toMap(CapacidadeLocacao::locacaoId, CapacidadeLocacao::quantidade));
+        if (quantidades.size() != locacoes.size()) {
+            throw new EntityNotFoundException("Locação não encontrada.");
+        }
+
+        LocalDate inicio = mes.atDay(1);
+        LocalDate fim = mes.plusMonths(1).atDay(1);
+        int dias = mes.lengthOfMonth();
+
+        // uma única consulta para o mês inteiro; cada reserva entra na lista dos dias que toca
+        // e um dia tem tantas unidades livres quanto a quantidade menos o máximo simultâneo
+        Map<Integer, List<List<PeriodoReserva>>> porDia = locacoes.stream()
+                .collect(Collectors.toMap(Function.identity(), l -> Stream.<List<PeriodoReserva>>generate(ArrayList::new)
+                        .limit(dias).collect(Collectors.toCollection(ArrayList::new))));
+        for (PeriodoReserva p : reservaRepo.findPeriodosSobrepostos(locacoes, inicio.atStartOfDay(), fim.atStartOfDay())) {
+            List<List<PeriodoReserva>> diasLocacao = porDia.get(p.locacaoId());
+            PeriodoReserva emDias = p.emDiasInteiros();
+            int de = (int) Math.max(0, ChronoUnit.DAYS.between(inicio, emDias.dataInicio().toLocalDate()));
+            int ate = (int) Math.min(dias, ChronoUnit.DAYS.between(inicio, emDias.dataFim().toLocalDate()));
+            for (int d = de; d < ate; d++) {
+                diasLocacao.get(d).add(p);
+            }
+        }
+
+        List<CalendarioLocacaoDTO> calendarios = new ArrayList<>(locacoes.size());
+        for (Integer locacaoId : locacoes) {
+            int quantidade = quantidades.get(locacaoId);
+            List<List<PeriodoReserva>> diasLocacao = porDia.get(locacaoId);
+            List<DiaCalendarioDTO> diasDTO = new ArrayList<>(dias);
+            for (int d = 0; d < dias; d++) {
+                List<PeriodoReserva> doDia = diasLocacao.get(d);
+                LocalDateTime meiaNoite = inicio.plusDays(d).atStartOfDay();
+                int ocupadas = doDia.size() <= 1 ? doDia.size()
+                        : OcupacaoSimultanea.maximo(doDia, meiaNoite, meiaNoite.plusDays(1));
+                int livres = Math.max(0, quantidade - ocupadas);
+                diasDTO.add(new DiaCalendarioDTO(inicio.plusDays(d), livres > 0, livres,
+                        livres > 0 ? null : doDia.get(doDia.size() - 1).reservaId()));
+            }
+            calendarios.add(new CalendarioLocacaoDTO(locacaoId, mes, diasDTO));
+        }
+        return calendarios;
     }
 
     public LocacaoGetDTO criar(
@@ -82,6 +374,7 @@ public class LocacaoService {
         LocacaoEntity locacao = mapper.fromPostDTO(novo);
 
         locacao = locacaoRepo.save(locacao);
+        events.publishEvent(LocacaoAlteradaEvent.criada(locacao.getId(), Perfil.de(locacao)));
         return mapper.toGetDTO(locacao);
     }
 
@@ -90,10 +383,12 @@ public class LocacaoService {
             @Valid LocacaoPutDTO atualizado) {
         LocacaoEntity existente = locacaoRepo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
+        Perfil anterior = Perfil.de(existente);
 
         mapper.updateFromPutDTO(atualizado, existente);
 
         existente = locacaoRepo.save(existente);
+        events.publishEvent(LocacaoAlteradaEvent.alterada(id, anterior, Perfil.de(existente)));
         return mapper.toGetDTO(existente);
     }
 
@@ -102,22 +397,58 @@ public class LocacaoService {
             @Valid LocacaoPatchDTO atualizado) {
         LocacaoEntity existente = locacaoRepo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
+        Perfil anterior = Perfil.de(existente);
 
         mapper.updateFromPatchDTO(atualizado, existente);
 
         existente = locacaoRepo.save(existente);
+        events.publishEvent(LocacaoAlteradaEvent.alterada(id, anterior, Perfil.de(existente)));
         return mapper.toGetDTO(existente);
     }
 
     public void deletar(
             Integer id) {
-        if (!locacaoRepo.existsById(id)) {
-            throw new EntityNotFoundException("Locação não encontrada.");
-        }
+        LocacaoEntity existente = locacaoRepo.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
         if (reservaRepo.existsByLocacaoId(id)) {
             throw new RuntimeException("Não pe possível deletar uma Locação que já tenha sido reservada.");
         }
 
         locacaoRepo.deleteById(id);
+        events.publishEvent(LocacaoAlteradaEvent.removida(id, Perfil.de(existente)));
+    }
+
+    private static int horas(LocalDate inicio, LocalDate fim) {
+        return horas(inicio.atStartOfDay(), fim.atStartOfDay());
+    }
+
+    private static int horas(LocalDateTime inicio, LocalDateTime fim) {
+        long horas = Duration.between(inicio, fim).toHours();
+        if (horas > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A janela é longa demais.");
+        }
+        return (int) horas;
+    }
+
+    private static int horasDaDuracao(int duracaoDias) {
+        if (duracaoDias < 1) {
+            throw new IllegalArgumentException("'duracaoDias' deve ser >= 1.");
+        }
+        return Math.multiplyExact(duracaoDias, 24);
+    }
+
+    // valorTotal não é coluna: sem regras no período, horas é constante e a ordem é a de valorHora;
+    // com regras, porValorTotal ordena em memória
+    private static Pageable ordenar(Pageable pageable, String ordenarPor) {
+        if (ordenarPor == null || ordenarPor.isBlank()) {
+            return pageable;
+        }
+        if (!"valorTotal".equals(ordenarPor.trim())) {
+            throw new IllegalArgumentException("Parâmetro 'ordenarPor' aceita apenas valorTotal.");
+        }
+        Sort porValor = Sort.by("valorHora", "id");
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), porValor)
+                : Pageable.unpaged(porValor);
     }
 }
@@ -0,0 +1,81 @@
+package com.example.back_end.services;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+
+import com.example.back_end.dtos.preco.RegraPrecoGetDTO;
+import com.example.back_end.dtos.preco.RegraPrecoPostDTO;
+import com.example.back_end.dtos.preco.RegraPrecoPutDTO;
+import com.example.back_end.entities.RegraPrecoEntity;
+import com.example.back_end.mappers.RegraPrecoMapper;
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.RegraPrecoRepository;
+import com.example.back_end.services.preco.RegraPrecoAlteradaEvent;
+import com.example.back_end.services.preco.RegraPrecoAlteradaEvent.Escopo;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Validated
+public class RegraPrecoService {
+    private final RegraPrecoRepository regraRepo;
+    private final LocacaoRepository locacaoRepo;
+    private final RegraPrecoMapper mapper;
+    private final ApplicationEventPublisher events;
+
+    @Transactional(readOnly = true)
+    public List<RegraPrecoGetDTO> listarTodos() {
+        return mapper.toGetDTO(regraRepo.findAll(Sort.by("id")));
+    }
+
+    @Transactional(readOnly = true)
+    public RegraPrecoGetDTO buscarPorId(Integer id) {
+        return regraRepo.findById(id)
+                .map(mapper::toGetDTO)
+                .orElseThrow(() -> new EntityNotFoundException("Regra de preço não encontrada."));
+    }
+
+    @Transactional
+    public RegraPrecoGetDTO criar(@Valid RegraPrecoPostDTO nova) {
+        validarLocacao(nova.getLocacaoId());
+        RegraPrecoEntity regra = regraRepo.save(mapper.fromPostDTO(nova));
+        events.publishEvent(RegraPrecoAlteradaEvent.criada(Escopo.de(regra)));
+        return mapper.toGetDTO(regra);
+    }
+
+    @Transactional
+    public RegraPrecoGetDTO atualizar(Integer id, @Valid RegraPrecoPutDTO atualizada) {
+        RegraPrecoEntity existente = regraRepo.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Regra de preço não encontrada."));
+        Escopo anterior = Escopo.de(existente);
+        validarLocacao(atualizada.getLocacaoId());
+
+        mapper.updateFromPutDTO(atualizada, existente);
+
+        existente = regraRepo.save(existente);
+        events.publishEvent(RegraPrecoAlteradaEvent.alterada(anterior, Escopo.de(existente)));
+        return mapper.toGetDTO(existente);
+    }
+
+    @Transactional
+    public void deletar(Integer id) {
+        RegraPrecoEntity existente = regraRepo.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Regra de preço não encontrada."));
+        regraRepo.delete(existente);
+        events.publishEvent(RegraPrecoAlteradaEvent.removida(Escopo.de(existente)));
+    }
+
+    private void validarLocacao(Integer locacaoId) {
+        if (locacaoId != null && !locacaoRepo.existsById(locacaoId)) {
+            throw new EntityNotFoundException("Locação não encontrada.");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.back_end.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.back_end.dtos.reserva.ReservaGetDTO;
+import com.example.back_end.enums.FormatoExportacao;
+import com.example.back_end.repositories.ReservaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exportação de reservas em streaming: as linhas vêm de um cursor do servidor, dentro de
+ * uma transação somente leitura, e são escritas na resposta à medida que chegam. A memória
+ * usada não depende da quantidade de reservas.
+ */
+@Service
+public class ReservaExportacaoService {
+
+    private static final String CABECALHO_CSV =
+            "id,clienteId,locacaoId,dataInicio,dataFim,valorFinal,situacao,dataCriacao\n";
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final ReservaRepository reservaRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate tx;
+    private final Duration tempoLimite;
+
+    public ReservaExportacaoService(
+            ReservaRepository reservaRepo,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager txManager,
+            @Value("${reservas.exportacao.tempo-limite:30m}") Duration tempoLimite) {
+        this.reservaRepo = reservaRepo;
+        this.objectMapper = objectMapper;
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setReadOnly(true);
+        this.tempoLimite = tempoLimite;
+    }
+
+    // prazo da requisição assíncrona da exportação; as demais ficam com o padrão do Spring MVC
+    public Duration tempoLimite() {
+        return tempoLimite;
+    }
+
+    // valida antes de devolver o corpo, para que erros de parâmetro ainda virem 400
+    public StreamingResponseBody exportar(FormatoExportacao formato, LocalDate de, LocalDate ate) {
+        if (de != null && ate != null && !ate.isAfter(de)) {
+            throw new IllegalArgumentException("'ate' deve ser posterior a 'de'.");
+        }
+        return saida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+            tx.executeWithoutResult(status -> {
+                try (Stream<ReservaGetDTO> reservas = reservaRepo.streamPorInicio(
+                        de != null ? de.atStartOfDay() : null, ate != null ? ate.atStartOfDay() : null)) {
+                    if (formato == FormatoExportacao.CSV) {
+                        writer.write(CABECALHO_CSV);
+                    }
+                    reservas.forEach(reserva -> escrever(writer, formato, reserva));
+                    writer.flush();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        };
+    }
+
+    private void escrever(Writer writer, FormatoExportacao formato, ReservaGetDTO reserva) {
+        try {
+            if (formato == FormatoExportacao.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(reserva));
+            } else {
+                writer.write(String.valueOf(reserva.getId()));
+                writer.write(',');
+                writer.write(String.valueOf(reserva.getClienteId()));
+                writer.write(',');
+                writer.write(String.valueOf(reserva.getLocacaoId()));
+                writer.write(',');
+                writer.write(DATA_HORA.format(reserva.getDataInicio()));
+                writer.write(',');
+                writer.write(DATA_HORA.format(reserva.getDataFim()));
+                writer.write(',');
+                writer.write(reserva.getValorFinal().toPlainString());
+                writer.write(',');
+                writer.write(reserva.getSituacao().name());
+                writer.write(',');
+                if (reserva.getDataCriacao() != null) {
+                    writer.write(DATA_HORA.format(reserva.getDataCriacao()));
+                }
+            }
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.back_end.services;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.back_end.dtos.reserva.ReservaLoteLinhaDTO;
+import com.example.back_end.dtos.reserva.ReservaLoteResultadoDTO;
+import com.example.back_end.dtos.reserva.ReservaPostDTO;
+import com.example.back_end.entities.LocacaoEntity;
+import com.example.back_end.repositories.ClienteRepository;
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.NovaReserva;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import com.example.back_end.services.disponibilidade.OcupacaoSimultanea;
+import com.example.back_end.services.disponibilidade.ReservaAlteradaEvent;
+import com.example.back_end.services.importacao.LeitorRegistros;
+import com.example.back_end.services.importacao.Registro;
+import com.example.back_end.services.importacao.ValidacaoRegistros;
+import com.example.back_end.services.preco.MotorPrecos;
+
+import jakarta.validation.Validator;
+
+/**
+ * Importação de reservas em lote. Em vez das consultas por registro de ReservaService.criar,
+ * clientes e locações são carregados por conjunto, a lotação pelas reservas gravadas sai de
+ * uma única consulta e a soma com o próprio lote é resolvida em memória.
+ * Registros rejeitados não impedem os demais; a inserção ocorre em uma transação e, se outra
+ * escrita concorrente esgotar a quantidade da locação no período, o gatilho
+ * tg_reservas_capacidade desfaz o lote inteiro (409).
+ */
+@Service
+public class ReservaLoteService {
+
+    // mantém as cláusulas IN bem abaixo do limite de parâmetros do driver
+    private static final int PARTICAO_IDS = 1000;
+
+    private final ReservaRepository reservaRepo;
+    private final LocacaoRepository locacaoRepo;
+    private final ClienteRepository clienteRepo;
+    private final LeitorRegistros leitor;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+    private final MotorPrecos precos;
+    private final TransactionTemplate tx;
+    private final int maximoRegistros;
+    private final int tamanhoLote;
+
+    public ReservaLoteService(
+            ReservaRepository reservaRepo,
+            LocacaoRepository locacaoRepo,
+            ClienteRepository clienteRepo,
+            LeitorRegistros leitor,
+            Validator validator,
+            ApplicationEventPublisher events,
+            MotorPrecos precos,
+            PlatformTransactionManager txManager,
+            @Value("${reservas.lote.maximo-registros:100000}") int maximoRegistros,
+            @Value("${reservas.lote.tamanho-lote-jdbc:1000}") int tamanhoLote) {
+        this.reservaRepo = reservaRepo;
+        this.locacaoRepo = locacaoRepo;
+        this.clienteRepo = clienteRepo;
+        this.leitor = leitor;
+        this.validator = validator;
+        this.events = events;
+        this.precos = precos;
+        this.tx = new TransactionTemplate(txManager);
+        this.maximoRegistros = maximoRegistros;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public ReservaLoteResultadoDTO importar(InputStream corpo, MediaType formato) {
+        List<ReservaLoteLinhaDTO> linhas = new ArrayList<>();
+        List<Registro<ReservaPostDTO>> candidatos = new ArrayList<>();
+
+        // a leitura do corpo acontece fora da transação
+        leitor.ler(corpo, formato, ReservaPostDTO.class, maximoRegistros, registro -> {
+            String erro = registro.valido() ? ValidacaoRegistros.violacoes(validator, registro.valor()) : registro.erro();
+            linhas.add(new ReservaLoteLinhaDTO(registro.linha(), null, erro));
+            if (erro == null) {
+                candidatos.add(registro);
+            }
+        });
+
+        if (!candidatos.isEmpty()) {
+            tx.executeWithoutResult(status -> gravar(candidatos, linhas));
+        }
+
+        int criadas = (int) linhas.stream().filter(l -> l.getReservaId() != null).count();
+        return new ReservaLoteResultadoDTO(linhas.size(), criadas, linhas.size() - criadas, linhas);
+    }
+
+    private void gravar(List<Registro<ReservaPostDTO>> candidatos, List<ReservaLoteLinhaDTO> linhas) {
+        Set<Integer> clientes = new HashSet<>(porParticao(
+                candidatos.stream().map(r -> r.valor().getClienteId()).collect(Collectors.toSet()),
+                clienteRepo::findIdsExistentes));
+        Map<Integer, LocacaoEntity> locacoes = porParticao(
+                candidatos.stream().map(r -> r.valor().getLocacaoId()).collect(Collectors.toSet()),
+                locacaoRepo::findAllById).stream()
+                .collect(Collectors.toMap(LocacaoEntity::getId, Function.identity()));
+
+        List<NovaReserva> aceitas = new ArrayList<>();
+        for (Registro<ReservaPostDTO> registro : candidatos) {
+            ReservaPostDTO dto = registro.valor();
+            LocacaoEntity locacao = locacoes.get(dto.getLocacaoId());
+            long horas = Duration.between(dto.getDataInicio(), dto.getDataFim()).toHours();
+
+            String erro = null;
+            if (!clientes.contains(dto.getClienteId())) {
+                erro = "Cliente não encontrado.";
+            } else if (locacao == null) {
+                erro = "Locação não encontrada.";
+            } else if (horas < locacao.getTempoMinimo()) {
+                erro = "Quantidade de horas abaixo do tempo mínimo da locação.";
+            } else if (horas > locacao.getTempoMaximo()) {
+                erro = "Quantidade de horas acima do tempo máximo da locação.";
+            }
+
+            if (erro != null) {
+                linhas.get(registro.linha() - 1).setErro(erro);
+            } else {
+                aceitas.add(new NovaReserva(registro.linha(), dto.getClienteId(), dto.getLocacaoId(),
+                        dto.getDataInicio(), dto.getDataFim(), valorFinal(locacao, dto), dto.getSituacao()));
+            }
+        }
+
+        List<NovaReserva> ativas = aceitas.stream().filter(r -> r.situacao().ocupaPeriodo()).toList();
+        Set<Integer> rejeitadas = new HashSet<>();
+        for (Integer linha : reservaRepo.linhasEmConflito(ativas)) {
+            linhas.get(linha - 1).setErro("Período indisponível: já existe reserva para essa locação.");
+            rejeitadas.add(linha);
+        }
+        List<NovaReserva> restantes = ativas.stream().filter(r -> !rejeitadas.contains(r.linha())).toList();
+        sobrepostas(restantes, locacoes, gravadasEmUnidades(restantes, locacoes))
+                .forEach((linha, conflitante) -> {
+                    linhas.get(linha - 1).setErro(
+                            "Período indisponível: sobrepõe a reserva do registro " + conflitante + " do lote.");
+                    rejeitadas.add(linha);
+                });
+        aceitas.removeIf(r -> rejeitadas.contains(r.linha()));
+
+        List<Integer> ids = reservaRepo.inserirLote(aceitas, tamanhoLote);
+        for (int i = 0; i < aceitas.size(); i++) {
+            NovaReserva reserva = aceitas.get(i);
+            linhas.get(reserva.linha() - 1).setReservaId(ids.get(i));
+            if (reserva.situacao().ocupaPeriodo()) {
+                events.publishEvent(ReservaAlteradaEvent.criada(new PeriodoReserva(
+                        ids.get(i), reserva.locacaoId(), reserva.dataInicio(), reserva.dataFim())));
+            }
+        }
+    }
+
+    // Ordena por locação e início e aceita em ordem enquanto restar unidade livre no período,
+    // somando as reservas gravadas e as já aceitas do lote. Vence quem começa antes; no empate,
+    // quem aparece primeiro no lote. Devolve linha rejeitada -> linha aceita com que conflita.
+    static Map<Integer, Integer> sobrepostas(List<NovaReserva> ativas, Map<Integer, LocacaoEntity> locacoes,
+            Map<Integer, List<PeriodoReserva>> gravadas) {
+        List<NovaReserva> ordenadas = new ArrayList<>(ativas);
+        ordenadas.sort(Comparator.comparing(NovaReserva::locacaoId)
+                .thenComparing(NovaReserva::dataInicio)
+                .thenComparingInt(NovaReserva::linha));
+
+        Map<Integer, Integer> rejeitadas = new HashMap<>();
+        // aceitas da locação corrente que ainda não terminaram, pela ordem de fim; como todas
+        // começam até o início da atual, todas a sobrepõem
+        PriorityQueue<NovaReserva> abertas = new PriorityQueue<>(Comparator.comparing(NovaReserva::dataFim));
+        Integer locacaoAtual = null;
+        for (NovaReserva reserva : ordenadas) {
+            if (!reserva.locacaoId().equals(locacaoAtual)) {
+                abertas.clear();
+                locacaoAtual = reserva.locacaoId();
+            }
+            while (!abertas.isEmpty() && !abertas.peek().dataFim().isAfter(reserva.dataInicio())) {
+                abertas.poll();
+            }
+
+            int quantidade = locacoes.get(reserva.locacaoId()).getQuantidade();
+            List<PeriodoReserva> daLocacao = gravadas.getOrDefault(reserva.locacaoId(), List.of());
+            boolean lotada;
+            if (daLocacao.isEmpty()) {
+                lotada = abertas.size() >= quantidade;
+            } else {
+                List<PeriodoReserva> periodos = new ArrayList<>(daLocacao);
+                abertas.forEach(r -> periodos.add(
+                        new PeriodoReserva(null, r.locacaoId(), r.dataInicio(), r.dataFim())));
+                lotada = OcupacaoSimultanea.maximo(periodos, reserva.dataInicio(), reserva.dataFim()) >= quantidade;
+            }
+
+            // gravadas sozinhas não lotam (linhasEmConflito), então há sempre uma aberta do lote
+            if (lotada && !abertas.isEmpty()) {
+                rejeitadas.put(reserva.linha(), abertas.peek().linha());
+            } else {
+                abertas.add(reserva);
+            }
+        }
+        return rejeitadas;
+    }
+
+    // reservas gravadas só das locações com mais de uma unidade: com quantidade 1, quem passou
+    // por linhasEmConflito já não sobrepõe nenhuma gravada
+    private Map<Integer, List<PeriodoReserva>> gravadasEmUnidades(List<NovaReserva> ativas,
+            Map<Integer, LocacaoEntity> locacoes) {
+        List<NovaReserva> emUnidades = ativas.stream()
+                .filter(r -> locacoes.get(r.locacaoId()).getQuantidade() > 1)
+                .toList();
+        if (emUnidades.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime inicio = emUnidades.stream().map(NovaReserva::dataInicio)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime fim = emUnidades.stream().map(NovaReserva::dataFim)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        return porParticao(emUnidades.stream().map(NovaReserva::locacaoId).collect(Collectors.toSet()),
+                ids -> reservaRepo.findPeriodosSobrepostos(ids, inicio, fim)).stream()
+                .collect(Collectors.groupingBy(PeriodoReserva::locacaoId));
+    }
+
+    private static <T> List<T> porParticao(Collection<Integer> ids, Function<List<Integer>, List<T>> consulta) {
+        List<Integer> todos = new ArrayList<>(ids);
+        List<T> resultado = new ArrayList<>();
+        for (int i = 0; i < todos.size(); i += PARTICAO_IDS) {
+            resultado.addAll(consulta.apply(todos.subList(i, Math.min(i + PARTICAO_IDS, todos.size()))));
+        }
+        return resultado;
+    }
+
+    private BigDecimal valorFinal(LocacaoEntity locacao, ReservaPostDTO dto) {
+        return precos.valorFinal(locacao.getId(), locacao.getTipo(), locacao.getValorHora(),
+                dto.getDataInicio(), dto.getDataFim());
+    }
+}
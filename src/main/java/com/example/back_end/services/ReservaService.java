@@ -1,26 +1,45 @@
 package com.example.back_end.services;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDate;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-
-import org.springframework.data.domain.Page;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import com.example.back_end.dtos.reserva.ReservaGetDTO;
 import com.example.back_end.dtos.reserva.ReservaPatchDTO;
 import com.example.back_end.dtos.reserva.ReservaPostDTO;
 import com.example.back_end.dtos.reserva.ReservaPutDTO;
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
 import com.example.back_end.entities.ClienteEntity;
 import com.example.back_end.entities.LocacaoEntity;
 import com.example.back_end.entities.ReservaEntity;
+import com.example.back_end.enums.ModoTotal;
+import com.example.back_end.enums.SituacaoReserva;
 import com.example.back_end.mappers.ReservaMapper;
 import com.example.back_end.repositories.ClienteRepository;
 import com.example.back_end.repositories.LocacaoRepository;
 import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.DiagnosticoReserva;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import com.example.back_end.services.disponibilidade.DisponibilidadeStrategy;
+import com.example.back_end.services.disponibilidade.ReservaAlteradaEvent;
+import com.example.back_end.services.disponibilidade.SerializadorReservas;
+import com.example.back_end.services.paginacao.ContagemPaginas;
+import com.example.back_end.services.paginacao.PaginacaoCursor;
+import com.example.back_end.services.paginacao.ResultadoPaginado;
+import com.example.back_end.services.preco.MotorPrecos;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -34,152 +53,215 @@ public class ReservaService {
     private final LocacaoRepository locacaoRepo;
     private final ClienteRepository clienteRepo;
     private final ReservaMapper mapper;
+    private final DisponibilidadeStrategy disponibilidade;
+    private final ApplicationEventPublisher events;
+    private final SerializadorReservas serializador;
+    private final ContagemPaginas contagem;
+    private final MotorPrecos precos;
+
+    @Transactional(readOnly = true)
+    public ResultadoPaginado<ReservaGetDTO> listarTodos(
+            Pageable pageable,
+            ModoTotal modo) {
+        return contagem.completar(modo, reservaRepo.findPaginaDTO(pageable), "reservas", reservaRepo::count);
+    }
 
-    public Page<ReservaGetDTO> listarTodos(
-            Pageable pageable) {
-        return reservaRepo.findAll(pageable).map(mapper::toGetDTO);
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ReservaGetDTO> listarPorCursor(
+            String cursor,
+            int tamanho) {
+        int ultimoId = PaginacaoCursor.ultimoId(cursor);
+        var itens = reservaRepo.findPaginaCursorDTO(ultimoId, Limit.of(tamanho + 1));
+        return PaginacaoCursor.pagina(itens, tamanho, ReservaGetDTO::getId);
     }
 
+    @Transactional(readOnly = true)
     public ReservaGetDTO buscarPorId(
             Integer id) {
-        ReservaEntity reserva = reservaRepo.findById(id)
+        return reservaRepo.findDTOById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Reserva não encontrada."));
-
-        return mapper.toGetDTO(reserva);
     }
 
     public ReservaGetDTO criar(
             @Valid ReservaPostDTO dto) {
-        ClienteEntity cliente = clienteRepo.findById(dto.getClienteId())
-                .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado."));
-        LocacaoEntity locacao = locacaoRepo.findById(dto.getLocacaoId())
-                .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
-
-        LocalDate inicio = dto.getDataInicio();
-        LocalDate fim = dto.getDataFim();
+        LocalDateTime inicio = dto.getDataInicio();
+        LocalDateTime fim = dto.getDataFim();
 
         validarPeriodo(inicio, fim);
         long horas = calcularHoras(inicio, fim);
-        validarJanelaComLocacao(locacao, horas);
-
-        if (reservaRepo.existsByLocacaoIdAndDataInicioLessThanAndDataFimGreaterThan(
-                locacao.getId(), fim, inicio)) {
-            throw new IllegalArgumentException("Período indisponível: já existe reserva para essa locação.");
-        }
+        // sem regra de preço no período o INSERT calcula valorHora × horas, sem leitura prévia;
+        // com regra o motor precisa do tipo e do valor da hora (cache de segundo nível), e uma
+        // locação inexistente segue para o INSERT, que falha e cai no diagnóstico
+        BigDecimal valorFinal = precos.ajustaPeriodo(null, inicio, fim)
+                ? locacaoRepo.findById(dto.getLocacaoId()).map(l -> calcularValorFinal(l, inicio, fim)).orElse(null)
+                : null;
+
+        ReservaGetDTO criada = serializador.executar(dto.getLocacaoId(), () -> {
+            if (dto.getSituacao().ocupaPeriodo()
+                    && disponibilidade.verificarAntesDeCriar()
+                    && disponibilidade.possuiConflito(dto.getLocacaoId(), null, inicio, fim)) {
+                throw new IllegalArgumentException("Período indisponível: já existe reserva para essa locação.");
+            }
+
+            // existência, janela de tempo e conflito resolvidos no próprio INSERT
+            return reservaRepo.inserirSeDisponivel(
+                    dto.getClienteId(), dto.getLocacaoId(), inicio, fim, horas, valorFinal, dto.getSituacao())
+                    .orElseThrow(() -> falhaNaCriacao(dto, horas));
+        });
+
+        events.publishEvent(ReservaAlteradaEvent.criada(periodo(criada)));
+        return criada;
+    }
 
-        ReservaEntity reserva = new ReservaEntity();
-        reserva.setCliente(cliente);
-        reserva.setLocacao(locacao);
-        reserva.setDataInicio(inicio);
-        reserva.setDataFim(fim);
-        reserva.setSituacao(dto.getSituacao());
-        reserva.setValorFinal(calcularValorFinal(locacao, horas));
+    public ReservaGetDTO atualizar(Integer id, @Valid ReservaPutDTO dto) {
+        return alterar(id, dto.getLocacaoId(), existente -> {
+            ClienteEntity cliente = existente.getCliente();
+            if (!existente.getCliente().getId().equals(dto.getClienteId())) {
+                cliente = clienteRepo.findById(dto.getClienteId())
+                        .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado."));
+            }
+            LocacaoEntity locacao = existente.getLocacao();
+            if (!existente.getLocacao().getId().equals(dto.getLocacaoId())) {
+                locacao = locacaoRepo.findById(dto.getLocacaoId())
+                        .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
+            }
+
+            LocalDateTime inicio = dto.getDataInicio();
+            LocalDateTime fim = dto.getDataFim();
+
+            validarPeriodo(inicio, fim);
+            long horas = calcularHoras(inicio, fim);
+            validarJanelaComLocacao(locacao, horas);
+
+            return aplicarAlteracao(existente, cliente, locacao, inicio, fim, dto.getSituacao());
+        });
+    }
 
-        reserva = reservaRepo.save(reserva);
-        return mapper.toGetDTO(reserva);
+    public ReservaGetDTO atualizarParcial(Integer id, @Valid ReservaPatchDTO patch) {
+        return alterar(id, patch.getLocacaoId(), existente -> {
+            ClienteEntity cliente = existente.getCliente();
+            if (patch.getClienteId() != null && !cliente.getId().equals(patch.getClienteId())) {
+                cliente = clienteRepo.findById(patch.getClienteId())
+                        .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado."));
+            }
+            LocacaoEntity locacao = existente.getLocacao();
+            if (patch.getLocacaoId() != null && !locacao.getId().equals(patch.getLocacaoId())) {
+                locacao = locacaoRepo.findById(patch.getLocacaoId())
+                        .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
+            }
+
+            LocalDateTime inicio = patch.getDataInicio() != null ? patch.getDataInicio() : existente.getDataInicio();
+            LocalDateTime fim = patch.getDataFim() != null ? patch.getDataFim() : existente.getDataFim();
+            SituacaoReserva situacao = patch.getSituacao() != null ? patch.getSituacao() : existente.getSituacao();
+
+            validarPeriodo(inicio, fim);
+            long horas = calcularHoras(inicio, fim);
+            validarJanelaComLocacao(locacao, horas);
+
+            return aplicarAlteracao(existente, cliente, locacao, inicio, fim, situacao);
+        });
     }
 
-    public ReservaGetDTO atualizar(Integer id, @Valid ReservaPutDTO dto) {
+    public void deletar(
+            Integer id) {
         ReservaEntity existente = reservaRepo.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Reserva não encontrada."));
 
-        ClienteEntity cliente = existente.getCliente();
-        if (!existente.getCliente().getId().equals(dto.getClienteId())) {
-            cliente = clienteRepo.findById(dto.getClienteId())
-                    .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado."));
-        }
-        LocacaoEntity locacao = existente.getLocacao();
-        if (!existente.getLocacao().getId().equals(dto.getLocacaoId())) {
-            locacao = locacaoRepo.findById(dto.getLocacaoId())
-                    .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
-        }
-
-        LocalDate inicio = dto.getDataInicio();
-        LocalDate fim = dto.getDataFim();
-
-        validarPeriodo(inicio, fim);
-        long horas = calcularHoras(inicio, fim);
-        validarJanelaComLocacao(locacao, horas);
+        reservaRepo.delete(existente);
+        events.publishEvent(ReservaAlteradaEvent.removida(periodo(existente)));
+    }
 
-        if (reservaRepo.existsByLocacaoIdAndIdNotAndDataInicioLessThanAndDataFimGreaterThan(
-                locacao.getId(), existente.getId(), fim, inicio)) {
-            throw new IllegalArgumentException("Período indisponível: já existe reserva para essa locação.");
+    // null quando a reserva não ocupa o período (cancelada ou concluída)
+    private PeriodoReserva periodo(ReservaGetDTO reserva) {
+        if (!reserva.getSituacao().ocupaPeriodo()) {
+            return null;
         }
-
-        existente.setCliente(cliente);
-        existente.setLocacao(locacao);
-        existente.setDataInicio(inicio);
-        existente.setDataFim(fim);
-        existente.setSituacao(dto.getSituacao());
-        existente.setValorFinal(calcularValorFinal(locacao, horas));
-
-        reservaRepo.save(existente);
-        return mapper.toGetDTO(existente);
+        return new PeriodoReserva(reserva.getId(), reserva.getLocacaoId(),
+                reserva.getDataInicio(), reserva.getDataFim());
     }
 
-    public ReservaGetDTO atualizarParcial(Integer id, @Valid ReservaPatchDTO patch) {
-        var existente = reservaRepo.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Reserva não encontrada."));
-
-        ClienteEntity cliente = existente.getCliente();
-        if (patch.getClienteId() != null && !cliente.getId().equals(patch.getClienteId())) {
-            cliente = clienteRepo.findById(patch.getClienteId())
-                    .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado."));
+    private PeriodoReserva periodo(ReservaEntity reserva) {
+        if (reserva.getSituacao() == null || !reserva.getSituacao().ocupaPeriodo()) {
+            return null;
         }
-        LocacaoEntity locacao = existente.getLocacao();
-        if (patch.getLocacaoId() != null && !locacao.getId().equals(patch.getLocacaoId())) {
-            locacao = locacaoRepo.findById(patch.getLocacaoId())
-                    .orElseThrow(() -> new EntityNotFoundException("Locação não encontrada."));
-        }
-
-        LocalDate inicio = patch.getDataInicio() != null ? patch.getDataInicio() : existente.getDataInicio();
-        LocalDate fim = patch.getDataFim() != null ? patch.getDataFim() : existente.getDataFim();
+        return new PeriodoReserva(reserva.getId(), reserva.getLocacao().getId(),
+                reserva.getDataInicio(), reserva.getDataFim());
+    }
 
-        validarPeriodo(inicio, fim);
-        long horas = calcularHoras(inicio, fim);
-        validarJanelaComLocacao(locacao, horas);
+    // a reserva é relida com a locação de antes e a de depois travadas, então a alteração parte
+    // do estado gravado; se outra escrita a mudou de locação entre a leitura e o lock, repete
+    private ReservaGetDTO alterar(Integer id, Integer novaLocacaoId, Function<ReservaEntity, ReservaGetDTO> alteracao) {
+        Integer locacaoAtual = reservaRepo.findDTOById(id)
+                .map(ReservaGetDTO::getLocacaoId)
+                .orElseThrow(() -> new EntityNotFoundException("Reserva não encontrada."));
+        Set<Integer> locacoes = novaLocacaoId == null ? Set.of(locacaoAtual) : new HashSet<>(List.of(locacaoAtual, novaLocacaoId));
+
+        Optional<ReservaGetDTO> alterada = serializador.executarEmTodas(locacoes, () -> {
+            ReservaEntity existente = reservaRepo.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Reserva não encontrada."));
+            if (!locacoes.contains(existente.getLocacao().getId())) {
+                return Optional.empty();
+            }
+            return Optional.of(alteracao.apply(existente));
+        });
+        return alterada.orElseGet(() -> alterar(id, novaLocacaoId, alteracao));
+    }
 
-        if (reservaRepo.existsByLocacaoIdAndIdNotAndDataInicioLessThanAndDataFimGreaterThan(
-                locacao.getId(), existente.getId(), fim, inicio)) {
+    private ReservaGetDTO aplicarAlteracao(ReservaEntity existente, ClienteEntity cliente, LocacaoEntity locacao,
+            LocalDateTime inicio, LocalDateTime fim, SituacaoReserva situacao) {
+        if (situacao.ocupaPeriodo()
+                && disponibilidade.possuiConflito(locacao.getId(), existente.getId(), inicio, fim)) {
             throw new IllegalArgumentException("Período indisponível: já existe reserva para essa locação.");
         }
+        PeriodoReserva anterior = periodo(existente);
 
         existente.setCliente(cliente);
         existente.setLocacao(locacao);
         existente.setDataInicio(inicio);
         existente.setDataFim(fim);
-        if (patch.getSituacao() != null)
-            existente.setSituacao(patch.getSituacao());
-        existente.setValorFinal(calcularValorFinal(locacao, horas));
+        existente.setSituacao(situacao);
+        existente.setValorFinal(calcularValorFinal(locacao, inicio, fim));
 
         reservaRepo.save(existente);
+        events.publishEvent(ReservaAlteradaEvent.alterada(anterior, periodo(existente)));
         return mapper.toGetDTO(existente);
     }
 
-    public void deletar(
-            Integer id) {
-        if (!reservaRepo.existsById(id)) {
-            throw new EntityNotFoundException("Reserva não encontrada.");
+    private RuntimeException falhaNaCriacao(ReservaPostDTO dto, long horas) {
+        DiagnosticoReserva diagnostico = reservaRepo.diagnosticar(dto.getClienteId(), dto.getLocacaoId());
+        if (!diagnostico.clienteExiste()) {
+            return new EntityNotFoundException("Cliente não encontrado.");
         }
-
-        reservaRepo.deleteById(id);
+        if (!diagnostico.locacaoExiste()) {
+            return new EntityNotFoundException("Locação não encontrada.");
+        }
+        if (horas < diagnostico.tempoMinimo()) {
+            return new IllegalArgumentException("Quantidade de horas abaixo do tempo mínimo da locação.");
+        }
+        if (horas > diagnostico.tempoMaximo()) {
+            return new IllegalArgumentException("Quantidade de horas acima do tempo máximo da locação.");
+        }
+        return new IllegalArgumentException("Período indisponível: já existe reserva para essa locação.");
     }
 
-    private void validarPeriodo(LocalDate inicio, LocalDate fim) {
+    private void validarPeriodo(LocalDateTime inicio, LocalDateTime fim) {
         if (inicio == null || fim == null) {
             throw new IllegalArgumentException("Datas de início e fim são obrigatórias.");
         }
         if (!fim.isAfter(inicio)) {
             throw new IllegalArgumentException("dataFim deve ser posterior a dataInicio.");
         }
+        if (!inicio.truncatedTo(ChronoUnit.HOURS).equals(inicio) || !fim.truncatedTo(ChronoUnit.HOURS).equals(fim)) {
+            throw new IllegalArgumentException("dataInicio e dataFim devem cair em hora cheia.");
+        }
     }
 
-    private long calcularHoras(LocalDate inicio, LocalDate fim) {
-        long dias = ChronoUnit.DAYS.between(inicio, fim);
-        if (dias <= 0) {
+    private long calcularHoras(LocalDateTime inicio, LocalDateTime fim) {
+        long horas = Duration.between(inicio, fim).toHours();
+        if (horas <= 0) {
             throw new IllegalArgumentException("dataFim deve ser maior que dataInicio.");
         }
-        return dias * 24;
+        return horas;
     }
 
     private void validarJanelaComLocacao(LocacaoEntity locacao, long horas) {
@@ -194,9 +276,7 @@ public class ReservaService {
         }
     }
 
-    private BigDecimal calcularValorFinal(LocacaoEntity locacao, long horas) {
-        return locacao.getValorHora()
-                .multiply(BigDecimal.valueOf(horas))
-                .setScale(2, RoundingMode.HALF_UP);
+    private BigDecimal calcularValorFinal(LocacaoEntity locacao, LocalDateTime inicio, LocalDateTime fim) {
+        return precos.valorFinal(locacao.getId(), locacao.getTipo(), locacao.getValorHora(), inicio, fim);
     }
 }
@@ -0,0 +1,63 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Chamadas simultâneas com a mesma chave compartilham uma única execução: a primeira
+ * consulta o banco e as demais aguardam o resultado dela. Quem espera além do limite
+ * desiste e executa a própria consulta.
+ */
+final class AgrupadorConsultas<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+    private final long esperaMaximaMs;
+    private final Counter agrupadas;
+    private final Counter esperasEsgotadas;
+
+    AgrupadorConsultas(Duration esperaMaxima, Counter agrupadas, Counter esperasEsgotadas) {
+        this.esperaMaximaMs = esperaMaxima.toMillis();
+        this.agrupadas = agrupadas;
+        this.esperasEsgotadas = esperasEsgotadas;
+    }
+
+    V executar(K chave, Supplier<V> consulta) {
+        CompletableFuture<V> nova = new CompletableFuture<>();
+        CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, nova);
+        if (existente == null) {
+            try {
+                V valor = consulta.get();
+                nova.complete(valor);
+                return valor;
+            } catch (RuntimeException | Error ex) {
+                nova.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                emAndamento.remove(chave, nova);
+            }
+        }
+
+        agrupadas.increment();
+        try {
+            return existente.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            esperasEsgotadas.increment();
+            return consulta.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha na consulta compartilhada.", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera pela consulta compartilhada interrompida.", ex);
+        }
+    }
+}
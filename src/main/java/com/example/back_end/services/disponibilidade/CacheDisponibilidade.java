@@ -0,0 +1,141 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import com.example.back_end.services.preco.RegraPrecoAlteradaEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache das páginas de locações disponíveis por janela. Uma escrita em reserva remove só
+ * as janelas que se sobrepõem ao período antigo ou novo; uma alteração de locação remove
+ * todas as páginas das buscas que a admitiam antes ou depois; uma alteração de regra de
+ * preço esvazia o cache.
+ * Faltas simultâneas da mesma janela são agrupadas em uma só consulta ao banco.
+ */
+@Component
+public class CacheDisponibilidade {
+
+    private static final String METRICA_INVALIDACOES = "disponibilidade.cache.invalidacoes";
+
+    private final Cache<Chave, Page<LocacaoDisponivelDTO>> cache;
+    private final Counter invalidacoesReserva;
+    private final Counter invalidacoesLocacao;
+    private final Counter invalidacoesRegraPreco;
+    private final AgrupadorConsultas<Consulta, Page<LocacaoDisponivelDTO>> agrupador;
+
+    // incrementada a cada invalidação; resultado calculado antes dela não entra no cache
+    private final Object trava = new Object();
+    private volatile long versao;
+
+    // só se juntam a uma consulta em andamento as chamadas que chegaram na mesma versão
+    private record Consulta(Chave chave, long versao) {
+    }
+
+    record Chave(LocalDateTime inicio, LocalDateTime fim, int horas, FiltroDisponibilidade filtro, Pageable pageable) {
+
+        boolean sobrepoe(PeriodoReserva periodo) {
+            return periodo != null && periodo.sobrepoe(inicio, fim);
+        }
+    }
+
+    public CacheDisponibilidade(
+            MeterRegistry registry,
+            @Value("${reservas.disponibilidade.cache.maximo:1000}") long maximo,
+            @Value("${reservas.disponibilidade.cache.validade:10m}") Duration validade,
+            @Value("${reservas.disponibilidade.cache.espera-maxima:2s}") Duration esperaMaxima) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(validade)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "disponibilidade");
+        this.invalidacoesReserva = Counter.builder(METRICA_INVALIDACOES).tag("origem", "reserva").register(registry);
+        this.invalidacoesLocacao = Counter.builder(METRICA_INVALIDACOES).tag("origem", "locacao").register(registry);
+        this.invalidacoesRegraPreco = Counter.builder(METRICA_INVALIDACOES).tag("origem", "regra-preco").register(registry);
+        this.agrupador = new AgrupadorConsultas<>(esperaMaxima,
+                Counter.builder("disponibilidade.consultas.agrupadas").register(registry),
+                Counter.builder("disponibilidade.consultas.espera-esgotada").register(registry));
+    }
+
+    public Page<LocacaoDisponivelDTO> obter(LocalDateTime inicio, LocalDateTime fim, int horas,
+            FiltroDisponibilidade filtro, Pageable pageable, Supplier<Page<LocacaoDisponivelDTO>> consulta) {
+        Chave chave = new Chave(inicio, fim, horas, filtro, pageable);
+        Page<LocacaoDisponivelDTO> pagina = cache.getIfPresent(chave);
+        if (pagina != null) {
+            return pagina;
+        }
+        long versaoInicial = versao;
+        return agrupador.executar(new Consulta(chave, versaoInicial), () -> {
+            Page<LocacaoDisponivelDTO> resultado = consulta.get();
+            synchronized (trava) {
+                if (versao == versaoInicial) {
+                    cache.put(chave, resultado);
+                }
+            }
+            return resultado;
+        });
+    }
+
+    // depois dos índices em memória, para que uma nova consulta já os encontre atualizados
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarReserva(ReservaAlteradaEvent event) {
+        invalidar(invalidacoesReserva,
+                chave -> chave.sobrepoe(event.anterior()) || chave.sobrepoe(event.atual()));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLocacao(LocacaoAlteradaEvent event) {
+        invalidar(invalidacoesLocacao, chave -> {
+            if (event.emLote()) {
+                return true;
+            }
+            // nome, valor da hora ou quantidade mudam a posição da locação na ordenação e a
+            // lotação: qualquer página da busca pode ganhá-la ou perdê-la, não só a que a exibe
+            boolean antes = event.anterior() != null && event.anterior().admite(chave.horas(), chave.filtro());
+            boolean depois = event.atual() != null && event.atual().admite(chave.horas(), chave.filtro());
+            return antes || depois;
+        });
+    }
+
+    // as páginas guardam valorTotal já com as regras; regras mudam pouco, então sai tudo
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRegraPreco(RegraPrecoAlteradaEvent event) {
+        invalidar(invalidacoesRegraPreco, chave -> true);
+    }
+
+    private void invalidar(Counter contador, Predicate<Chave> afetada) {
+        synchronized (trava) {
+            versao++;
+            int removidas = 0;
+            for (Map.Entry<Chave, Page<LocacaoDisponivelDTO>> entrada : cache.asMap().entrySet()) {
+                if (afetada.test(entrada.getKey())
+                        && cache.asMap().remove(entrada.getKey(), entrada.getValue())) {
+                    removidas++;
+                }
+            }
+            contador.increment(removidas);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+
+/**
+ * Calendário de ocupação em bits, um bit por dia, sobre um horizonte móvel
+ * [hoje - diasPassados, hoje + diasFuturos). Mantém duas visões:
+ * por locação (bits = dias), para conflito e sobreposição de uma locação, e
+ * por dia (bits = id da locação), para obter as ocupadas com OR sobre o período.
+ * Um bit marcado diz que alguma reserva toca o dia. Nos dias que a janela cobre inteiros isso
+ * já é conflito; nos dias em que ela começa ou termina fora da meia-noite, o bit só aponta
+ * candidatas, confirmadas nos intervalos exatos em minutos, sem ir ao banco.
+ */
+public class CalendarioOcupacao implements IndiceDisponibilidade {
+
+    private static final long[] VAZIO = new long[0];
+
+    private final Clock clock;
+    private final int diasPassados;
+    private final int dias;
+    private final int palavras;
+
+    private final Map<Integer, long[]> porLocacao = new HashMap<>();
+    private final Map<Integer, PeriodoReserva> porReserva = new HashMap<>();
+    private final IndiceIntervalos periodos = new IndiceIntervalos();
+    private final long[][] porDia;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private LocalDate base;
+
+    public CalendarioOcupacao(Clock clock, int diasPassados, int diasFuturos) {
+        this.clock = clock;
+        this.diasPassados = diasPassados;
+        this.dias = diasPassados + diasFuturos;
+        this.palavras = (dias + 63) >>> 6;
+        this.porDia = new long[dias][];
+        this.base = LocalDate.now(clock).minusDays(diasPassados);
+        Arrays.fill(porDia, VAZIO);
+    }
+
+    @Override
+    public void registrar(PeriodoReserva periodo) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(periodo.reservaId());
+            adicionarSemLock(periodo);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remover(Integer reservaId) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(reservaId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void substituir(Collection<PeriodoReserva> periodos) {
+        lock.writeLock().lock();
+        try {
+            base = LocalDate.now(clock).minusDays(diasPassados);
+            porLocacao.clear();
+            porReserva.clear();
+            Arrays.fill(porDia, VAZIO);
+            for (PeriodoReserva p : periodos) {
+                porReserva.put(p.reservaId(), p);
+                marcar(p);
+            }
+            this.periodos.substituir(periodos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean cobre(LocalDateTime inicio, LocalDateTime fim) {
+        lock.readLock().lock();
+        try {
+            return cobreSemLock(inicio, fim);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean expirado() {
+        lock.readLock().lock();
+        try {
+            return base.isBefore(LocalDate.now(clock).minusDays(diasPassados));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // a reserva ignorada não tem bit próprio, e numa janela sem dia inteiro todo bit marcado
+    // seria borda: nos dois casos a resposta vem direto dos intervalos
+    @Override
+    public boolean possuiConflito(Integer locacaoId, Integer reservaIgnoradaId, LocalDateTime inicio,
+            LocalDateTime fim) {
+        if (reservaIgnoradaId == null && cobreDiaInteiro(inicio, fim)) {
+            lock.readLock().lock();
+            try {
+                if (temDiaInteiro(inicio, fim)) {
+                    long[] bits = porLocacao.get(locacaoId);
+                    if (bits == null || !marcado(bits, indice(inicio), indiceFim(fim))) {
+                        return false;
+                    }
+                    if (marcado(bits, indiceFim(inicio), indice(fim))) {
+                        return true;
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return periodos.possuiConflito(locacaoId, reservaIgnoradaId, inicio, fim);
+    }
+
+    @Override
+    public List<PeriodoReserva> sobrepostas(Integer locacaoId, LocalDateTime inicio, LocalDateTime fim) {
+        if (cobreDiaInteiro(inicio, fim)) {
+            lock.readLock().lock();
+            try {
+                if (temDiaInteiro(inicio, fim)) {
+                    long[] bits = porLocacao.get(locacaoId);
+                    if (bits == null || !marcado(bits, indice(inicio), indiceFim(fim))) {
+                        return new ArrayList<>();
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return periodos.sobrepostas(locacaoId, inicio, fim);
+    }
+
+    // OR dos dias inteiros da janela dá ocupadas exatas; o dos dias de borda, candidatas
+    @Override
+    public Set<Integer> locacoesOcupadas(LocalDateTime inicio, LocalDateTime fim) {
+        lock.readLock().lock();
+        try {
+            int primeiroInteiro = indiceFim(inicio);
+            int fimInteiros = Math.max(primeiroInteiro, indice(fim));
+            long[] inteiros = acumular(VAZIO, primeiroInteiro, fimInteiros);
+            long[] bordas = acumular(VAZIO, indice(inicio), primeiroInteiro);
+            bordas = acumular(bordas, fimInteiros, indiceFim(fim));
+
+            Set<Integer> ocupadas = new HashSet<>();
+            for (int w = 0; w < inteiros.length; w++) {
+                long palavra = inteiros[w];
+                while (palavra != 0) {
+                    ocupadas.add((w << 6) + Long.numberOfTrailingZeros(palavra));
+                    palavra &= palavra - 1;
+                }
+            }
+            for (int w = 0; w < bordas.length; w++) {
+                long palavra = bordas[w] & ~(w < inteiros.length ? inteiros[w] : 0);
+                while (palavra != 0) {
+                    int locacaoId = (w << 6) + Long.numberOfTrailingZeros(palavra);
+                    if (periodos.possuiConflito(locacaoId, null, inicio, fim)) {
+                        ocupadas.add(locacaoId);
+                    }
+                    palavra &= palavra - 1;
+                }
+            }
+            return ocupadas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, PeriodoReserva> snapshot() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(porReserva);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long bytesPorLocacao() {
+        return (long) palavras * Long.BYTES;
+    }
+
+    public long bytesTotais() {
+        lock.readLock().lock();
+        try {
+            long total = porLocacao.size() * bytesPorLocacao();
+            for (long[] dia : porDia) {
+                total += (long) dia.length * Long.BYTES;
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int locacoes() {
+        lock.readLock().lock();
+        try {
+            return porLocacao.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void adicionarSemLock(PeriodoReserva p) {
+        porReserva.put(p.reservaId(), p);
+        periodos.registrar(p);
+        marcar(p);
+    }
+
+    private void marcar(PeriodoReserva p) {
+        marcar(p.locacaoId(), indiceLimitado(indice(p.dataInicio())), indiceLimitado(indiceFim(p.dataFim())));
+    }
+
+    private void marcar(int locacao, int de, int ate) {
+        if (de >= ate) {
+            return;
+        }
+        long[] bits = porLocacao.computeIfAbsent(locacao, id -> new long[palavras]);
+        for (int d = de; d < ate; d++) {
+            bits[d >>> 6] |= 1L << d;
+            long[] dia = porDia[d];
+            if ((locacao >>> 6) >= dia.length) {
+                dia = Arrays.copyOf(dia, (locacao >>> 6) + 1);
+                porDia[d] = dia;
+            }
+            dia[locacao >>> 6] |= 1L << locacao;
+        }
+    }
+
+    // reservas por hora e locações com várias unidades dividem dias: limpa os dias da
+    // removida e remarca os que outras reservas da locação ainda ocupam
+    private void removerSemLock(Integer reservaId) {
+        PeriodoReserva p = porReserva.remove(reservaId);
+        if (p == null) {
+            return;
+        }
+        periodos.remover(reservaId);
+        long[] bits = porLocacao.get(p.locacaoId());
+        if (bits == null) {
+            return;
+        }
+        int locacao = p.locacaoId();
+        int de = indiceLimitado(indice(p.dataInicio()));
+        int ate = indiceLimitado(indiceFim(p.dataFim()));
+        for (int d = de; d < ate; d++) {
+            bits[d >>> 6] &= ~(1L << d);
+            long[] dia = porDia[d];
+            if ((locacao >>> 6) < dia.length) {
+                dia[locacao >>> 6] &= ~(1L << locacao);
+            }
+        }
+        if (de < ate) {
+            LocalDateTime desde = base.plusDays(de).atStartOfDay();
+            for (PeriodoReserva r : periodos.sobrepostas(locacao, desde, base.plusDays(ate).atStartOfDay())) {
+                marcar(locacao, Math.max(de, indiceLimitado(indice(r.dataInicio()))),
+                        Math.min(ate, indiceLimitado(indiceFim(r.dataFim()))));
+            }
+        }
+    }
+
+    private boolean cobreSemLock(LocalDateTime inicio, LocalDateTime fim) {
+        return indice(inicio) >= 0 && indiceFim(fim) <= dias;
+    }
+
+    // dentro do horizonte e cobrindo ao menos um dia de meia-noite a meia-noite
+    private boolean temDiaInteiro(LocalDateTime inicio, LocalDateTime fim) {
+        return cobreSemLock(inicio, fim) && indiceFim(inicio) < indice(fim);
+    }
+
+    // o mesmo teste de dia inteiro sem depender da base, para janelas de horas nem pegarem o lock
+    private static boolean cobreDiaInteiro(LocalDateTime inicio, LocalDateTime fim) {
+        LocalDate primeiro = inicio.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? inicio.toLocalDate() : inicio.toLocalDate().plusDays(1);
+        return primeiro.isBefore(fim.toLocalDate());
+    }
+
+    // algum dia de [de, ate) marcado nos bits da locação
+    private static boolean marcado(long[] bits, int de, int ate) {
+        if (de >= ate) {
+            return false;
+        }
+        int primeira = de >>> 6;
+        int ultima = (ate - 1) >>> 6;
+        long mascaraInicio = -1L << de;
+        long mascaraFim = -1L >>> (63 - ((ate - 1) & 63));
+        if (primeira == ultima) {
+            return (bits[primeira] & mascaraInicio & mascaraFim) != 0;
+        }
+        if ((bits[primeira] & mascaraInicio) != 0 || (bits[ultima] & mascaraFim) != 0) {
+            return true;
+        }
+        for (int w = primeira + 1; w < ultima; w++) {
+            if (bits[w] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // OR das locações marcadas nos dias [de, ate)
+    private long[] acumular(long[] acumulado, int de, int ate) {
+        for (int d = Math.max(0, de); d < Math.min(dias, ate); d++) {
+            long[] dia = porDia[d];
+            if (dia.length > acumulado.length) {
+                acumulado = Arrays.copyOf(acumulado, dia.length);
+            }
+            for (int w = 0; w < dia.length; w++) {
+                acumulado[w] |= dia[w];
+            }
+        }
+        return acumulado;
+    }
+
+    // dia do instante, a partir da base; fora do horizonte o valor só precisa ficar fora de [0, dias]
+    private int indice(LocalDateTime instante) {
+        long dia = ChronoUnit.DAYS.between(base, instante.toLocalDate());
+        return (int) Math.max(-1, Math.min(dias + 1L, dia));
+    }
+
+    // fim exclusivo: um instante depois da meia-noite ainda ocupa o próprio dia
+    private int indiceFim(LocalDateTime instante) {
+        int dia = indice(instante);
+        return instante.toLocalTime().equals(LocalTime.MIDNIGHT) ? dia : dia + 1;
+    }
+
+    private int indiceLimitado(int dia) {
+        return Math.max(0, Math.min(dias, dia));
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.Clock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.ReservaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@ConditionalOnProperty(name = DisponibilidadeStrategy.PROPRIEDADE, havingValue = "calendario")
+@Slf4j
+public class DisponibilidadeCalendario extends DisponibilidadeIndexada {
+
+    public DisponibilidadeCalendario(ReservaRepository reservaRepo, LocacaoRepository locacaoRepo,
+            @Value("${reservas.disponibilidade.calendario.dias-passados:30}") int diasPassados,
+            @Value("${reservas.disponibilidade.calendario.dias-futuros:730}") int diasFuturos) {
+        super(reservaRepo, locacaoRepo, new CalendarioOcupacao(Clock.systemDefaultZone(), diasPassados, diasFuturos));
+    }
+
+    @Override
+    protected void aposCarga(int reservas) {
+        CalendarioOcupacao calendario = (CalendarioOcupacao) indice();
+        log.info("Calendário de ocupação carregado: {} reservas, {} locações, {} bytes por locação, {} bytes no total.",
+                reservas, calendario.locacoes(), calendario.bytesPorLocacao(), calendario.bytesTotais());
+    }
+}
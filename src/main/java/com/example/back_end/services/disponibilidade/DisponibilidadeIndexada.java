@@ -0,0 +1,169 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Base das estratégias em memória: carga inicial, eventos de escrita e verificação de consistência.
+@Slf4j
+public abstract class DisponibilidadeIndexada implements DisponibilidadeStrategy {
+    private final ReservaRepository reservaRepo;
+    private final LocacaoRepository locacaoRepo;
+    private final IndiceDisponibilidade indice;
+
+    // quantidade das locações com mais de uma unidade; ausente vale 1
+    private final Map<Integer, Integer> quantidades = new ConcurrentHashMap<>();
+    private final AtomicLong versao = new AtomicLong();
+    private final DisponibilidadeSql sql;
+    private volatile boolean carregado;
+
+    protected DisponibilidadeIndexada(ReservaRepository reservaRepo, LocacaoRepository locacaoRepo,
+            IndiceDisponibilidade indice) {
+        this.reservaRepo = reservaRepo;
+        this.locacaoRepo = locacaoRepo;
+        this.indice = indice;
+        // usado enquanto o índice não foi carregado ou fora do horizonte coberto
+        this.sql = new DisponibilidadeSql(reservaRepo, locacaoRepo);
+    }
+
+    protected IndiceDisponibilidade indice() {
+        return indice;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        long versaoInicial = versao.get();
+        List<PeriodoReserva> periodos = reservaRepo.findAllPeriodos();
+        if (versao.get() != versaoInicial) {
+            log.warn("Reservas alteradas durante a carga do índice; nova tentativa na próxima verificação.");
+            return;
+        }
+        carregarQuantidades();
+        indice.substituir(periodos);
+        carregado = true;
+        aposCarga(periodos.size());
+    }
+
+    protected void aposCarga(int reservas) {
+        log.info("Índice de disponibilidade carregado com {} reservas.", reservas);
+    }
+
+    @Override
+    public boolean possuiConflito(Integer locacaoId, Integer reservaIgnoradaId, LocalDateTime inicio, LocalDateTime fim) {
+        if (!carregado || !indice.cobre(inicio, fim)) {
+            return sql.possuiConflito(locacaoId, reservaIgnoradaId, inicio, fim);
+        }
+        int quantidade = quantidades.getOrDefault(locacaoId, 1);
+        if (quantidade == 1) {
+            return indice.possuiConflito(locacaoId, reservaIgnoradaId, inicio, fim);
+        }
+        List<PeriodoReserva> sobrepostas = indice.sobrepostas(locacaoId, inicio, fim);
+        sobrepostas.removeIf(p -> p.reservaId().equals(reservaIgnoradaId));
+        return OcupacaoSimultanea.maximo(sobrepostas, inicio, fim) >= quantidade;
+    }
+
+    @Override
+    public Page<LocacaoDisponivelDTO> listarDisponiveis(LocalDateTime inicio, LocalDateTime fim, int horas,
+            FiltroDisponibilidade filtro, Pageable pageable) {
+        if (!carregado || !indice.cobre(inicio, fim)) {
+            return sql.listarDisponiveis(inicio, fim, horas, filtro, pageable);
+        }
+        Set<Integer> lotadas = indice.locacoesOcupadas(inicio, fim);
+        // com mais de uma unidade, sobrepor não basta: lotada é ter todas ocupadas ao mesmo tempo
+        lotadas.removeIf(id -> {
+            Integer quantidade = quantidades.get(id);
+            return quantidade != null
+                    && OcupacaoSimultanea.maximo(indice.sobrepostas(id, inicio, fim), inicio, fim) < quantidade;
+        });
+        if (lotadas.isEmpty()) {
+            return locacaoRepo.findAdmitindo(horas, filtro.tipo(), filtro.valorHoraMaximo(horas), pageable);
+        }
+        return locacaoRepo.findAdmitindoExceto(lotadas.toArray(Integer[]::new),
+                horas, filtro.tipo(), filtro.valorHoraMaximo(horas), pageable);
+    }
+
+    // antes do CacheDisponibilidade, que invalida contando com o índice já atualizado
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarReserva(ReservaAlteradaEvent event) {
+        versao.incrementAndGet();
+        if (event.atual() != null) {
+            indice.registrar(event.atual());
+        } else if (event.anterior() != null) {
+            indice.remover(event.anterior().reservaId());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarLocacao(LocacaoAlteradaEvent event) {
+        if (event.emLote()) {
+            carregarQuantidades();
+        } else if (event.atual() != null && event.atual().quantidade() > 1) {
+            quantidades.put(event.locacaoId(), event.atual().quantidade());
+        } else {
+            quantidades.remove(event.locacaoId());
+        }
+    }
+
+    private void carregarQuantidades() {
+        Map<Integer, Integer> banco = new HashMap<>();
+        locacaoRepo.findCapacidadesMultiplas().forEach(c -> banco.put(c.locacaoId(), c.quantidade()));
+        quantidades.keySet().retainAll(banco.keySet());
+        quantidades.putAll(banco);
+    }
+
+    @Scheduled(initialDelayString = "${reservas.disponibilidade.memoria.verificacao-ms:300000}",
+            fixedDelayString = "${reservas.disponibilidade.memoria.verificacao-ms:300000}")
+    public void verificarConsistencia() {
+        long versaoInicial = versao.get();
+        List<PeriodoReserva> banco = reservaRepo.findAllPeriodos();
+        Map<Integer, PeriodoReserva> memoria = indice.snapshot();
+
+        Set<Integer> divergentes = new HashSet<>();
+        for (PeriodoReserva p : banco) {
+            if (!Objects.equals(memoria.remove(p.reservaId()), p)) {
+                divergentes.add(p.reservaId());
+            }
+        }
+        divergentes.addAll(memoria.keySet());
+        carregarQuantidades();
+
+        if (divergentes.isEmpty() && carregado && !indice.expirado()) {
+            return;
+        }
+        if (versao.get() != versaoInicial) {
+            log.info("Reservas alteradas durante a verificação do índice; nova tentativa na próxima execução.");
+            return;
+        }
+        if (!divergentes.isEmpty()) {
+            log.warn("Índice de disponibilidade divergente do banco em {} reservas; recarregando.",
+                    divergentes.size());
+        }
+        indice.substituir(banco);
+        carregado = true;
+        aposCarga(banco.size());
+    }
+}
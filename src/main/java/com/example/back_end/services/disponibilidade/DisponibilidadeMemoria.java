@@ -0,0 +1,16 @@
+package com.example.back_end.services.disponibilidade;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.ReservaRepository;
+
+@Component
+@ConditionalOnProperty(name = DisponibilidadeStrategy.PROPRIEDADE, havingValue = "memoria")
+public class DisponibilidadeMemoria extends DisponibilidadeIndexada {
+
+    public DisponibilidadeMemoria(ReservaRepository reservaRepo, LocacaoRepository locacaoRepo) {
+        super(reservaRepo, locacaoRepo, new IndiceIntervalos());
+    }
+}
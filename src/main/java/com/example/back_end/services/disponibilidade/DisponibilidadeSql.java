@@ -0,0 +1,41 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.LocalDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.ReservaRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@ConditionalOnProperty(name = DisponibilidadeStrategy.PROPRIEDADE, havingValue = "sql", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DisponibilidadeSql implements DisponibilidadeStrategy {
+    private final ReservaRepository reservaRepo;
+    private final LocacaoRepository locacaoRepo;
+
+    @Override
+    public boolean possuiConflito(Integer locacaoId, Integer reservaIgnoradaId, LocalDateTime inicio, LocalDateTime fim) {
+        if (reservaIgnoradaId == null) {
+            return reservaRepo.existsConflito(locacaoId, inicio, fim);
+        }
+        return reservaRepo.existsConflitoIgnorando(locacaoId, reservaIgnoradaId, inicio, fim);
+    }
+
+    @Override
+    public boolean verificarAntesDeCriar() {
+        return false;
+    }
+
+    @Override
+    public Page<LocacaoDisponivelDTO> listarDisponiveis(LocalDateTime inicio, LocalDateTime fim, int horas,
+            FiltroDisponibilidade filtro, Pageable pageable) {
+        return locacaoRepo.findDisponiveis(inicio, fim, horas, filtro.tipo(), filtro.valorHoraMaximo(horas), pageable);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
+
+public interface DisponibilidadeStrategy {
+
+    String PROPRIEDADE = "reservas.disponibilidade.estrategia";
+
+    // true quando o período já tem reservas ativas simultâneas na quantidade da locação;
+    // reservaIgnoradaId == null na criação; na atualização, ignora a própria reserva
+    boolean possuiConflito(Integer locacaoId, Integer reservaIgnoradaId, LocalDateTime inicio, LocalDateTime fim);
+
+    // filtro, ordenação e valorTotal resolvidos na consulta ao banco
+    Page<LocacaoDisponivelDTO> listarDisponiveis(LocalDateTime inicio, LocalDateTime fim, int horas,
+            FiltroDisponibilidade filtro, Pageable pageable);
+
+    // false quando a checagem prévia custaria uma ida ao banco e o gatilho
+    // tg_reservas_capacidade já rejeita a inserção que passa da quantidade
+    default boolean verificarAntesDeCriar() {
+        return true;
+    }
+}
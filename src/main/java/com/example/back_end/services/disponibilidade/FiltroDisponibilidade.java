@@ -0,0 +1,25 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.example.back_end.enums.TiposLocacao;
+
+// critérios opcionais da busca de disponibilidade; null desliga o filtro correspondente
+public record FiltroDisponibilidade(
+        TiposLocacao tipo,
+        BigDecimal precoMax) {
+
+    public static final FiltroDisponibilidade NENHUM = new FiltroDisponibilidade(null, null);
+
+    // valorHora tem duas casas: valorHora * horas <= precoMax equivale a valorHora <= precoMax / horas
+    // truncado em centavos, e a comparação direta com a coluna pode usar o índice de valor_hora
+    public BigDecimal valorHoraMaximo(int horas) {
+        return precoMax == null ? null : precoMax.divide(BigDecimal.valueOf(horas), 2, RoundingMode.FLOOR);
+    }
+
+    public boolean aceita(TiposLocacao tipoLocacao, BigDecimal valorHora, int horas) {
+        return (tipo == null || tipo == tipoLocacao)
+                && (precoMax == null || valorHora.multiply(BigDecimal.valueOf(horas)).compareTo(precoMax) <= 0);
+    }
+}
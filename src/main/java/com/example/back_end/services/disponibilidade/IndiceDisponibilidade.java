@@ -0,0 +1,37 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+
+// respostas exatas sobre as reservas carregadas: sobrepor é ter ao menos uma reserva em [inicio, fim)
+public interface IndiceDisponibilidade {
+
+    void registrar(PeriodoReserva periodo);
+
+    void remover(Integer reservaId);
+
+    void substituir(Collection<PeriodoReserva> periodos);
+
+    boolean possuiConflito(Integer locacaoId, Integer reservaIgnoradaId, LocalDateTime inicio, LocalDateTime fim);
+
+    // reservas da locação que sobrepõem [inicio, fim), em lista nova, para contar as simultâneas
+    List<PeriodoReserva> sobrepostas(Integer locacaoId, LocalDateTime inicio, LocalDateTime fim);
+
+    Set<Integer> locacoesOcupadas(LocalDateTime inicio, LocalDateTime fim);
+
+    Map<Integer, PeriodoReserva> snapshot();
+
+    // índices com horizonte limitado respondem false fora dele e a consulta vai ao banco
+    default boolean cobre(LocalDateTime inicio, LocalDateTime fim) {
+        return true;
+    }
+
+    default boolean expirado() {
+        return false;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+
+/**
+ * Índice em memória das reservas por locação, ordenado pelo início (data e hora).
+ * Cada locação guarda a maior duração já vista, o que limita a busca de
+ * sobreposição às reservas que começam em (inicio - maiorDuracao, fim).
+ */
+public class IndiceIntervalos implements IndiceDisponibilidade {
+
+    private final Map<Integer, IntervalosLocacao> porLocacao = new HashMap<>();
+    private final Map<Integer, PeriodoReserva> porReserva = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void registrar(PeriodoReserva periodo) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(periodo.reservaId());
+            porReserva.put(periodo.reservaId(), periodo);
+            porLocacao.computeIfAbsent(periodo.locacaoId(), id -> new IntervalosLocacao()).adicionar(periodo);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remover(Integer reservaId) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(reservaId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void substituir(Collection<PeriodoReserva> periodos) {
+        lock.writeLock().lock();
+        try {
+            porLocacao.clear();
+            porReserva.clear();
+            List<PeriodoReserva> ordenados = new ArrayList<>(periodos);
+            ordenados.sort(Comparator.comparing(PeriodoReserva::dataInicio));
+            for (PeriodoReserva p : ordenados) {
+                porReserva.put(p.reservaId(), p);
+                porLocacao.computeIfAbsent(p.locacaoId(), id -> new IntervalosLocacao()).adicionar(p);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean possuiConflito(Integer locacaoId, Integer reservaIgnoradaId, LocalDateTime inicio, LocalDateTime fim) {
+        lock.readLock().lock();
+        try {
+            IntervalosLocacao intervalos = porLocacao.get(locacaoId);
+            return intervalos != null && intervalos.possuiConflito(reservaIgnoradaId, inicio, fim);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<PeriodoReserva> sobrepostas(Integer locacaoId, LocalDateTime inicio, LocalDateTime fim) {
+        lock.readLock().lock();
+        try {
+            List<PeriodoReserva> sobrepostas = new ArrayList<>();
+            IntervalosLocacao intervalos = porLocacao.get(locacaoId);
+            if (intervalos != null) {
+                intervalos.sobrepostas(inicio, fim, id -> sobrepostas.add(porReserva.get(id)));
+            }
+            return sobrepostas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Integer> locacoesOcupadas(LocalDateTime inicio, LocalDateTime fim) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> ocupadas = new HashSet<>();
+            porLocacao.forEach((locacaoId, intervalos) -> {
+                if (intervalos.possuiConflito(null, inicio, fim)) {
+                    ocupadas.add(locacaoId);
+                }
+            });
+            return ocupadas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, PeriodoReserva> snapshot() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(porReserva);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return porReserva.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removerSemLock(Integer reservaId) {
+        PeriodoReserva anterior = porReserva.remove(reservaId);
+        if (anterior == null) {
+            return;
+        }
+        IntervalosLocacao intervalos = porLocacao.get(anterior.locacaoId());
+        if (intervalos != null && intervalos.remover(anterior)) {
+            porLocacao.remove(anterior.locacaoId());
+        }
+    }
+
+    // minutos desde a época: o início arredonda para baixo e o fim para cima, então o índice
+    // nunca perde um conflito; como o banco só guarda horas cheias (V8), também não inventa.
+    // Em long, para qualquer LocalDateTime que a busca aceite.
+    private static long minutoInicio(LocalDateTime instante) {
+        return Math.floorDiv(instante.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static long minutoFim(LocalDateTime instante) {
+        return -Math.floorDiv(-instante.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    // início, fim e id em arrays paralelos ordenados pelo início: a busca binária percorre memória
+    // contígua, sem os nós de árvore que deixavam a consulta lenta com milhares de reservas por hora
+    private static class IntervalosLocacao {
+        private long[] inicios = new long[4];
+        private long[] fins = new long[4];
+        private int[] ids = new int[4];
+        private int tamanho;
+        private long maiorDuracao;
+
+        void adicionar(PeriodoReserva p) {
+            long inicio = minutoInicio(p.dataInicio());
+            long fim = minutoFim(p.dataFim());
+            // carga em ordem de início só acrescenta no final
+            int i = tamanho == 0 || inicios[tamanho - 1] <= inicio ? tamanho : primeiro(inicio + 1);
+            if (tamanho == ids.length) {
+                inicios = Arrays.copyOf(inicios, tamanho * 2);
+                fins = Arrays.copyOf(fins, tamanho * 2);
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            System.arraycopy(inicios, i, inicios, i + 1, tamanho - i);
+            System.arraycopy(fins, i, fins, i + 1, tamanho - i);
+            System.arraycopy(ids, i, ids, i + 1, tamanho - i);
+            inicios[i] = inicio;
+            fins[i] = fim;
+            ids[i] = p.reservaId();
+            tamanho++;
+            maiorDuracao = Math.max(maiorDuracao, fim - inicio);
+        }
+
+        // retorna true quando a locação ficou sem reservas
+        boolean remover(PeriodoReserva p) {
+            long inicio = minutoInicio(p.dataInicio());
+            for (int i = primeiro(inicio); i < tamanho && inicios[i] == inicio; i++) {
+                if (ids[i] == p.reservaId()) {
+                    System.arraycopy(inicios, i + 1, inicios, i, tamanho - i - 1);
+                    System.arraycopy(fins, i + 1, fins, i, tamanho - i - 1);
+                    System.arraycopy(ids, i + 1, ids, i, tamanho - i - 1);
+                    tamanho--;
+                    break;
+                }
+            }
+            return tamanho == 0;
+        }
+
+        boolean possuiConflito(Integer reservaIgnoradaId, LocalDateTime inicio, LocalDateTime fim) {
+            long de = minutoInicio(inicio);
+            long ate = minutoFim(fim);
+            // quem começa até de - maiorDuracao termina antes de 'inicio'
+            for (int i = primeiro(de - maiorDuracao + 1); i < tamanho && inicios[i] < ate; i++) {
+                if (fins[i] > de && (reservaIgnoradaId == null || ids[i] != reservaIgnoradaId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void sobrepostas(LocalDateTime inicio, LocalDateTime fim, IntConsumer destino) {
+            long de = minutoInicio(inicio);
+            long ate = minutoFim(fim);
+            for (int i = primeiro(de - maiorDuracao + 1); i < tamanho && inicios[i] < ate; i++) {
+                if (fins[i] > de) {
+                    destino.accept(ids[i]);
+                }
+            }
+        }
+
+        // primeira posição com início >= chave
+        private int primeiro(long chave) {
+            int de = 0;
+            int ate = tamanho;
+            while (de < ate) {
+                int meio = (de + ate) >>> 1;
+                if (inicios[meio] < chave) {
+                    de = meio + 1;
+                } else {
+                    ate = meio;
+                }
+            }
+            return de;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.math.BigDecimal;
+
+import com.example.back_end.entities.LocacaoEntity;
+import com.example.back_end.enums.TiposLocacao;
+
+// anterior == null na criação e atual == null na exclusão; ambos nulos (e locacaoId também)
+// em cargas em lote, quando não há como dizer quais buscas foram afetadas
+public record LocacaoAlteradaEvent(
+        Integer locacaoId,
+        Perfil anterior,
+        Perfil atual) {
+
+    // o que decide se a locação entra no resultado de uma busca de disponibilidade
+    public record Perfil(TiposLocacao tipo, BigDecimal valorHora, int tempoMinimo, int tempoMaximo, int quantidade) {
+
+        public static Perfil de(LocacaoEntity locacao) {
+            return new Perfil(locacao.getTipo(), locacao.getValorHora(),
+                    locacao.getTempoMinimo(), locacao.getTempoMaximo(), locacao.getQuantidade());
+        }
+
+        public boolean admite(int horas, FiltroDisponibilidade filtro) {
+            return tempoMinimo <= horas && horas <= tempoMaximo && filtro.aceita(tipo, valorHora, horas);
+        }
+    }
+
+    public static LocacaoAlteradaEvent criada(Integer locacaoId, Perfil atual) {
+        return new LocacaoAlteradaEvent(locacaoId, null, atual);
+    }
+
+    public static LocacaoAlteradaEvent alterada(Integer locacaoId, Perfil anterior, Perfil atual) {
+        return new LocacaoAlteradaEvent(locacaoId, anterior, atual);
+    }
+
+    public static LocacaoAlteradaEvent removida(Integer locacaoId, Perfil anterior) {
+        return new LocacaoAlteradaEvent(locacaoId, anterior, null);
+    }
+
+    public static LocacaoAlteradaEvent carga() {
+        return new LocacaoAlteradaEvent(null, null, null);
+    }
+
+    public boolean emLote() {
+        return anterior == null && atual == null;
+    }
+}
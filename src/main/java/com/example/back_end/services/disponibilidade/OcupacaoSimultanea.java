@@ -0,0 +1,86 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+
+/**
+ * Varreduras em memória sobre reservas ativas de uma locação, no mesmo critério da função
+ * reservas_simultaneas do banco: cada reserva é um evento de início (+1) e um de fim (-1),
+ * e no mesmo instante o fim vem antes do início, pois o fim é exclusivo. Uma locação com
+ * quantidade unidades está livre em um período enquanto o máximo simultâneo for menor.
+ */
+public final class OcupacaoSimultanea {
+
+    private OcupacaoSimultanea() {
+    }
+
+    // máximo de reservas ao mesmo tempo em [inicio, fim), em O(n log n) sobre as que sobrepõem
+    public static int maximo(Collection<PeriodoReserva> periodos, LocalDateTime inicio, LocalDateTime fim) {
+        List<LocalDateTime> inicios = new ArrayList<>();
+        List<LocalDateTime> fins = new ArrayList<>();
+        for (PeriodoReserva p : periodos) {
+            if (p.sobrepoe(inicio, fim)) {
+                inicios.add(p.dataInicio().isBefore(inicio) ? inicio : p.dataInicio());
+                fins.add(p.dataFim().isAfter(fim) ? fim : p.dataFim());
+            }
+        }
+        Collections.sort(inicios);
+        Collections.sort(fins);
+
+        int atual = 0;
+        int maximo = 0;
+        for (int i = 0, f = 0; i < inicios.size(); ) {
+            if (!fins.get(f).isAfter(inicios.get(i))) {
+                atual--;
+                f++;
+            } else {
+                maximo = Math.max(maximo, ++atual);
+                i++;
+            }
+        }
+        return maximo;
+    }
+
+    // reservas em ordem de início: o primeiro instante a partir de 'aPartirDe' que abre 'duracao'
+    // seguida com menos de 'quantidade' reservas simultâneas. Para ao achar, sem ler o restante.
+    public static LocalDateTime primeiraLacuna(Iterator<PeriodoReserva> reservas, LocalDateTime aPartirDe,
+            Duration duracao, int quantidade) {
+        PriorityQueue<LocalDateTime> abertas = new PriorityQueue<>();
+        LocalDateTime livreDesde = aPartirDe;
+        PeriodoReserva proxima = reservas.hasNext() ? reservas.next() : null;
+        while (proxima != null) {
+            LocalDateTime inicio = proxima.dataInicio().isBefore(aPartirDe) ? aPartirDe : proxima.dataInicio();
+            if (!abertas.isEmpty() && !abertas.peek().isAfter(inicio)) {
+                LocalDateTime fim = abertas.poll();
+                if (livreDesde == null && abertas.size() < quantidade) {
+                    livreDesde = fim;
+                }
+                continue;
+            }
+            if (livreDesde != null && !inicio.isBefore(livreDesde.plus(duracao))) {
+                return livreDesde;
+            }
+            abertas.add(proxima.dataFim());
+            if (abertas.size() >= quantidade) {
+                livreDesde = null;
+            }
+            proxima = reservas.hasNext() ? reservas.next() : null;
+        }
+        // sem novos inícios, a lotação só cai: basta esperar os fins necessários
+        while (livreDesde == null) {
+            LocalDateTime fim = abertas.poll();
+            if (abertas.size() < quantidade) {
+                livreDesde = fim;
+            }
+        }
+        return livreDesde;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+
+// anterior/atual == null quando a reserva não ocupava/deixou de ocupar o período
+// (criação, exclusão ou situação CANCELADA/CONCLUIDA)
+public record ReservaAlteradaEvent(
+        PeriodoReserva anterior,
+        PeriodoReserva atual) {
+
+    public static ReservaAlteradaEvent criada(PeriodoReserva atual) {
+        return new ReservaAlteradaEvent(null, atual);
+    }
+
+    public static ReservaAlteradaEvent alterada(PeriodoReserva anterior, PeriodoReserva atual) {
+        return new ReservaAlteradaEvent(anterior, atual);
+    }
+
+    public static ReservaAlteradaEvent removida(PeriodoReserva anterior) {
+        return new ReservaAlteradaEvent(anterior, null);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Serializa escritas de reservas por locação quando reservas.criacao.bloqueio=advisory.
+ * Dentro da JVM, uma listra de ReentrantLock evita que várias conexões fiquem
+ * presas no mesmo lock do banco; entre instâncias, pg_advisory_xact_lock garante
+ * a exclusão até o fim da transação. Locações diferentes seguem em paralelo.
+ * Quem trava mais de uma locação pega listras e locks do banco em ordem crescente.
+ */
+@Component
+public class SerializadorReservas {
+
+    // primeira chave do pg_advisory_xact_lock(int, int), separa estes locks de outros usos
+    private static final int NAMESPACE_RESERVAS = 1;
+
+    private final boolean advisory;
+    private final ReentrantLock[] listras;
+    private final TransactionTemplate tx;
+    private final JdbcTemplate jdbc;
+
+    public SerializadorReservas(
+            @Value("${reservas.criacao.bloqueio:nenhum}") String modo,
+            @Value("${reservas.criacao.listras-bloqueio:64}") int listras,
+            PlatformTransactionManager txManager,
+            JdbcTemplate jdbc) {
+        if (!"nenhum".equals(modo) && !"advisory".equals(modo)) {
+            throw new IllegalStateException("reservas.criacao.bloqueio deve ser 'nenhum' ou 'advisory'.");
+        }
+        this.advisory = "advisory".equals(modo);
+        this.listras = new ReentrantLock[listras];
+        for (int i = 0; i < listras; i++) {
+            this.listras[i] = new ReentrantLock();
+        }
+        this.tx = new TransactionTemplate(txManager);
+        this.jdbc = jdbc;
+    }
+
+    public <T> T executar(Integer locacaoId, Supplier<T> acao) {
+        return executarEmTodas(List.of(locacaoId), acao);
+    }
+
+    // a locação de antes e a de depois quando uma reserva muda de locação; a ordem fixa evita
+    // que duas escritas cruzadas (A -> B e B -> A) esperem uma pela outra
+    public <T> T executarEmTodas(Collection<Integer> locacoes, Supplier<T> acao) {
+        if (!advisory) {
+            return acao.get();
+        }
+        int[] ids = locacoes.stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+        int[] indices = Arrays.stream(ids).map(id -> Math.floorMod(id, listras.length)).distinct().sorted().toArray();
+        int travadas = 0;
+        try {
+            for (int i : indices) {
+                listras[i].lock();
+                travadas++;
+            }
+            return tx.execute(status -> {
+                for (int id : ids) {
+                    jdbc.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null, NAMESPACE_RESERVAS, id);
+                }
+                return acao.get();
+            });
+        } finally {
+            for (int i = travadas - 1; i >= 0; i--) {
+                listras[indices[i]].unlock();
+            }
+        }
+    }
+}
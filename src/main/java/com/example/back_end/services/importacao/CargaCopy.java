@@ -0,0 +1,62 @@
+package com.example.back_end.services.importacao;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Envia linhas ao PostgreSQL com COPY ... FROM STDIN (FORMAT csv), usando a conexão da
+ * transação corrente. Tabela e colunas vêm sempre de constantes do chamador.
+ */
+@Component
+@RequiredArgsConstructor
+public class CargaCopy {
+    private final JdbcTemplate jdbc;
+
+    public long copiar(String tabela, List<String> colunas, List<Object[]> linhas) {
+        if (linhas.isEmpty()) {
+            return 0;
+        }
+        StringBuilder csv = new StringBuilder(linhas.size() * 64);
+        for (Object[] linha : linhas) {
+            for (int i = 0; i < linha.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                // campo vazio sem aspas é NULL no COPY csv; com aspas é string vazia
+                if (linha[i] != null) {
+                    csv.append('"').append(texto(linha[i]).replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append('\n');
+        }
+        String comando = "COPY " + tabela + " (" + String.join(", ", colunas) + ") FROM STDIN WITH (FORMAT csv)";
+        Long copiadas = jdbc.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyIn(comando, new StringReader(csv.toString()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return copiadas == null ? 0 : copiadas;
+    }
+
+    private static String texto(Object valor) {
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (valor instanceof Enum<?> constante) {
+            return constante.name();
+        }
+        return valor.toString();
+    }
+}
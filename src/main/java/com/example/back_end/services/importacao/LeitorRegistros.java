@@ -0,0 +1,100 @@
+package com.example.back_end.services.importacao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lê registros de um corpo de requisição sem carregá-lo inteiro: aceita um array JSON,
+ * NDJSON (um objeto por linha) ou CSV com cabeçalho. Cada elemento é convertido
+ * isoladamente, então um campo inválido rejeita só o seu registro; conteúdo malformado
+ * interrompe a leitura.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeitorRegistros {
+    public static final String TEXT_CSV = "text/csv";
+
+    private static final CsvMapper CSV = new CsvMapper();
+
+    private final ObjectMapper objectMapper;
+
+    public <T> int ler(InputStream corpo, MediaType formato, Class<T> tipo, int maximo,
+            Consumer<Registro<T>> destino) {
+        if (formato != null && formato.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))) {
+            return lerCsv(corpo, tipo, maximo, destino);
+        }
+        return lerJson(corpo, tipo, maximo, destino);
+    }
+
+    public <T> int lerJson(InputStream corpo, Class<T> tipo, int maximo, Consumer<Registro<T>> destino) {
+        int linha = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(corpo)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (++linha > maximo) {
+                    throw new IllegalArgumentException("O lote excede o limite de " + maximo + " registros.");
+                }
+                JsonNode no = objectMapper.readTree(parser);
+                destino.accept(converter(no, tipo, linha));
+                token = parser.nextToken();
+            }
+        } catch (JsonParseException ex) {
+            throw new IllegalArgumentException("JSON malformado após o registro " + linha + ".");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return linha;
+    }
+
+    // nomes das colunas = nomes das propriedades do DTO; célula vazia vale null
+    public <T> int lerCsv(InputStream corpo, Class<T> tipo, int maximo, Consumer<Registro<T>> destino) {
+        int linha = 0;
+        try (MappingIterator<Map<String, String>> linhas = CSV.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(corpo)) {
+            while (linhas.hasNextValue()) {
+                if (++linha > maximo) {
+                    throw new IllegalArgumentException("O lote excede o limite de " + maximo + " registros.");
+                }
+                Map<String, String> colunas = linhas.nextValue();
+                colunas.values().removeIf(String::isEmpty);
+                destino.accept(converter(objectMapper.valueToTree(colunas), tipo, linha));
+            }
+        } catch (JsonProcessingException | RuntimeJsonMappingException ex) {
+            throw new IllegalArgumentException("CSV malformado após o registro " + linha + ".");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return linha;
+    }
+
+    private <T> Registro<T> converter(JsonNode no, Class<T> tipo, int linha) {
+        try {
+            return new Registro<>(linha, objectMapper.treeToValue(no, tipo), null);
+        } catch (JsonProcessingException ex) {
+            return new Registro<>(linha, null, "Registro inválido: " + ex.getOriginalMessage());
+        }
+    }
+}
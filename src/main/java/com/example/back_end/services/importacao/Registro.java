@@ -0,0 +1,12 @@
+package com.example.back_end.services.importacao;
+
+// linha é 1-based; erro != null quando o registro não pôde ser convertido
+public record Registro<T>(
+        int linha,
+        T valor,
+        String erro) {
+
+    public boolean valido() {
+        return erro == null;
+    }
+}
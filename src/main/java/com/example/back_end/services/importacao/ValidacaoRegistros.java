@@ -0,0 +1,24 @@
+package com.example.back_end.services.importacao;
+
+import java.util.stream.Collectors;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+public final class ValidacaoRegistros {
+
+    private ValidacaoRegistros() {
+    }
+
+    // mensagens das restrições do DTO em uma única frase; null quando o registro é válido
+    public static String violacoes(Validator validator, Object registro) {
+        var violacoes = validator.validate(registro);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+}
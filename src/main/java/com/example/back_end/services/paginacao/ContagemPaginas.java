@@ -0,0 +1,46 @@
+package com.example.back_end.services.paginacao;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.back_end.enums.ModoTotal;
+
+import lombok.RequiredArgsConstructor;
+
+// Completa uma fatia (Slice, sem count) com o total pedido: nenhum, estimado pelo planner ou exato.
+@Component
+@RequiredArgsConstructor
+public class ContagemPaginas {
+    private final JdbcTemplate jdbc;
+
+    public <T> ResultadoPaginado<T> completar(ModoTotal modo, Slice<T> fatia, String tabela,
+            LongSupplier contagemExata) {
+        if (modo == ModoTotal.NONE) {
+            return new ResultadoPaginado<>(fatia, modo, 0);
+        }
+
+        long inicio = System.nanoTime();
+        long total = modo == ModoTotal.EXACT ? contagemExata.getAsLong() : estimar(tabela);
+        long nanos = System.nanoTime() - inicio;
+
+        // a estimativa pode ficar abaixo do que já se sabe existir
+        Pageable pageable = fatia.getPageable();
+        long minimo = (pageable.isPaged() ? pageable.getOffset() : 0)
+                + fatia.getNumberOfElements() + (fatia.hasNext() ? 1 : 0);
+        return new ResultadoPaginado<>(
+                new PageImpl<>(fatia.getContent(), pageable, Math.max(total, minimo)), modo, nanos);
+    }
+
+    // reltuples vale -1 em tabelas ainda não analisadas
+    private long estimar(String tabela) {
+        List<Long> linhas = jdbc.queryForList(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, tabela);
+        return linhas.isEmpty() || linhas.get(0) == null ? -1 : linhas.get(0);
+    }
+}
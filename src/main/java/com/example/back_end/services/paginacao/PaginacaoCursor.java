@@ -0,0 +1,44 @@
+package com.example.back_end.services.paginacao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
+
+// Paginação por chave (id > último id visto); o cursor é o último id codificado em Base64 URL.
+public final class PaginacaoCursor {
+
+    private PaginacaoCursor() {
+    }
+
+    public static int ultimoId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String decodificado = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int id = Integer.parseInt(decodificado);
+            if (id < 0) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+            return id;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor inválido.");
+        }
+    }
+
+    public static String cursor(int ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Integer.toString(ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // itens deve conter até tamanho + 1 elementos; o excedente indica que há próxima página
+    public static <T> CursorPageDTO<T> pagina(List<T> itens, int tamanho, Function<T, Integer> id) {
+        boolean temProximo = itens.size() > tamanho;
+        List<T> conteudo = temProximo ? itens.subList(0, tamanho) : itens;
+        String proximo = temProximo ? cursor(id.apply(conteudo.get(conteudo.size() - 1))) : null;
+        return new CursorPageDTO<>(conteudo, tamanho, temProximo, proximo);
+    }
+}
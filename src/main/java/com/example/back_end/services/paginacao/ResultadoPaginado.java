@@ -0,0 +1,32 @@
+package com.example.back_end.services.paginacao;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+
+import com.example.back_end.enums.ModoTotal;
+
+// pagina é um Page quando modo != NONE
+public record ResultadoPaginado<T>(
+        Slice<T> pagina,
+        ModoTotal modo,
+        long nanosContagem) {
+
+    public static final String HEADER_MODO = "X-Total-Mode";
+    public static final String HEADER_TEMPO = "X-Count-Time-Ms";
+
+    public <R> ResultadoPaginado<R> map(Function<? super T, ? extends R> conversor) {
+        return new ResultadoPaginado<>(pagina.map(conversor), modo, nanosContagem);
+    }
+
+    public HttpHeaders cabecalhos() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HEADER_MODO, modo.valor());
+        headers.add(HEADER_TEMPO, String.format(Locale.ROOT, "%.3f",
+                nanosContagem / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+        return headers;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.back_end.services.preco;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.back_end.enums.TiposLocacao;
+import com.example.back_end.repositories.RegraPrecoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Preço de reservas a partir de valorHora e das regras ativas (fim de semana, temporada,
+ * longa estadia). Cada locação tem sua tabela de diárias em somas de prefixo, montada na
+ * primeira cotação do dia e refeita só para as locações alcançadas por uma regra alterada
+ * ou quando o tipo ou o valor da hora da locação mudam. Sem regras, o preço é
+ * valorHora × horas, também para períodos que não começam ou terminam à meia-noite.
+ */
+@Component
+public class MotorPrecos {
+
+    private final RegraPrecoRepository regraRepo;
+    private final Clock clock;
+    private final int dias;
+    private final Cache<Integer, TabelaTarifas> tabelas;
+
+    // incrementada a cada troca de regras; tabela montada antes dela não entra no cache
+    private final Object trava = new Object();
+    private volatile long versao;
+    private volatile List<RegraCompilada> regras;
+
+    @Autowired
+    public MotorPrecos(
+            RegraPrecoRepository regraRepo,
+            MeterRegistry registry,
+            @Value("${precos.tabelas.dias:730}") int dias,
+            @Value("${precos.tabelas.maximo:10000}") long maximo) {
+        this(regraRepo, registry, Clock.systemDefaultZone(), dias, maximo);
+    }
+
+    MotorPrecos(RegraPrecoRepository regraRepo, MeterRegistry registry, Clock clock, int dias, long maximo) {
+        this.regraRepo = regraRepo;
+        this.clock = clock;
+        this.dias = dias;
+        this.tabelas = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, tabelas, "tarifas");
+    }
+
+    public BigDecimal valorFinal(Integer locacaoId, TiposLocacao tipo, BigDecimal valorHora,
+            LocalDateTime inicio, LocalDateTime fim) {
+        long centavos = valorFinalCentavos(locacaoId, tipo, valorHora.movePointRight(2).longValueExact(), inicio, fim);
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    public long valorFinalCentavos(Integer locacaoId, TiposLocacao tipo, long valorHoraCentavos,
+            LocalDateTime inicio, LocalDateTime fim) {
+        return tabela(locacaoId, tipo, valorHoraCentavos).valorCentavos(inicio, fim);
+    }
+
+    // se alguma regra ativa pode mudar o preço de uma locação do tipo (null: qualquer) no período;
+    // sem nenhuma, o total é valorHora × horas e a ordem por valorHora é a ordem do total
+    public boolean ajustaPeriodo(TiposLocacao tipo, LocalDateTime inicio, LocalDateTime fim) {
+        return regras().stream().anyMatch(r -> r.podeAbranger(tipo) && r.ajustaPeriodo(inicio, fim));
+    }
+
+    // antes do cache de disponibilidade, que guarda páginas já precificadas
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarRegra(RegraPrecoAlteradaEvent event) {
+        synchronized (trava) {
+            regras = carregarRegras();
+            versao++;
+            tabelas.asMap().entrySet().removeIf(e -> event.abrange(e.getKey(), e.getValue().tipo()));
+        }
+    }
+
+    private TabelaTarifas tabela(Integer locacaoId, TiposLocacao tipo, long valorHoraCentavos) {
+        LocalDate hoje = LocalDate.now(clock);
+        TabelaTarifas tabela = tabelas.getIfPresent(locacaoId);
+        if (tabela != null && tabela.serve(tipo, valorHoraCentavos, hoje)) {
+            return tabela;
+        }
+        long versaoInicial = versao;
+        tabela = TabelaTarifas.compilar(locacaoId, tipo, valorHoraCentavos, regras(), hoje, dias);
+        synchronized (trava) {
+            if (versao == versaoInicial) {
+                tabelas.put(locacaoId, tabela);
+            }
+        }
+        return tabela;
+    }
+
+    private List<RegraCompilada> regras() {
+        List<RegraCompilada> atuais = regras;
+        if (atuais == null) {
+            synchronized (trava) {
+                if (regras == null) {
+                    regras = carregarRegras();
+                }
+                atuais = regras;
+            }
+        }
+        return atuais;
+    }
+
+    private List<RegraCompilada> carregarRegras() {
+        return regraRepo.findByAtivaTrue().stream().map(RegraCompilada::de).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.back_end.services.preco;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.back_end.entities.RegraPrecoEntity;
+import com.example.back_end.enums.TipoRegraPreco;
+import com.example.back_end.enums.TiposLocacao;
+
+// regra ativa já convertida para pontos-base (1% = 100), pronta para montar tabelas
+record RegraCompilada(
+        TipoRegraPreco tipoRegra,
+        Integer locacaoId,
+        TiposLocacao tipoLocacao,
+        int pontosBase,
+        LocalDate dataInicio,
+        LocalDate dataFim,
+        int diasMinimos) {
+
+    static RegraCompilada de(RegraPrecoEntity regra) {
+        return new RegraCompilada(regra.getTipoRegra(), regra.getLocacaoId(), regra.getTipoLocacao(),
+                regra.getPercentual().movePointRight(2).intValueExact(), regra.getDataInicio(), regra.getDataFim(),
+                regra.getDiasMinimos() == null ? 0 : regra.getDiasMinimos());
+    }
+
+    boolean daLocacao() {
+        return locacaoId != null;
+    }
+
+    boolean abrange(Integer locacao, TiposLocacao tipo) {
+        return daLocacao() ? locacaoId.equals(locacao) : tipoLocacao == tipo;
+    }
+
+    boolean vigente(LocalDate dia) {
+        return (dataInicio == null || !dia.isBefore(dataInicio)) && (dataFim == null || dia.isBefore(dataFim));
+    }
+
+    // FIM_DE_SEMANA e TEMPORADA ajustam a diária de cada dia em que valem
+    boolean ajusta(LocalDate dia) {
+        return switch (tipoRegra) {
+            case FIM_DE_SEMANA -> vigente(dia)
+                    && (dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY);
+            case TEMPORADA -> vigente(dia);
+            case LONGA_ESTADIA -> false;
+        };
+    }
+
+    // LONGA_ESTADIA ajusta o total quando a estadia tem os dias mínimos e começa na vigência
+    boolean ajustaEstadia(LocalDate inicio, long dias) {
+        return tipoRegra == TipoRegraPreco.LONGA_ESTADIA && dias >= diasMinimos && vigente(inicio);
+    }
+
+    // a busca ainda não sabe quais locações vêm, então a regra de uma locação vale para qualquer tipo
+    boolean podeAbranger(TiposLocacao tipo) {
+        return daLocacao() || tipo == null || tipoLocacao == tipo;
+    }
+
+    // algum dia de [inicio, fim) ajustado ou, na longa estadia, o total do período
+    boolean ajustaPeriodo(LocalDateTime inicio, LocalDateTime fim) {
+        if (tipoRegra == TipoRegraPreco.LONGA_ESTADIA) {
+            return ajustaEstadia(inicio.toLocalDate(), Duration.between(inicio, fim).toHours() / 24);
+        }
+        for (LocalDate dia = inicio.toLocalDate(); dia.atStartOfDay().isBefore(fim); dia = dia.plusDays(1)) {
+            if (ajusta(dia)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
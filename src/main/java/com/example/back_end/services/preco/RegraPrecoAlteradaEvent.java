@@ -0,0 +1,39 @@
+package com.example.back_end.services.preco;
+
+import com.example.back_end.entities.RegraPrecoEntity;
+import com.example.back_end.enums.TiposLocacao;
+
+// anterior == null na criação e atual == null na exclusão
+public record RegraPrecoAlteradaEvent(
+        Escopo anterior,
+        Escopo atual) {
+
+    // a locação ou o tipo de locação cujas tarifas a regra afeta
+    public record Escopo(Integer locacaoId, TiposLocacao tipoLocacao) {
+
+        public static Escopo de(RegraPrecoEntity regra) {
+            return new Escopo(regra.getLocacaoId(), regra.getTipoLocacao());
+        }
+
+        boolean abrange(Integer locacao, TiposLocacao tipo) {
+            return locacaoId != null ? locacaoId.equals(locacao) : tipoLocacao == tipo;
+        }
+    }
+
+    public static RegraPrecoAlteradaEvent criada(Escopo atual) {
+        return new RegraPrecoAlteradaEvent(null, atual);
+    }
+
+    public static RegraPrecoAlteradaEvent alterada(Escopo anterior, Escopo atual) {
+        return new RegraPrecoAlteradaEvent(anterior, atual);
+    }
+
+    public static RegraPrecoAlteradaEvent removida(Escopo anterior) {
+        return new RegraPrecoAlteradaEvent(anterior, null);
+    }
+
+    boolean abrange(Integer locacaoId, TiposLocacao tipo) {
+        return (anterior != null && anterior.abrange(locacaoId, tipo))
+                || (atual != null && atual.abrange(locacaoId, tipo));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.back_end.services.preco;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.back_end.enums.TipoRegraPreco;
+import com.example.back_end.enums.TiposLocacao;
+
+/**
+ * Diárias de uma locação, em centavos, já com as regras de dia aplicadas, acumuladas em
+ * somas de prefixo sobre [base, base + dias): o valor de um período dentro do horizonte é
+ * uma subtração. Fora do horizonte as diárias são calculadas dia a dia pelas mesmas regras.
+ * Horas avulsas no começo ou no fim do período pagam o valor da hora com as regras do dia.
+ * A regra de longa estadia incide sobre o total e conta só dias completos (24 horas).
+ */
+final class TabelaTarifas {
+
+    private static final long ESCALA = 10_000;
+
+    private final TiposLocacao tipo;
+    private final long valorHoraCentavos;
+    private final LocalDate base;
+    private final List<RegraCompilada> regrasDia;
+    private final List<RegraCompilada> regrasEstadia;
+    private final long[] prefixo;
+
+    private TabelaTarifas(TiposLocacao tipo, long valorHoraCentavos, LocalDate base,
+            List<RegraCompilada> regrasDia, List<RegraCompilada> regrasEstadia, int dias) {
+        this.tipo = tipo;
+        this.valorHoraCentavos = valorHoraCentavos;
+        this.base = base;
+        this.regrasDia = regrasDia;
+        this.regrasEstadia = regrasEstadia;
+        this.prefixo = new long[dias + 1];
+        for (int d = 0; d < dias; d++) {
+            prefixo[d + 1] = prefixo[d] + diaria(base.plusDays(d));
+        }
+    }
+
+    // a regra da própria locação substitui as do tipo com o mesmo tipo de regra
+    static TabelaTarifas compilar(Integer locacaoId, TiposLocacao tipo, long valorHoraCentavos,
+            List<RegraCompilada> regras, LocalDate base, int dias) {
+        List<RegraCompilada> aplicaveis = regras.stream().filter(r -> r.abrange(locacaoId, tipo)).toList();
+        Set<TipoRegraPreco> daLocacao = EnumSet.noneOf(TipoRegraPreco.class);
+        aplicaveis.stream().filter(RegraCompilada::daLocacao).forEach(r -> daLocacao.add(r.tipoRegra()));
+        List<RegraCompilada> efetivas = aplicaveis.stream()
+                .filter(r -> r.daLocacao() || !daLocacao.contains(r.tipoRegra()))
+                .toList();
+
+        return new TabelaTarifas(tipo, valorHoraCentavos, base,
+                efetivas.stream().filter(r -> r.tipoRegra() != TipoRegraPreco.LONGA_ESTADIA).toList(),
+                efetivas.stream().filter(r -> r.tipoRegra() == TipoRegraPreco.LONGA_ESTADIA)
+                        .sorted(Comparator.comparingInt(RegraCompilada::diasMinimos).reversed())
+                        .toList(),
+                dias);
+    }
+
+    boolean serve(TiposLocacao tipoAtual, long valorHoraAtual, LocalDate hoje) {
+        return tipo == tipoAtual && valorHoraCentavos == valorHoraAtual && base.equals(hoje);
+    }
+
+    TiposLocacao tipo() {
+        return tipo;
+    }
+
+    // dias inteiros pelas somas de prefixo; as horas do primeiro e do último dia, quando o
+    // período não começa ou não termina à meia-noite, pelo valor da hora ajustado daquele dia
+    long valorCentavos(LocalDateTime inicio, LocalDateTime fim) {
+        LocalDate primeiroDia = inicio.toLocalDate();
+        LocalDate ultimoDia = fim.toLocalDate();
+        int horasAntes = inicio.getHour();
+        int horasNoUltimo = fim.getHour();
+        long total;
+        if (primeiroDia.equals(ultimoDia)) {
+            total = horas(primeiroDia, horasNoUltimo - horasAntes);
+        } else {
+            total = diarias(horasAntes == 0 ? primeiroDia : primeiroDia.plusDays(1), ultimoDia);
+            if (horasAntes > 0) {
+                total += horas(primeiroDia, 24 - horasAntes);
+            }
+            if (horasNoUltimo > 0) {
+                total += horas(ultimoDia, horasNoUltimo);
+            }
+        }
+
+        long dias = Duration.between(inicio, fim).toHours() / 24;
+        for (RegraCompilada regra : regrasEstadia) {
+            if (regra.ajustaEstadia(primeiroDia, dias)) {
+                return ajustar(total, regra.pontosBase());
+            }
+        }
+        return total;
+    }
+
+    private long diarias(LocalDate inicio, LocalDate fim) {
+        long de = ChronoUnit.DAYS.between(base, inicio);
+        long ate = ChronoUnit.DAYS.between(base, fim);
+        if (de >= 0 && ate < prefixo.length) {
+            return prefixo[(int) ate] - prefixo[(int) de];
+        }
+        long total = 0;
+        for (LocalDate dia = inicio; dia.isBefore(fim); dia = dia.plusDays(1)) {
+            total += diaria(dia);
+        }
+        return total;
+    }
+
+    private long diaria(LocalDate dia) {
+        return horas(dia, 24);
+    }
+
+    private long horas(LocalDate dia, int horas) {
+        int pontosBase = 0;
+        for (RegraCompilada regra : regrasDia) {
+            if (regra.ajusta(dia)) {
+                pontosBase += regra.pontosBase();
+            }
+        }
+        return ajustar(Math.multiplyExact(valorHoraCentavos, (long) horas), pontosBase);
+    }
+
+    // arredondamento HALF_UP em centavos; sem ajuste o valor volta inalterado
+    private static long ajustar(long centavos, int pontosBase) {
+        if (pontosBase == 0) {
+            return centavos;
+        }
+        long fator = Math.max(0, ESCALA + pontosBase);
+        return (Math.multiplyExact(centavos, fator) + ESCALA / 2) / ESCALA;
+    }
+}
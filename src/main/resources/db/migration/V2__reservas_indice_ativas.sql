@@ -0,0 +1,9 @@
+BEGIN;
+
+-- Apenas reservas PENDENTE/CONFIRMADA bloqueiam o período; o predicado precisa
+-- coincidir com o usado nas consultas de conflito e disponibilidade.
+CREATE INDEX ix_reservas_ativas_periodo
+    ON public.reservas (locacao_id, data_inicio, data_fim)
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+
+COMMIT;
@@ -0,0 +1,15 @@
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE public.reservas
+    ADD COLUMN periodo DATERANGE GENERATED ALWAYS AS (daterange(data_inicio, data_fim, '[)')) STORED;
+
+-- Garante no banco que reservas ativas da mesma locação não se sobrepõem.
+-- O índice GiST criado pela restrição também atende às consultas de sobreposição.
+ALTER TABLE public.reservas
+    ADD CONSTRAINT ex_reservas_locacao_periodo
+    EXCLUDE USING gist (locacao_id WITH =, periodo WITH &&)
+    WHERE (situacao IN ('PENDENTE', 'CONFIRMADA'));
+
+COMMIT;
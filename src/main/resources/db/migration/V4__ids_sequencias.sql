@@ -0,0 +1,26 @@
+BEGIN;
+
+-- IDENTITY obriga o Hibernate a inserir linha a linha para ler o id gerado.
+-- Com sequências de incremento 50 (allocationSize das entidades) o otimizador
+-- pooled reserva blocos de ids e os INSERTs podem ir em lote.
+-- O DEFAULT continua existindo para inserções feitas direto em SQL.
+
+ALTER TABLE public.clientes ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE public.clientes_id_seq INCREMENT BY 50 OWNED BY public.clientes.id;
+ALTER TABLE public.clientes ALTER COLUMN id SET DEFAULT nextval('public.clientes_id_seq');
+
+ALTER TABLE public.locacoes ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE public.locacoes_id_seq INCREMENT BY 50 OWNED BY public.locacoes.id;
+ALTER TABLE public.locacoes ALTER COLUMN id SET DEFAULT nextval('public.locacoes_id_seq');
+
+ALTER TABLE public.reservas ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE public.reservas_id_seq INCREMENT BY 50 OWNED BY public.reservas.id;
+ALTER TABLE public.reservas ALTER COLUMN id SET DEFAULT nextval('public.reservas_id_seq');
+
+-- O pooled trata o valor obtido como o topo do bloco (valor - 49 .. valor);
+-- o primeiro nextval precisa ficar 50 acima do maior id existente.
+SELECT setval('public.clientes_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM public.clientes;
+SELECT setval('public.locacoes_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM public.locacoes;
+SELECT setval('public.reservas_id_seq', COALESCE(MAX(id), 0) + 50, false) FROM public.reservas;
+
+COMMIT;
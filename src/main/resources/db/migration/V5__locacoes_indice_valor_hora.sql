@@ -0,0 +1,11 @@
+BEGIN;
+
+-- Busca de disponibilidade com preço máximo e ordenação por valor: o total do período é
+-- valor_hora * horas, então filtro e ordem são feitos sobre valor_hora.
+CREATE INDEX ix_locacoes_valor_hora
+    ON public.locacoes (valor_hora, id);
+
+CREATE INDEX ix_locacoes_tipo_valor_hora
+    ON public.locacoes (tipo, valor_hora, id);
+
+COMMIT;
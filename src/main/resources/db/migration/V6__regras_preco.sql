@@ -0,0 +1,33 @@
+BEGIN;
+
+-- Ajustes percentuais sobre valor_hora * horas. Cada regra vale para uma locação ou para
+-- um tipo de locação; a regra da locação substitui as do tipo com o mesmo tipo_regra.
+-- FIM_DE_SEMANA e TEMPORADA ajustam diárias; LONGA_ESTADIA ajusta o total da estadia.
+CREATE TABLE public.regras_preco (
+    id              INT             PRIMARY KEY,
+    nome            VARCHAR(50)     NOT NULL,
+    tipo_regra      VARCHAR(20)     NOT NULL,
+    locacao_id      INT,
+    tipo_locacao    VARCHAR(20),
+    percentual      NUMERIC(5, 2)   NOT NULL,
+    data_inicio     DATE,
+    data_fim        DATE,
+    dias_minimos    INT,
+    ativa           BOOLEAN         NOT NULL DEFAULT TRUE,
+    data_criacao    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT ck_regras_preco_tipo_enum CHECK (tipo_regra IN ('FIM_DE_SEMANA', 'TEMPORADA', 'LONGA_ESTADIA')),
+    CONSTRAINT ck_regras_preco_tipo_locacao_enum CHECK (tipo_locacao IN ('RESIDENCIAL', 'NAO_RESIDENCIAL', 'TEMPORADA')),
+    CONSTRAINT ck_regras_preco_escopo CHECK ((locacao_id IS NULL) <> (tipo_locacao IS NULL)),
+    CONSTRAINT ck_regras_preco_percentual CHECK (percentual >= -100 AND percentual <= 500),
+    CONSTRAINT ck_regras_preco_periodo CHECK (data_inicio IS NULL OR data_fim IS NULL OR data_fim > data_inicio),
+    CONSTRAINT ck_regras_preco_temporada CHECK (tipo_regra <> 'TEMPORADA' OR (data_inicio IS NOT NULL AND data_fim IS NOT NULL)),
+    CONSTRAINT ck_regras_preco_longa_estadia CHECK (tipo_regra <> 'LONGA_ESTADIA' OR dias_minimos > 0),
+    CONSTRAINT fk_regras_preco_locacao FOREIGN KEY (locacao_id) REFERENCES public.locacoes(id) ON DELETE CASCADE
+);
+
+CREATE SEQUENCE public.regras_preco_id_seq INCREMENT BY 50 OWNED BY public.regras_preco.id;
+ALTER TABLE public.regras_preco ALTER COLUMN id SET DEFAULT nextval('public.regras_preco_id_seq');
+SELECT setval('public.regras_preco_id_seq', 50, false);
+
+COMMIT;
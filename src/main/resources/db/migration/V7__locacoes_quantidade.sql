@@ -0,0 +1,69 @@
+BEGIN;
+
+-- Locações com várias unidades idênticas: reservas ativas podem se sobrepor enquanto
+-- o número simultâneo no período não passar de quantidade.
+ALTER TABLE public.locacoes
+    ADD COLUMN quantidade INTEGER NOT NULL DEFAULT 1,
+    ADD CONSTRAINT ck_locacoes_quantidade CHECK (quantidade > 0);
+
+-- A exclusão de sobreposição só vale para quantidade = 1. O índice GiST que vinha com ela
+-- continua atendendo às consultas de sobreposição.
+ALTER TABLE public.reservas DROP CONSTRAINT ex_reservas_locacao_periodo;
+
+CREATE INDEX ix_reservas_ativas_locacao_periodo
+    ON public.reservas USING gist (locacao_id, periodo)
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+
+-- Máximo de reservas ativas simultâneas da locação em [p_inicio, p_fim): varredura dos
+-- eventos de início (+1) e fim (-1) recortados à janela, em ordem; no mesmo dia o fim vem
+-- antes do início, pois o fim é exclusivo. Nenhuma linha sai do banco.
+CREATE FUNCTION public.reservas_simultaneas(
+        p_locacao_id INTEGER, p_inicio DATE, p_fim DATE, p_ignorar_id INTEGER DEFAULT NULL)
+    RETURNS INTEGER
+    LANGUAGE sql STABLE
+AS $$
+    SELECT COALESCE(MAX(simultaneas), 0)::INTEGER
+    FROM (
+        SELECT SUM(e.delta) OVER (ORDER BY e.dia, e.delta ROWS UNBOUNDED PRECEDING) AS simultaneas
+        FROM public.reservas r
+        CROSS JOIN LATERAL (VALUES (GREATEST(r.data_inicio, p_inicio), 1),
+                                   (LEAST(r.data_fim, p_fim), -1)) AS e(dia, delta)
+        WHERE r.locacao_id = p_locacao_id
+          AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+          AND r.periodo && daterange(p_inicio, p_fim, '[)')
+          AND r.id IS DISTINCT FROM p_ignorar_id
+    ) AS varredura
+$$;
+
+-- Substitui a exclusão: a linha da locação é travada antes da contagem, então escritas
+-- concorrentes na mesma locação esperam e contam a reserva já gravada.
+CREATE FUNCTION public.reservas_verificar_capacidade()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_quantidade INTEGER;
+BEGIN
+    IF NEW.situacao NOT IN ('PENDENTE', 'CONFIRMADA') THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT quantidade INTO v_quantidade
+    FROM public.locacoes
+    WHERE id = NEW.locacao_id
+    FOR NO KEY UPDATE;
+
+    IF public.reservas_simultaneas(NEW.locacao_id, NEW.data_inicio, NEW.data_fim) > v_quantidade THEN
+        RAISE EXCEPTION 'tg_reservas_capacidade: locação % sem unidade livre em [%, %)',
+                NEW.locacao_id, NEW.data_inicio, NEW.data_fim
+            USING ERRCODE = 'exclusion_violation';
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER tg_reservas_capacidade
+    AFTER INSERT OR UPDATE OF locacao_id, data_inicio, data_fim, situacao ON public.reservas
+    FOR EACH ROW EXECUTE FUNCTION public.reservas_verificar_capacidade();
+
+COMMIT;
@@ -0,0 +1,135 @@
+BEGIN;
+
+-- Reservas por hora: o período passa a ser data_hora_inicio/data_hora_fim (TIMESTAMP). As
+-- reservas existentes começam e terminam à meia-noite das datas que já tinham.
+--
+-- data_inicio, data_fim e periodo continuam na tabela, mantidos pelo gatilho
+-- tg_reservas_datas (início arredondado para baixo, fim para cima, no dia). Nenhum dado é
+-- descartado, mas a migração tem custo proporcional à tabela: o UPDATE que preenche as horas
+-- grava uma nova versão de cada linha (tabela e índices crescem com as versões mortas até o
+-- próximo VACUUM), e SET NOT NULL, a restrição CHECK e os índices varrem a tabela inteira.
+-- Tudo roda numa transação, então o ACCESS EXCLUSIVE do primeiro ALTER TABLE bloqueia
+-- leituras e escritas em reservas até o COMMIT. Em bases grandes, aplicar fora do horário de
+-- uso e rodar VACUUM ANALYZE public.reservas em seguida. Para voltar à
+-- versão anterior da aplicação basta publicá-la: o gatilho também preenche as horas quando
+-- só as datas são gravadas, e reservas_simultaneas(INTEGER, TIMESTAMP, TIMESTAMP) atende às
+-- chamadas com DATE. Só os índices sobre as datas, removidos abaixo, precisam ser recriados
+-- (como na V2 e na V7). As colunas de data saem numa migração futura, quando ninguém mais
+-- depender delas.
+ALTER TABLE public.reservas
+    ADD COLUMN data_hora_inicio TIMESTAMP,
+    ADD COLUMN data_hora_fim    TIMESTAMP;
+
+UPDATE public.reservas
+SET data_hora_inicio = data_inicio,
+    data_hora_fim    = data_fim;
+
+ALTER TABLE public.reservas
+    ALTER COLUMN data_hora_inicio SET NOT NULL,
+    ALTER COLUMN data_hora_fim    SET NOT NULL;
+
+-- Mantém as duas formas do período iguais: quem mudou as horas define as datas, e vice-versa.
+CREATE FUNCTION public.reservas_sincronizar_datas()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP = 'INSERT' AND NEW.data_hora_inicio IS NULL AND NEW.data_hora_fim IS NULL
+       OR TG_OP = 'UPDATE' AND NEW.data_hora_inicio IS NOT DISTINCT FROM OLD.data_hora_inicio
+                           AND NEW.data_hora_fim IS NOT DISTINCT FROM OLD.data_hora_fim
+                           AND (NEW.data_inicio IS DISTINCT FROM OLD.data_inicio
+                                OR NEW.data_fim IS DISTINCT FROM OLD.data_fim) THEN
+        NEW.data_hora_inicio := NEW.data_inicio;
+        NEW.data_hora_fim := NEW.data_fim;
+    ELSE
+        NEW.data_inicio := NEW.data_hora_inicio::DATE;
+        NEW.data_fim := CASE WHEN NEW.data_hora_fim = NEW.data_hora_fim::DATE
+                             THEN NEW.data_hora_fim::DATE
+                             ELSE NEW.data_hora_fim::DATE + 1 END;
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER tg_reservas_datas
+    BEFORE INSERT OR UPDATE ON public.reservas
+    FOR EACH ROW EXECUTE FUNCTION public.reservas_sincronizar_datas();
+
+-- Gatilho, varredura e índices dependem das colunas de data e são refeitos abaixo.
+DROP TRIGGER tg_reservas_capacidade ON public.reservas;
+DROP FUNCTION public.reservas_verificar_capacidade();
+DROP FUNCTION public.reservas_simultaneas(INTEGER, DATE, DATE, INTEGER);
+DROP INDEX public.ix_reservas_ativas_locacao_periodo;
+DROP INDEX public.ix_reservas_ativas_periodo;
+
+-- tempo_minimo, tempo_maximo e valor_hora são por hora: os limites caem em hora cheia.
+ALTER TABLE public.reservas
+    ADD CONSTRAINT ck_reservas_data_hora CHECK (data_hora_fim > data_hora_inicio),
+    ADD CONSTRAINT ck_reservas_hora_cheia CHECK (
+        date_trunc('hour', data_hora_inicio) = data_hora_inicio AND
+        date_trunc('hour', data_hora_fim) = data_hora_fim
+    );
+
+-- Sobreposição por locação (&&) nas reservas ativas, sobre a expressão do intervalo. As
+-- consultas escrevem a sobreposição com a mesma expressão (sobrepoe no HQL); com < e > o
+-- planejador não usaria este índice.
+CREATE INDEX ix_reservas_ativas_locacao_intervalo
+    ON public.reservas USING gist (locacao_id, tsrange(data_hora_inicio, data_hora_fim, '[)'))
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+
+-- Leituras em ordem de início (próxima janela), como o antigo ix_reservas_ativas_periodo.
+CREATE INDEX ix_reservas_ativas_inicio
+    ON public.reservas (locacao_id, data_hora_inicio, data_hora_fim)
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+
+-- Mesma varredura da V7, agora sobre o intervalo em horas.
+CREATE FUNCTION public.reservas_simultaneas(
+        p_locacao_id INTEGER, p_inicio TIMESTAMP, p_fim TIMESTAMP, p_ignorar_id INTEGER DEFAULT NULL)
+    RETURNS INTEGER
+    LANGUAGE sql STABLE
+AS $$
+    SELECT COALESCE(MAX(simultaneas), 0)::INTEGER
+    FROM (
+        SELECT SUM(e.delta) OVER (ORDER BY e.instante, e.delta ROWS UNBOUNDED PRECEDING) AS simultaneas
+        FROM public.reservas r
+        CROSS JOIN LATERAL (VALUES (GREATEST(r.data_hora_inicio, p_inicio), 1),
+                                   (LEAST(r.data_hora_fim, p_fim), -1)) AS e(instante, delta)
+        WHERE r.locacao_id = p_locacao_id
+          AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+          AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(p_inicio, p_fim, '[)')
+          AND r.id IS DISTINCT FROM p_ignorar_id
+    ) AS varredura
+$$;
+
+CREATE FUNCTION public.reservas_verificar_capacidade()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_quantidade INTEGER;
+BEGIN
+    IF NEW.situacao NOT IN ('PENDENTE', 'CONFIRMADA') THEN
+        RETURN NULL;
+    END IF;
+
+    SELECT quantidade INTO v_quantidade
+    FROM public.locacoes
+    WHERE id = NEW.locacao_id
+    FOR NO KEY UPDATE;
+
+    IF public.reservas_simultaneas(NEW.locacao_id, NEW.data_hora_inicio, NEW.data_hora_fim) > v_quantidade THEN
+        RAISE EXCEPTION 'tg_reservas_capacidade: locação % sem unidade livre em [%, %)',
+                NEW.locacao_id, NEW.data_hora_inicio, NEW.data_hora_fim
+            USING ERRCODE = 'exclusion_violation';
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+-- data_inicio/data_fim entram na lista porque a versão anterior da aplicação só grava as datas.
+CREATE TRIGGER tg_reservas_capacidade
+    AFTER INSERT OR UPDATE OF locacao_id, data_inicio, data_fim, data_hora_inicio, data_hora_fim, situacao
+    ON public.reservas
+    FOR EACH ROW EXECUTE FUNCTION public.reservas_verificar_capacidade();
+
+COMMIT;
@@ -0,0 +1,25 @@
+BEGIN;
+
+-- quantidade não pode ficar abaixo das reservas ativas que já se sobrepõem. O UPDATE trava a
+-- linha da locação antes do gatilho, e tg_reservas_capacidade espera por essa mesma linha,
+-- então uma reserva concorrente é contada aqui ou vê a quantidade nova lá.
+CREATE FUNCTION public.locacoes_verificar_quantidade()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF NEW.quantidade < OLD.quantidade
+       AND public.reservas_simultaneas(NEW.id, '-infinity'::TIMESTAMP, 'infinity'::TIMESTAMP) > NEW.quantidade THEN
+        RAISE EXCEPTION 'tg_locacoes_quantidade: locação % tem mais de % reservas ativas simultâneas',
+                NEW.id, NEW.quantidade
+            USING ERRCODE = 'exclusion_violation';
+    END IF;
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER tg_locacoes_quantidade
+    BEFORE UPDATE OF quantidade ON public.locacoes
+    FOR EACH ROW EXECUTE FUNCTION public.locacoes_verificar_quantidade();
+
+COMMIT;
@@ -0,0 +1,48 @@
+package com.example.back_end.controllers;
+
+import com.example.back_end.enums.FormatoExportacao;
+import com.example.back_end.services.ReservaExportacaoService;
+import com.example.back_end.services.ReservaLoteService;
+import com.example.back_end.services.ReservaService;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ReservaControllerTest {
+
+    @Mock private ReservaService service;
+    @Mock private ReservaLoteService loteService;
+    @Mock private ReservaExportacaoService exportacaoService;
+
+    @Test
+    void exportar_usaOPrazoDaExportacao() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(exportacaoService.exportar(FormatoExportacao.CSV, null, null))
+                .thenReturn(saida -> saida.write("id\n".getBytes(StandardCharsets.UTF_8)));
+        when(exportacaoService.tempoLimite()).thenReturn(Duration.ofMinutes(30));
+        MockMvc mvc = MockMvcBuilders
+                .standaloneSetup(new ReservaController(service, loteService, exportacaoService))
+                .build();
+
+        MvcResult resultado = mvc.perform(get("/reservas/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(resultado.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        mvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservas.csv\""))
+                .andExpect(content().string("id\n"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.back_end.exceptions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RestricoesBancoTest {
+
+    @Test
+    void gatilhoDaQuantidade_naoEConfundidoComOdaCapacidade() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("update",
+                new SQLException("tg_locacoes_quantidade: locação 3 tem mais de 1 reservas ativas simultâneas", "23P01"));
+
+        assertThat(RestricoesBanco.violouQuantidade(ex)).isTrue();
+        assertThat(RestricoesBanco.violouCapacidade(ex)).isFalse();
+    }
+
+    @Test
+    void gatilhoDaCapacidade_naoEConfundidoComOdaQuantidade() {
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("insert",
+                new SQLException("tg_reservas_capacidade: locação 3 sem unidade livre", "23P01"));
+
+        assertThat(RestricoesBanco.violouCapacidade(ex)).isTrue();
+        assertThat(RestricoesBanco.violouQuantidade(ex)).isFalse();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.back_end.repositories;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AlocadorIdsTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final AlocadorIds alocador = new AlocadorIds(jdbc);
+
+    @Test
+    void umIdPorVez_usaOMesmoBlocoAteAcabar() {
+        when(jdbc.queryForList(anyString(), eq(Long.class), eq(AlocadorIds.RESERVAS), eq(1)))
+                .thenReturn(List.of(50L), List.of(100L));
+
+        List<Integer> ids = IntStream.range(0, 51)
+                .mapToObj(i -> alocador.alocar(AlocadorIds.RESERVAS, 1).get(0))
+                .toList();
+
+        assertThat(ids).containsExactlyElementsOf(IntStream.rangeClosed(1, 51).boxed().toList());
+        verify(jdbc, times(2)).queryForList(anyString(), eq(Long.class), eq(AlocadorIds.RESERVAS), eq(1));
+    }
+
+    @Test
+    void lote_comecaPeloRestoEPedeSoOsBlocosQueFaltam() {
+        when(jdbc.queryForList(anyString(), eq(Long.class), eq(AlocadorIds.CLIENTES), eq(1)))
+                .thenReturn(List.of(50L), List.of(150L));
+
+        assertThat(alocador.alocar(AlocadorIds.CLIENTES, 40)).hasSize(40).endsWith(40);
+        List<Integer> lote = alocador.alocar(AlocadorIds.CLIENTES, 20);
+
+        // 41..50 do bloco anterior, 101..110 do novo
+        assertThat(lote).containsExactlyElementsOf(
+                IntStream.concat(IntStream.rangeClosed(41, 50), IntStream.rangeClosed(101, 110)).boxed().toList());
+        assertThat(alocador.alocar(AlocadorIds.CLIENTES, 1)).containsExactly(111);
+    }
+
+    @Test
+    void sequenciasTemRestosSeparados() {
+        when(jdbc.queryForList(anyString(), eq(Long.class), eq(AlocadorIds.CLIENTES), eq(1))).thenReturn(List.of(50L));
+        when(jdbc.queryForList(anyString(), eq(Long.class), eq(AlocadorIds.LOCACOES), eq(1))).thenReturn(List.of(500L));
+
+        assertThat(alocador.alocar(AlocadorIds.CLIENTES, 1)).containsExactly(1);
+        assertThat(alocador.alocar(AlocadorIds.LOCACOES, 1)).containsExactly(451);
+        assertThat(alocador.alocar(AlocadorIds.CLIENTES, 1)).containsExactly(2);
+    }
+
+    @Test
+    void sequenciaDesconhecida_deveLancar() {
+        assertThatThrownBy(() -> alocador.alocar("public.outra_seq", 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Sequência desconhecida");
+        verifyNoInteractions(jdbc);
+    }
+}
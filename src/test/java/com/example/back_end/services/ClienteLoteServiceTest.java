@@ -0,0 +1,92 @@
+package com.example.back_end.services;
+
+import com.example.back_end.dtos.importacao.ImportacaoErroDTO;
+import com.example.back_end.dtos.importacao.ImportacaoResultadoDTO;
+import com.example.back_end.repositories.AlocadorIds;
+import com.example.back_end.services.importacao.CargaCopy;
+import com.example.back_end.services.importacao.LeitorRegistros;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClienteLoteServiceTest {
+
+    @Mock private CargaCopy copy;
+    @Mock private AlocadorIds alocador;
+    @Mock private JdbcTemplate jdbc;
+    @Mock private PlatformTransactionManager txManager;
+
+    private ClienteLoteService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new ClienteLoteService(
+                new LeitorRegistros(new ObjectMapper().findAndRegisterModules()), copy, alocador, jdbc,
+                Validation.buildDefaultValidatorFactory().getValidator(), txManager, 100, 2);
+        when(alocador.alocar(eq(AlocadorIds.CLIENTES), anyInt()))
+                .thenAnswer(inv -> IntStream.rangeClosed(1, inv.<Integer>getArgument(1)).boxed().toList());
+    }
+
+    @Test
+    void importar_csv_rejeitaInvalidosRepetidosEJaCadastrados() throws Exception {
+        ResultSet cadastrado = mock(ResultSet.class);
+        when(cadastrado.getInt("linha")).thenReturn(4);
+        when(cadastrado.getBoolean("email_existe")).thenReturn(false);
+        when(cadastrado.getBoolean("cpf_existe")).thenReturn(true);
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(cadastrado);
+            return null;
+        }).when(jdbc).query(contains("email_existe"), any(RowCallbackHandler.class));
+
+        ImportacaoResultadoDTO out = service.importar(new ByteArrayInputStream("""
+                nome,email,telefone,cpf
+                Ana,ana@mail.com,11999999999,52998224725
+                Bia,ana@mail.com,11999999998,11144477735
+                Caio,caio@mail.com,123,39053344705
+                Duda,duda@mail.com,11999999997,11144477735
+                """.getBytes(StandardCharsets.UTF_8)), MediaType.parseMediaType("text/csv"));
+
+        assertThat(out.getTotal()).isEqualTo(4);
+        assertThat(out.getImportados()).isEqualTo(1);
+        assertThat(out.getErros()).extracting(ImportacaoErroDTO::getLinha).containsExactly(2, 3, 4);
+        assertThat(out.getErros().get(0).getErro()).contains("registro 1");
+        assertThat(out.getErros().get(1).getErro()).startsWith("Telefone");
+        assertThat(out.getErros().get(2).getErro()).isEqualTo("CPF já cadastrado.");
+
+        // a linha 4 ainda vai para a temporária; só sai dela na conferência com a base
+        ArgumentCaptor<List<Object[]>> copiadas = ArgumentCaptor.captor();
+        verify(copy, times(1)).copiar(eq("importacao_clientes"), anyList(), copiadas.capture());
+        assertThat(copiadas.getValue()).extracting(l -> l[0]).containsExactly(1, 4);
+    }
+
+    @Test
+    void importar_enviaCopyEmBlocos() {
+        String ndjson = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> "{\"nome\":\"C" + i + "\",\"email\":\"c" + i + "@mail.com\",\"telefone\":\"1199999999" + i
+                        + "\",\"cpf\":\"" + List.of("52998224725", "11144477735", "39053344705", "86288366757", "71428793860").get(i - 1) + "\"}")
+                .reduce("", (a, b) -> a + b + "\n");
+
+        ImportacaoResultadoDTO out = service.importar(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MediaType.APPLICATION_NDJSON);
+
+        assertThat(out.getImportados()).isEqualTo(5);
+        verify(copy, times(3)).copiar(eq("importacao_clientes"), anyList(), anyList());
+        verify(jdbc).execute(contains("CREATE TEMP TABLE"));
+    }
+}
@@ -4,15 +4,20 @@ import com.example.back_end.dtos.cliente.ClienteGetDTO;
 import com.example.back_end.dtos.cliente.ClientePatchDTO;
 import com.example.back_end.dtos.cliente.ClientePostDTO;
 import com.example.back_end.dtos.cliente.ClientePutDTO;
+import com.example.back_end.dtos.paginacao.CursorPageDTO;
 import com.example.back_end.entities.ClienteEntity;
+import com.example.back_end.enums.ModoTotal;
 import com.example.back_end.mappers.ClienteMapper;
 import com.example.back_end.repositories.ClienteRepository;
 import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.services.paginacao.ContagemPaginas;
+import com.example.back_end.services.paginacao.ResultadoPaginado;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.data.domain.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,8 +31,9 @@ class ClienteServiceTest {
     @Mock private ClienteRepository clienteRepo;
     @Mock private ReservaRepository reservaRepo;
     @Mock private ClienteMapper mapper;
+    @Mock private JdbcTemplate jdbc;
 
-    @InjectMocks private ClienteService service;
+    private ClienteService service;
 
     private ClienteEntity entity;
     private ClienteGetDTO dto;
@@ -35,21 +41,84 @@ class ClienteServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        service = new ClienteService(clienteRepo, reservaRepo, mapper, new ContagemPaginas(jdbc));
         entity = new ClienteEntity(1, "Carlos", "carlos@mail.com", "11999999999", "12345678901", LocalDateTime.now());
         dto    = new ClienteGetDTO(1, "Carlos", "carlos@mail.com", "11999999999", "12345678901", entity.getDataCriacao());
     }
 
     @Test
-    void listarTodos_deveRetornarPaginaDeDTOs() {
-        when(clienteRepo.findAll(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(entity)));
-        when(mapper.toGetDTO(entity)).thenReturn(dto);
+    void listarTodos_exato_deveContar() {
+        when(clienteRepo.findPaginaDTO(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 10), false));
+        when(clienteRepo.count()).thenReturn(1L);
+
+        ResultadoPaginado<ClienteGetDTO> resultado = service.listarTodos(PageRequest.of(0, 10), ModoTotal.EXACT);
+
+        assertThat(resultado.pagina()).isInstanceOf(Page.class);
+        assertThat(((Page<ClienteGetDTO>) resultado.pagina()).getTotalElements()).isEqualTo(1);
+        assertThat(resultado.pagina().getContent().get(0).getEmail()).isEqualTo("carlos@mail.com");
+        assertThat(resultado.cabecalhos().getFirst(ResultadoPaginado.HEADER_MODO)).isEqualTo("exact");
+    }
+
+    @Test
+    void listarTodos_semTotal_naoExecutaCount() {
+        when(clienteRepo.findPaginaDTO(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 1), true));
+
+        ResultadoPaginado<ClienteGetDTO> resultado = service.listarTodos(PageRequest.of(0, 1), ModoTotal.NONE);
 
-        Page<ClienteGetDTO> page = service.listarTodos(PageRequest.of(0, 10));
+        assertThat(resultado.pagina()).isNotInstanceOf(Page.class);
+        assertThat(resultado.pagina().hasNext()).isTrue();
+        verify(clienteRepo, never()).count();
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void listarTodos_estimado_usaEstatisticaSemNuncaFicarAbaixoDoVisto() {
+        when(clienteRepo.findPaginaDTO(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(3, 1), true));
+        when(jdbc.queryForList(anyString(), eq(Long.class), eq("clientes"))).thenReturn(List.of(-1L));
+
+        ResultadoPaginado<ClienteGetDTO> resultado = service.listarTodos(PageRequest.of(3, 1), ModoTotal.ESTIMATE);
+
+        assertThat(((Page<ClienteGetDTO>) resultado.pagina()).getTotalElements()).isEqualTo(5);
+        verify(clienteRepo, never()).count();
+    }
 
-        assertThat(page.getContent()).hasSize(1);
-        assertThat(page.getContent().get(0).getEmail()).isEqualTo("carlos@mail.com");
-        verify(clienteRepo).findAll(any(Pageable.class));
+    @Test
+    void modoTotal_valorInvalido_deveFalhar() {
+        assertThat(ModoTotal.de(null)).isEqualTo(ModoTotal.EXACT);
+        assertThat(ModoTotal.de("none")).isEqualTo(ModoTotal.NONE);
+        assertThatThrownBy(() -> ModoTotal.de("talvez"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("total");
+    }
+
+    @Test
+    void listarPorCursor_devolveProximoCursorQuandoHaMaisItens() {
+        ClienteGetDTO outroDto = new ClienteGetDTO(2, "Ana", "ana@mail.com", "11988888888", "22222222222", LocalDateTime.now());
+        when(clienteRepo.findPaginaCursorDTO(0, Limit.of(2))).thenReturn(List.of(dto, outroDto));
+
+        CursorPageDTO<ClienteGetDTO> pagina = service.listarPorCursor(null, 1);
+
+        assertThat(pagina.getConteudo()).extracting(ClienteGetDTO::getId).containsExactly(1);
+        assertThat(pagina.isTemProximo()).isTrue();
+
+        when(clienteRepo.findPaginaCursorDTO(1, Limit.of(2))).thenReturn(List.of(outroDto));
+
+        CursorPageDTO<ClienteGetDTO> segunda = service.listarPorCursor(pagina.getProximoCursor(), 1);
+
+        assertThat(segunda.getConteudo()).extracting(ClienteGetDTO::getId).containsExactly(2);
+        assertThat(segunda.isTemProximo()).isFalse();
+        assertThat(segunda.getProximoCursor()).isNull();
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void listarPorCursor_cursorInvalido_deveFalhar() {
+        assertThatThrownBy(() -> service.listarPorCursor("nao-e-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cursor inválido");
     }
 
     @Test
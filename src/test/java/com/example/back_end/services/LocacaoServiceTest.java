@@ -1,24 +1,53 @@
 package com.example.back_end.services;
 
+import com.example.back_end.dtos.locacao.CalendarioLocacaoDTO;
+import com.example.back_end.dtos.locacao.ConsultaDisponibilidadeDTO;
+import com.example.back_end.dtos.locacao.CotacaoDTO;
+import com.example.back_end.dtos.locacao.CotacaoItemDTO;
+import com.example.back_end.dtos.locacao.CotacaoResultadoDTO;
+import com.example.back_end.dtos.locacao.DiaCalendarioDTO;
+import com.example.back_end.dtos.locacao.DisponibilidadeJanelaDTO;
+import com.example.back_end.dtos.locacao.JanelaDTO;
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
 import com.example.back_end.dtos.locacao.LocacaoGetDTO;
 import com.example.back_end.dtos.locacao.LocacaoPatchDTO;
 import com.example.back_end.dtos.locacao.LocacaoPostDTO;
 import com.example.back_end.dtos.locacao.LocacaoPutDTO;
+import com.example.back_end.dtos.locacao.ProximaJanelaDTO;
 import com.example.back_end.entities.LocacaoEntity;
-import com.example.back_end.entities.ReservaEntity;
+import com.example.back_end.entities.RegraPrecoEntity;
+import com.example.back_end.enums.ModoTotal;
+import com.example.back_end.enums.TipoRegraPreco;
 import com.example.back_end.enums.TiposLocacao;
 import com.example.back_end.mappers.LocacaoMapper;
 import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.RegraPrecoRepository;
 import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.CapacidadeLocacao;
+import com.example.back_end.repositories.projections.CotacaoLocacao;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import com.example.back_end.services.disponibilidade.CacheDisponibilidade;
+import com.example.back_end.services.disponibilidade.DisponibilidadeStrategy;
+import com.example.back_end.services.disponibilidade.FiltroDisponibilidade;
+import com.example.back_end.services.disponibilidade.LocacaoAlteradaEvent;
+import com.example.back_end.services.paginacao.ContagemPaginas;
+import com.example.back_end.services.preco.MotorPrecos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,8 +57,12 @@ class LocacaoServiceTest {
     @Mock private LocacaoRepository locacaoRepo;
     @Mock private ReservaRepository reservaRepo;
     @Mock private LocacaoMapper mapper;
+    @Mock private DisponibilidadeStrategy disponibilidade;
+    @Mock private JdbcTemplate jdbc;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private RegraPrecoRepository regraRepo;
 
-    @InjectMocks private LocacaoService service;
+    private LocacaoService service;
 
     private LocacaoEntity loc;
     private LocacaoGetDTO dto;
@@ -37,19 +70,22 @@ class LocacaoServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
-        loc = new LocacaoEntity(1, "Sala A", TiposLocacao.RESIDENCIAL, "Desc", new BigDecimal("10.00"), 1, 48, null);
-        dto = new LocacaoGetDTO(1, "Sala A", TiposLocacao.RESIDENCIAL, "Desc", new BigDecimal("10.00"), 1, 48, null);
+        service = new LocacaoService(locacaoRepo, reservaRepo, mapper, disponibilidade, new ContagemPaginas(jdbc),
+                new CacheDisponibilidade(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofSeconds(2)), events,
+                new MotorPrecos(regraRepo, new SimpleMeterRegistry(), 730, 100));
+        loc = new LocacaoEntity(1, "Sala A", TiposLocacao.RESIDENCIAL, "Desc", new BigDecimal("10.00"), 1, 48, 1, null);
+        dto = new LocacaoGetDTO(1, "Sala A", TiposLocacao.RESIDENCIAL, "Desc", new BigDecimal("10.00"), 1, 48, 1, null);
     }
 
     @Test
     void listarTodos_ok() {
-        when(locacaoRepo.findAll(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(loc)));
-        when(mapper.toGetDTO(loc)).thenReturn(dto);
+        when(locacaoRepo.findPaginaDTO(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 10), false));
+        when(locacaoRepo.count()).thenReturn(1L);
 
-        Page<LocacaoGetDTO> page = service.listarTodos(PageRequest.of(0,10));
+        Slice<LocacaoGetDTO> page = service.listarTodos(PageRequest.of(0,10), ModoTotal.EXACT).pagina();
 
-        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(((Page<LocacaoGetDTO>) page).getTotalElements()).isEqualTo(1);
     }
 
     @Test
@@ -71,48 +107,257 @@ class LocacaoServiceTest {
     }
 
     @Test
-    void disponiveisEntre_semConflito_retornaLista() {
+    void disponiveisEntre_retornaPaginaDoBanco() {
         LocalDate inicio = LocalDate.of(2025,1,1);
         LocalDate fim    = LocalDate.of(2025,1,2); // 24h
-        when(reservaRepo.findDistinctByDataInicioLessThanAndDataFimGreaterThan(fim, inicio))
-                .thenReturn(List.of());
-        when(locacaoRepo.findByTempoMinimoLessThanEqualAndTempoMaximoGreaterThanEqual(eq(24), eq(24), any()))
-                .thenReturn(new PageImpl<>(List.of(loc)));
-        when(mapper.toGetDTO(loc)).thenReturn(dto);
+        when(disponibilidade.listarDisponiveis(eq(inicio.atStartOfDay()), eq(fim.atStartOfDay()), eq(24), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(disponivel(new BigDecimal("240.00")))));
 
-        Page<LocacaoGetDTO> page = service.listarDisponiveis(inicio, fim, PageRequest.of(0,10));
+        Page<LocacaoDisponivelDTO> page = service.listarDisponiveis(inicio, fim, FiltroDisponibilidade.NENHUM,
+                null, PageRequest.of(0,10));
 
         assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getContent().get(0).getValorTotal()).isEqualByComparingTo("240.00");
+    }
+
+    @Test
+    void disponiveisEntre_ordenarPorValorTotal_ordenaPorValorHora() {
+        LocalDate inicio = LocalDate.of(2025,1,1);
+        LocalDate fim    = LocalDate.of(2025,1,3);
+        FiltroDisponibilidade filtro = new FiltroDisponibilidade(TiposLocacao.RESIDENCIAL, new BigDecimal("500"));
+        when(disponibilidade.listarDisponiveis(eq(inicio.atStartOfDay()), eq(fim.atStartOfDay()), eq(48), eq(filtro), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        service.listarDisponiveis(inicio, fim, filtro, "valorTotal", PageRequest.of(1,10, Sort.by("nome")));
+
+        ArgumentCaptor<Pageable> pagina = ArgumentCaptor.forClass(Pageable.class);
+        verify(disponibilidade).listarDisponiveis(eq(inicio.atStartOfDay()), eq(fim.atStartOfDay()), eq(48), eq(filtro), pagina.capture());
+        assertThat(pagina.getValue().getPageNumber()).isEqualTo(1);
+        assertThat(pagina.getValue().getSort()).isEqualTo(Sort.by("valorHora", "id"));
+    }
+
+    @Test
+    void disponiveisEntre_precoComRegraNoPeriodo_filtraEOrdenaPeloTotalDoMotor() {
+        // 2025-01-04 é sábado: +100% só para RESIDENCIAL
+        when(regraRepo.findByAtivaTrue()).thenReturn(List.of(new RegraPrecoEntity(null, "fds", TipoRegraPreco.FIM_DE_SEMANA,
+                null, TiposLocacao.RESIDENCIAL, new BigDecimal("100"), null, null, null, true, null)));
+        LocalDate sabado = LocalDate.of(2025,1,4);
+        when(disponibilidade.listarDisponiveis(any(LocalDateTime.class), any(), anyInt(), any(), any()))
+                .thenAnswer(inv -> new PageImpl<>(List.of(
+                        disponivel(1, TiposLocacao.RESIDENCIAL, "10.00"),
+                        disponivel(2, TiposLocacao.NAO_RESIDENCIAL, "15.00"),
+                        disponivel(3, TiposLocacao.NAO_RESIDENCIAL, "12.00"))));
+
+        Page<LocacaoDisponivelDTO> porValor = service.listarDisponiveis(sabado, sabado.plusDays(1),
+                FiltroDisponibilidade.NENHUM, "valorTotal", PageRequest.of(0,2));
+
+        // 1: 10 × 24 × 2 = 480; 2: 360; 3: 288
+        assertThat(porValor.getContent()).extracting(LocacaoDisponivelDTO::getId).containsExactly(3, 2);
+        assertThat(porValor.getContent()).extracting(LocacaoDisponivelDTO::getValorTotal)
+                .containsExactly(new BigDecimal("288.00"), new BigDecimal("360.00"));
+        assertThat(porValor.getTotalElements()).isEqualTo(3);
+
+        Page<LocacaoDisponivelDTO> ate400 = service.listarDisponiveis(sabado, sabado.plusDays(1),
+                new FiltroDisponibilidade(null, new BigDecimal("400")), null, PageRequest.of(0,10));
+
+        assertThat(ate400.getContent()).extracting(LocacaoDisponivelDTO::getId).containsExactly(2, 3);
+
+        // o banco recebe a busca sem página nem precoMax, que valeriam sobre valorHora
+        ArgumentCaptor<FiltroDisponibilidade> filtro = ArgumentCaptor.forClass(FiltroDisponibilidade.class);
+        ArgumentCaptor<Pageable> pagina = ArgumentCaptor.forClass(Pageable.class);
+        verify(disponibilidade, times(2)).listarDisponiveis(any(LocalDateTime.class), any(), anyInt(),
+                filtro.capture(), pagina.capture());
+        assertThat(filtro.getAllValues()).extracting(FiltroDisponibilidade::precoMax).containsOnlyNulls();
+        assertThat(pagina.getAllValues()).allMatch(Pageable::isUnpaged);
+    }
+
+    @Test
+    void disponiveisEntre_regraDeOutroTipoOuDia_mantemABuscaNoBanco() {
+        when(regraRepo.findByAtivaTrue()).thenReturn(List.of(new RegraPrecoEntity(null, "fds", TipoRegraPreco.FIM_DE_SEMANA,
+                null, TiposLocacao.RESIDENCIAL, new BigDecimal("25"), null, null, null, true, null)));
+        LocalDate sabado = LocalDate.of(2025,1,4);
+        when(disponibilidade.listarDisponiveis(any(LocalDateTime.class), any(), anyInt(), any(), any()))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        // na sexta a regra não muda o preço, e em outro tipo também não
+        FiltroDisponibilidade comercial = new FiltroDisponibilidade(TiposLocacao.NAO_RESIDENCIAL, new BigDecimal("500"));
+        service.listarDisponiveis(sabado.minusDays(1), sabado, FiltroDisponibilidade.NENHUM, "valorTotal", PageRequest.of(0,10));
+        service.listarDisponiveis(sabado, sabado.plusDays(1), comercial, "valorTotal", PageRequest.of(0,10));
+
+        verify(disponibilidade).listarDisponiveis(any(LocalDateTime.class), any(), anyInt(),
+                eq(FiltroDisponibilidade.NENHUM), eq(PageRequest.of(0, 10, Sort.by("valorHora", "id"))));
+        verify(disponibilidade).listarDisponiveis(any(LocalDateTime.class), any(), anyInt(),
+                eq(comercial), eq(PageRequest.of(0, 10, Sort.by("valorHora", "id"))));
+    }
+
+    private static LocacaoDisponivelDTO disponivel(int id, TiposLocacao tipo, String valorHora) {
+        return new LocacaoDisponivelDTO(id, "Locação " + id, tipo, "", new BigDecimal(valorHora), 1, 48, 1, null, null);
+    }
+
+    @Test
+    void disponiveisEntre_ordenarPorInvalido_deveLancar() {
+        LocalDate inicio = LocalDate.of(2025,1,1);
+        assertThatThrownBy(() -> service.listarDisponiveis(inicio, inicio.plusDays(1), FiltroDisponibilidade.NENHUM,
+                "nome", PageRequest.of(0,10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("ordenarPor");
+        verifyNoInteractions(disponibilidade);
     }
 
     @Test
-    void disponiveisEntre_ocupadas_filtraIds() {
+    void disponiveisEntre_usaHorasDoPeriodo() {
         LocalDate inicio = LocalDate.of(2025,1,1);
         LocalDate fim    = LocalDate.of(2025,1,4);
-        ReservaEntity r1 = new ReservaEntity(); r1.setLocacao(loc);
-        when(reservaRepo.findDistinctByDataInicioLessThanAndDataFimGreaterThan(fim, inicio))
-                .thenReturn(List.of(r1));
-        when(locacaoRepo.findByIdNotInAndTempoMinimoLessThanEqualAndTempoMaximoGreaterThanEqual(
-                anyList(), eq(72), eq(72), any()))
+        when(disponibilidade.listarDisponiveis(eq(inicio.atStartOfDay()), eq(fim.atStartOfDay()), eq(72), any(), any()))
                 .thenReturn(new PageImpl<>(List.of()));
 
-        Page<LocacaoGetDTO> page = service.listarDisponiveis(inicio, fim, PageRequest.of(0,10));
+        Page<LocacaoDisponivelDTO> page = service.listarDisponiveis(inicio, fim, FiltroDisponibilidade.NENHUM,
+                null, PageRequest.of(0,10));
 
         assertThat(page.getContent()).isEmpty();
+        verifyNoInteractions(reservaRepo);
+    }
+
+    @Test
+    void disponiveisPorHora_usaAsHorasDaJanela() {
+        LocalDateTime inicio = LocalDateTime.of(2025,1,1,9,0);
+        LocalDateTime fim    = LocalDateTime.of(2025,1,1,11,0);
+        when(disponibilidade.listarDisponiveis(eq(inicio), eq(fim), eq(2), any(), any()))
+                .thenReturn(new PageImpl<>(List.of(disponivel(new BigDecimal("20.00")))));
+
+        Page<LocacaoDisponivelDTO> page = service.listarDisponiveis(inicio, fim, FiltroDisponibilidade.NENHUM,
+                null, PageRequest.of(0,10));
+
+        assertThat(page.getContent().get(0).getValorTotal()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void disponiveisPorHora_foraDaHoraCheia_deveLancar() {
+        LocalDateTime inicio = LocalDateTime.of(2025,1,1,9,30);
+        assertThatThrownBy(() -> service.listarDisponiveis(inicio, inicio.plusHours(2), FiltroDisponibilidade.NENHUM,
+                null, PageRequest.of(0,10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("hora cheia");
+        verifyNoInteractions(disponibilidade);
     }
 
     @Test
     void disponiveisEntre_parametrosInvalidos_deveLancar() {
         LocalDate inicio = LocalDate.of(2025,1,2);
         LocalDate fim    = LocalDate.of(2025,1,1);
-        assertThatThrownBy(() -> service.listarDisponiveis(inicio, fim, PageRequest.of(0,10)))
+        assertThatThrownBy(() -> service.listarDisponiveis(inicio, fim, FiltroDisponibilidade.NENHUM, null,
+                PageRequest.of(0,10)))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("'fim' deve ser posterior a 'inicio'");
     }
 
+    @Test
+    void disponiveisEntre_janelaLongaDemais_deveLancar() {
+        LocalDate inicio = LocalDate.of(2025,1,1);
+        LocalDate fim    = LocalDate.of(300_000,1,1);
+        assertThatThrownBy(() -> service.listarDisponiveis(inicio, fim, FiltroDisponibilidade.NENHUM, null,
+                PageRequest.of(0,10)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("longa demais");
+        verifyNoInteractions(disponibilidade);
+    }
+
+    @Test
+    void calendario_expandeReservasDoMes() {
+        YearMonth mes = YearMonth.of(2025, 2);
+        when(locacaoRepo.existsById(1)).thenReturn(true);
+        when(locacaoRepo.findCapacidades(anyCollection())).thenReturn(List.of(new CapacidadeLocacao(1, 1)));
+        when(reservaRepo.findPeriodosSobrepostos(anyCollection(), eq(LocalDate.of(2025,2,1).atStartOfDay()), eq(LocalDate.of(2025,3,1).atStartOfDay())))
+                .thenReturn(List.of(
+                        periodo(7, 1, LocalDate.of(2025,1,30), LocalDate.of(2025,2,2)),
+                        periodo(8, 1, LocalDate.of(2025,2,27), LocalDate.of(2025,3,5))));
+
+        CalendarioLocacaoDTO cal = service.calendario(1, mes);
+
+        assertThat(cal.getDias()).hasSize(28);
+        assertThat(cal.getDias().get(0).getReservaId()).isEqualTo(7);
+        // dataFim é exclusiva
+        assertThat(cal.getDias().get(1).isDisponivel()).isTrue();
+        assertThat(cal.getDias().get(25).isDisponivel()).isTrue();
+        assertThat(cal.getDias().get(26).getReservaId()).isEqualTo(8);
+        assertThat(cal.getDias().get(27).getReservaId()).isEqualTo(8);
+    }
+
+    @Test
+    void calendario_locacaoComUnidades_contaLivresPorDia() {
+        YearMonth mes = YearMonth.of(2025, 2);
+        when(locacaoRepo.findCapacidades(anyCollection())).thenReturn(List.of(new CapacidadeLocacao(1, 2)));
+        when(reservaRepo.findPeriodosSobrepostos(anyCollection(), eq(LocalDate.of(2025,2,1).atStartOfDay()), eq(LocalDate.of(2025,3,1).atStartOfDay())))
+                .thenReturn(List.of(
+                        periodo(7, 1, LocalDate.of(2025,2,1), LocalDate.of(2025,2,3)),
+                        periodo(8, 1, LocalDate.of(2025,2,2), LocalDate.of(2025,2,4))));
+
+        List<DiaCalendarioDTO> dias = service.calendario(List.of(1), mes).get(0).getDias();
+
+        assertThat(dias.subList(0, 4)).extracting(DiaCalendarioDTO::getUnidadesLivres).containsExactly(1, 0, 1, 2);
+        assertThat(dias.subList(0, 4)).extracting(DiaCalendarioDTO::isDisponivel)
+                .containsExactly(true, false, true, true);
+        assertThat(dias.get(1).getReservaId()).isEqualTo(8);
+        assertThat(dias.get(0).getReservaId()).isNull();
+    }
+
+    @Test
+    void calendario_reservasPorHora_contaOMaximoSimultaneoDoDia() {
+        YearMonth mes = YearMonth.of(2025, 2);
+        LocalDateTime dia = LocalDate.of(2025,2,1).atStartOfDay();
+        when(locacaoRepo.findCapacidades(anyCollection())).thenReturn(List.of(new CapacidadeLocacao(1, 2)));
+        when(reservaRepo.findPeriodosSobrepostos(anyCollection(), eq(dia), eq(LocalDate.of(2025,3,1).atStartOfDay())))
+                .thenReturn(List.of(
+                        new PeriodoReserva(7, 1, dia.plusHours(9), dia.plusHours(11)),
+                        new PeriodoReserva(8, 1, dia.plusHours(14), dia.plusHours(16))));
+
+        List<DiaCalendarioDTO> dias = service.calendario(List.of(1), mes).get(0).getDias();
+
+        // as duas reservas não se sobrepõem: uma unidade segue livre no dia
+        assertThat(dias.get(0).getUnidadesLivres()).isEqualTo(1);
+        assertThat(dias.get(0).getReservaId()).isNull();
+        assertThat(dias.get(1).getUnidadesLivres()).isEqualTo(2);
+    }
+
+    @Test
+    void proximaJanela_reservaPorHora_ocupaODia() {
+        LocalDate d = LocalDate.of(2030, 1, 1);
+        when(locacaoRepo.findById(1)).thenReturn(Optional.of(loc));
+        when(reservaRepo.streamPeriodosAPartirDe(1, d.atStartOfDay())).thenReturn(Stream.of(
+                new PeriodoReserva(10, 1, d.atTime(10, 0), d.atTime(12, 0))));
+
+        assertThat(service.proximaJanela(1, 1, d).getInicio()).isEqualTo(d.plusDays(1));
+    }
+
+    @Test
+    void proximaJanela_locacaoComUnidades_aceitaSobreposicaoAbaixoDaQuantidade() {
+        LocalDate d = LocalDate.of(2030, 1, 1);
+        loc.setQuantidade(2);
+        when(locacaoRepo.findById(1)).thenReturn(Optional.of(loc));
+        when(reservaRepo.streamPeriodosAPartirDe(1, d.atStartOfDay())).thenReturn(Stream.of(
+                periodo(10, 1, d, d.plusDays(3)),
+                periodo(11, 1, d.plusDays(1), d.plusDays(2))));   // as duas unidades no dia 1
+
+        ProximaJanelaDTO out = service.proximaJanela(1, 1, d);
+        assertThat(out.getInicio()).isEqualTo(d);
+
+        when(reservaRepo.streamPeriodosAPartirDe(1, d.atStartOfDay())).thenReturn(Stream.of(
+                periodo(10, 1, d, d.plusDays(3)),
+                periodo(11, 1, d.plusDays(1), d.plusDays(2))));
+        assertThat(service.proximaJanela(1, 2, d).getInicio()).isEqualTo(d.plusDays(2));
+    }
+
+    @Test
+    void calendario_locacaoInexistente_404() {
+        when(locacaoRepo.findCapacidades(anyCollection())).thenReturn(List.of(new CapacidadeLocacao(1, 1)));
+        assertThatThrownBy(() -> service.calendario(List.of(1, 99), YearMonth.of(2025, 2)))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Locação não encontrada");
+    }
+
     @Test
     void criar_ok() {
-        LocacaoPostDTO in = new LocacaoPostDTO("Sala A", TiposLocacao.RESIDENCIAL, "Desc", new BigDecimal("10.00"), 1, 48);
+        LocacaoPostDTO in = new LocacaoPostDTO("Sala A", TiposLocacao.RESIDENCIAL, "Desc", new BigDecimal("10.00"), 1, 48, 1);
         when(mapper.fromPostDTO(in)).thenReturn(loc);
         when(locacaoRepo.save(loc)).thenReturn(loc);
         when(mapper.toGetDTO(loc)).thenReturn(dto);
@@ -124,7 +369,7 @@ class LocacaoServiceTest {
 
     @Test
     void atualizar_ok() {
-        LocacaoPutDTO put = new LocacaoPutDTO("Sala B", TiposLocacao.NAO_RESIDENCIAL, "Nova", new BigDecimal("12.00"), 2, 36);
+        LocacaoPutDTO put = new LocacaoPutDTO("Sala B", TiposLocacao.NAO_RESIDENCIAL, "Nova", new BigDecimal("12.00"), 2, 36, 1);
         when(locacaoRepo.findById(1)).thenReturn(Optional.of(loc));
         doAnswer(inv -> {
             LocacaoPutDTO p = inv.getArgument(0);
@@ -138,7 +383,7 @@ class LocacaoServiceTest {
             return null;
         }).when(mapper).updateFromPutDTO(eq(put), any(LocacaoEntity.class));
         when(locacaoRepo.save(any(LocacaoEntity.class))).thenReturn(loc);
-        when(mapper.toGetDTO(loc)).thenReturn(new LocacaoGetDTO(1,"Sala B", TiposLocacao.NAO_RESIDENCIAL,"Nova", new BigDecimal("12.00"), 2, 36, null));
+        when(mapper.toGetDTO(loc)).thenReturn(new LocacaoGetDTO(1,"Sala B", TiposLocacao.NAO_RESIDENCIAL,"Nova", new BigDecimal("12.00"), 2, 36, 1, null));
 
         LocacaoGetDTO out = service.atualizar(1, put);
 
@@ -158,16 +403,136 @@ class LocacaoServiceTest {
             return null;
         }).when(mapper).updateFromPatchDTO(eq(patch), any(LocacaoEntity.class));
         when(locacaoRepo.save(any(LocacaoEntity.class))).thenReturn(loc);
-        when(mapper.toGetDTO(loc)).thenReturn(new LocacaoGetDTO(1,"Sala A", TiposLocacao.TEMPORADA,"Patch", new BigDecimal("10.00"),1,48,null));
+        when(mapper.toGetDTO(loc)).thenReturn(new LocacaoGetDTO(1,"Sala A", TiposLocacao.TEMPORADA,"Patch", new BigDecimal("10.00"),1,48,1, null));
 
         LocacaoGetDTO out = service.atualizarParcial(1, patch);
 
         assertThat(out.getDescricao()).isEqualTo("Patch");
     }
 
+    @Test
+    void consultarDisponibilidade_umaLeituraParaTodasAsJanelas() {
+        LocalDate sexta = LocalDate.of(2030, 1, 4);
+        LocacaoGetDTO curta = new LocacaoGetDTO(2, "Sala B", TiposLocacao.RESIDENCIAL, "", BigDecimal.TEN, 1, 24, 1, null);
+        when(locacaoRepo.findDTOPorFaixaDeHoras(24, 48)).thenReturn(List.of(dto, curta));
+        when(reservaRepo.findPeriodosEntre(sexta.atStartOfDay(), sexta.plusDays(9).atStartOfDay()))
+                .thenReturn(List.of(periodo(10, 1, sexta.plusDays(6), sexta.plusDays(8))));
+
+        List<DisponibilidadeJanelaDTO> out = service.consultarDisponibilidade(new ConsultaDisponibilidadeDTO(List.of(
+                new JanelaDTO(sexta, sexta.plusDays(2)),
+                new JanelaDTO(sexta.plusDays(7), sexta.plusDays(9)),
+                new JanelaDTO(sexta.plusDays(1), sexta.plusDays(2)))));
+
+        assertThat(out).extracting(j -> j.getLocacoes().stream().map(LocacaoGetDTO::getId).toList())
+                .containsExactly(List.of(1), List.of(), List.of(1, 2));
+        verify(reservaRepo, times(1)).findPeriodosEntre(any(), any());
+    }
+
+    @Test
+    void consultarDisponibilidade_intervaloLongoDemais_deveFalhar() {
+        LocalDate inicio = LocalDate.of(2030, 1, 1);
+        ConsultaDisponibilidadeDTO consulta = new ConsultaDisponibilidadeDTO(List.of(
+                new JanelaDTO(inicio, inicio.plusDays(2)),
+                new JanelaDTO(inicio.plusYears(2), inicio.plusYears(2).plusDays(1))));
+
+        assertThatThrownBy(() -> service.consultarDisponibilidade(consulta))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("366 dias");
+        verifyNoInteractions(reservaRepo);
+    }
+
+    @Test
+    void proximaJanela_pulaReservasAteCaberADuracao() {
+        LocalDate d = LocalDate.of(2030, 1, 1);
+        when(locacaoRepo.findById(1)).thenReturn(Optional.of(loc));
+        when(reservaRepo.streamPeriodosAPartirDe(1, d.atStartOfDay())).thenReturn(Stream.of(
+                periodo(10, 1, d.minusDays(1), d.plusDays(1)),
+                periodo(11, 1, d.plusDays(2), d.plusDays(4)),   // lacuna de 1 dia: não cabe
+                periodo(12, 1, d.plusDays(6), d.plusDays(7)),   // lacuna de 2 dias: cabe
+                periodo(13, 1, d.plusDays(8), d.plusDays(9))));
+
+        ProximaJanelaDTO out = service.proximaJanela(1, 2, d);
+
+        assertThat(out.getInicio()).isEqualTo(d.plusDays(4));
+        assertThat(out.getFim()).isEqualTo(d.plusDays(6));
+    }
+
+    @Test
+    void proximaJanela_duracaoForaDaFaixa_deveFalhar() {
+        when(locacaoRepo.findById(1)).thenReturn(Optional.of(loc)); // 1 a 48 horas
+
+        assertThatThrownBy(() -> service.proximaJanela(1, 3, LocalDate.of(2030, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("fora da faixa");
+        verifyNoInteractions(reservaRepo);
+    }
+
+    @Test
+    void proximaJanelaPorTipo_escolheALocacaoLivreMaisCedo() {
+        LocalDate d = LocalDate.of(2030, 1, 1);
+        when(locacaoRepo.findCapacidadesPorTipoAdmitindo(TiposLocacao.RESIDENCIAL, 24)).thenReturn(List.of(
+                new CapacidadeLocacao(1, 1), new CapacidadeLocacao(2, 1), new CapacidadeLocacao(3, 1)));
+        when(reservaRepo.streamPeriodosPorTipoAPartirDe(TiposLocacao.RESIDENCIAL, 24, d.atStartOfDay())).thenReturn(Stream.of(
+                periodo(10, 1, d, d.plusDays(5)),
+                periodo(11, 2, d, d.plusDays(2)),
+                periodo(12, 3, d, d.plusDays(3))));
+
+        ProximaJanelaDTO out = service.proximaJanela(TiposLocacao.RESIDENCIAL, 1, d);
+
+        assertThat(out.getLocacaoId()).isEqualTo(2);
+        assertThat(out.getInicio()).isEqualTo(d.plusDays(2));
+    }
+
+    @Test
+    void proximaJanelaPorTipo_locacaoSemReservasVence() {
+        LocalDate d = LocalDate.of(2030, 1, 1);
+        when(locacaoRepo.findCapacidadesPorTipoAdmitindo(TiposLocacao.RESIDENCIAL, 24)).thenReturn(List.of(
+                new CapacidadeLocacao(1, 1), new CapacidadeLocacao(2, 1)));
+        when(reservaRepo.streamPeriodosPorTipoAPartirDe(TiposLocacao.RESIDENCIAL, 24, d.atStartOfDay()))
+                .thenReturn(Stream.of(periodo(10, 1, d, d.plusDays(1))));
+
+        ProximaJanelaDTO out = service.proximaJanela(TiposLocacao.RESIDENCIAL, 1, d);
+
+        assertThat(out.getLocacaoId()).isEqualTo(2);
+        assertThat(out.getInicio()).isEqualTo(d);
+    }
+
+    @Test
+    void cotar_semIds_cotaTodasEmUmaLeitura() {
+        LocalDate inicio = LocalDate.of(2025,1,1);
+        CotacaoDTO cotacao = new CotacaoDTO();
+        cotacao.setInicio(inicio);
+        cotacao.setFim(inicio.plusDays(2));
+        when(locacaoRepo.findCotacao(inicio.atStartOfDay(), inicio.plusDays(2).atStartOfDay())).thenReturn(List.of(
+                new CotacaoLocacao(1, "Sala A", TiposLocacao.RESIDENCIAL, 1055L, 1, 48, false),
+                new CotacaoLocacao(2, "Sala B", TiposLocacao.RESIDENCIAL, 999L, 1, 24, true)));
+
+        CotacaoResultadoDTO out = service.cotar(cotacao);
+
+        assertThat(out.getHoras()).isEqualTo(48);
+        assertThat(out.getItens()).extracting(CotacaoItemDTO::getValorFinal)
+                .containsExactly(new BigDecimal("506.40"), new BigDecimal("479.52"));
+        assertThat(out.getItens()).extracting(CotacaoItemDTO::isDuracaoAdmitida).containsExactly(true, false);
+        assertThat(out.getItens()).extracting(CotacaoItemDTO::isDisponivel).containsExactly(true, false);
+        verifyNoInteractions(reservaRepo);
+    }
+
+    @Test
+    void cotar_janelaLongaDemais_deveLancar() {
+        CotacaoDTO cotacao = new CotacaoDTO();
+        cotacao.setInicio(LocalDate.of(2025,1,1));
+        cotacao.setFim(LocalDate.of(2026,1,3));
+        cotacao.setLocacaoIds(List.of(1));
+
+        assertThatThrownBy(() -> service.cotar(cotacao))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("366 dias");
+        verifyNoInteractions(locacaoRepo);
+    }
+
     @Test
     void deletar_comReserva_deveFalhar() {
-        when(locacaoRepo.existsById(1)).thenReturn(true);
+        when(locacaoRepo.findById(1)).thenReturn(Optional.of(loc));
         when(reservaRepo.existsByLocacaoId(1)).thenReturn(true);
 
         assertThatThrownBy(() -> service.deletar(1))
@@ -177,19 +542,29 @@ class LocacaoServiceTest {
 
     @Test
     void deletar_semReserva_ok() {
-        when(locacaoRepo.existsById(1)).thenReturn(true);
+        when(locacaoRepo.findById(1)).thenReturn(Optional.of(loc));
         when(reservaRepo.existsByLocacaoId(1)).thenReturn(false);
 
         service.deletar(1);
 
         verify(locacaoRepo).deleteById(1);
+        verify(events).publishEvent(LocacaoAlteradaEvent.removida(1, LocacaoAlteradaEvent.Perfil.de(loc)));
     }
 
     @Test
     void deletar_inexistente_404() {
-        when(locacaoRepo.existsById(99)).thenReturn(false);
+        when(locacaoRepo.findById(99)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> service.deletar(99))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Locação não encontrada");
     }
+
+    private static PeriodoReserva periodo(int id, int locacaoId, LocalDate inicio, LocalDate fim) {
+        return new PeriodoReserva(id, locacaoId, inicio.atStartOfDay(), fim.atStartOfDay());
+    }
+
+    private static LocacaoDisponivelDTO disponivel(BigDecimal valorTotal) {
+        return new LocacaoDisponivelDTO(1, "Sala A", TiposLocacao.RESIDENCIAL, "Desc", new BigDecimal("10.00"),
+                1, 48, 1, null, valorTotal);
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.back_end.services;
+
+import com.example.back_end.dtos.reserva.ReservaGetDTO;
+import com.example.back_end.enums.FormatoExportacao;
+import com.example.back_end.enums.SituacaoReserva;
+import com.example.back_end.repositories.ReservaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReservaExportacaoServiceTest {
+
+    @Mock private ReservaRepository reservaRepo;
+    @Mock private PlatformTransactionManager txManager;
+
+    private ReservaExportacaoService service;
+
+    private final LocalDate de = LocalDate.of(2030, 1, 1);
+    private final LocalDate ate = LocalDate.of(2030, 2, 1);
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new ReservaExportacaoService(reservaRepo, new ObjectMapper().findAndRegisterModules(), txManager,
+                Duration.ofMinutes(30));
+    }
+
+    @Test
+    void exportar_csv_escreveCabecalhoEFechaOStream() throws Exception {
+        boolean[] fechado = { false };
+        when(reservaRepo.streamPorInicio(de.atStartOfDay(), ate.atStartOfDay())).thenReturn(Stream.of(reserva(1), reserva(2))
+                .onClose(() -> fechado[0] = true));
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.exportar(FormatoExportacao.CSV, de, ate).writeTo(saida);
+
+        assertThat(saida.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                id,clienteId,locacaoId,dataInicio,dataFim,valorFinal,situacao,dataCriacao
+                1,7,3,2030-01-10T14:00:00,2030-01-10T16:00:00,480.00,CONFIRMADA,2029-12-01T10:00:00
+                2,7,3,2030-01-10T14:00:00,2030-01-10T16:00:00,480.00,CONFIRMADA,2029-12-01T10:00:00
+                """);
+        assertThat(fechado[0]).isTrue();
+    }
+
+    @Test
+    void exportar_ndjson_umObjetoPorLinha() throws Exception {
+        when(reservaRepo.streamPorInicio(null, null)).thenReturn(Stream.of(reserva(1)));
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        service.exportar(FormatoExportacao.NDJSON, null, null).writeTo(saida);
+
+        assertThat(saida.toString(StandardCharsets.UTF_8))
+                .startsWith("{\"id\":1,")
+                .contains("\"dataInicio\":\"2030-01-10T14:00:00\"")
+                .contains("\"dataCriacao\":\"2029-12-01T10:00:00\"")
+                .endsWith("}\n");
+    }
+
+    @Test
+    void exportar_periodoInvertido_deveFalharAntesDeAbrirOCursor() {
+        assertThatThrownBy(() -> service.exportar(FormatoExportacao.CSV, ate, de))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(reservaRepo, txManager);
+    }
+
+    private static ReservaGetDTO reserva(int id) {
+        return new ReservaGetDTO(id, 7, 3, LocalDateTime.of(2030, 1, 10, 14, 0), LocalDateTime.of(2030, 1, 10, 16, 0),
+                new BigDecimal("480.00"), SituacaoReserva.CONFIRMADA, LocalDateTime.of(2029, 12, 1, 10, 0));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.back_end.services;
+
+import com.example.back_end.dtos.reserva.ReservaLoteLinhaDTO;
+import com.example.back_end.dtos.reserva.ReservaLoteResultadoDTO;
+import com.example.back_end.entities.LocacaoEntity;
+import com.example.back_end.enums.SituacaoReserva;
+import com.example.back_end.enums.TiposLocacao;
+import com.example.back_end.repositories.ClienteRepository;
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.RegraPrecoRepository;
+import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.NovaReserva;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import com.example.back_end.services.disponibilidade.ReservaAlteradaEvent;
+import com.example.back_end.services.importacao.LeitorRegistros;
+import com.example.back_end.services.preco.MotorPrecos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReservaLoteServiceTest {
+
+    @Mock private ReservaRepository reservaRepo;
+    @Mock private LocacaoRepository locacaoRepo;
+    @Mock private ClienteRepository clienteRepo;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private PlatformTransactionManager txManager;
+
+    private ReservaLoteService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new ReservaLoteService(reservaRepo, locacaoRepo, clienteRepo,
+                new LeitorRegistros(new ObjectMapper().findAndRegisterModules()),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                events, new MotorPrecos(mock(RegraPrecoRepository.class), new SimpleMeterRegistry(), 730, 100),
+                txManager, 100, 10);
+
+        LocacaoEntity locacao = new LocacaoEntity(1, "Sala", TiposLocacao.TEMPORADA, "", new BigDecimal("10.00"), 1, 48, 1, null);
+        when(clienteRepo.findIdsExistentes(anyList())).thenReturn(List.of(1));
+        when(locacaoRepo.findAllById(anyList())).thenReturn(List.of(locacao));
+        when(reservaRepo.inserirLote(anyList(), eq(10)))
+                .thenAnswer(inv -> List.of(101, 102, 103, 104, 105).subList(0, inv.<List<?>>getArgument(0).size()));
+    }
+
+    @Test
+    void importar_ndjson_classificaCadaRegistro() {
+        when(reservaRepo.linhasEmConflito(anyList())).thenReturn(Set.of(5));
+
+        ReservaLoteResultadoDTO out = service.importar(corpo("""
+                {"clienteId":1,"locacaoId":1,"dataInicio":"2030-01-01","dataFim":"2030-01-03","situacao":"CONFIRMADA"}
+                {"clienteId":1,"locacaoId":1,"dataInicio":"2030-01-02","dataFim":"2030-01-03","situacao":"PENDENTE"}
+                {"clienteId":1,"locacaoId":9,"dataInicio":"2030-01-01","dataFim":"2030-01-02","situacao":"CONFIRMADA"}
+                {"clienteId":1,"locacaoId":1,"dataInicio":"ontem","dataFim":"2030-01-02","situacao":"CONFIRMADA"}
+                {"clienteId":1,"locacaoId":1,"dataInicio":"2030-02-01","dataFim":"2030-02-02","situacao":"CONFIRMADA"}
+                {"clienteId":1,"locacaoId":1,"dataInicio":"2030-01-01","dataFim":"2030-01-03","situacao":"CANCELADA"}
+                {"clienteId":2,"locacaoId":1,"dataInicio":"2030-03-01","dataFim":"2030-03-02","situacao":"CONFIRMADA"}
+                """), MediaType.APPLICATION_NDJSON);
+
+        assertThat(out.getTotal()).isEqualTo(7);
+        assertThat(out.getCriadas()).isEqualTo(2);
+        assertThat(out.getRejeitadas()).isEqualTo(5);
+        assertThat(out.getLinhas()).extracting(ReservaLoteLinhaDTO::getReservaId)
+                .containsExactly(101, null, null, null, null, 102, null);
+        assertThat(out.getLinhas().get(1).getErro()).contains("registro 1 do lote");
+        assertThat(out.getLinhas().get(2).getErro()).isEqualTo("Locação não encontrada.");
+        assertThat(out.getLinhas().get(3).getErro()).startsWith("Registro inválido");
+        assertThat(out.getLinhas().get(4).getErro()).contains("já existe reserva");
+        assertThat(out.getLinhas().get(6).getErro()).isEqualTo("Cliente não encontrado.");
+
+        // só as ativas vão para a consulta de conflito; a cancelada é inserida sem evento
+        ArgumentCaptor<List<NovaReserva>> ativas = ArgumentCaptor.captor();
+        verify(reservaRepo).linhasEmConflito(ativas.capture());
+        assertThat(ativas.getValue()).extracting(NovaReserva::linha).containsExactly(1, 2, 5);
+        verify(events, times(1)).publishEvent(any(ReservaAlteradaEvent.class));
+    }
+
+    @Test
+    void importar_arrayJson_calculaValor() {
+        when(reservaRepo.linhasEmConflito(anyList())).thenReturn(Set.of());
+
+        ReservaLoteResultadoDTO out = service.importar(corpo("""
+                [{"clienteId":1,"locacaoId":1,"dataInicio":"2030-01-01","dataFim":"2030-01-02","situacao":"PENDENTE"},
+                 {"clienteId":1,"locacaoId":1,"dataInicio":"2030-01-02","dataFim":"2030-01-03","situacao":"PENDENTE"}]
+                """), MediaType.APPLICATION_JSON);
+
+        assertThat(out.getCriadas()).isEqualTo(2);
+        ArgumentCaptor<List<NovaReserva>> inseridas = ArgumentCaptor.captor();
+        verify(reservaRepo).inserirLote(inseridas.capture(), eq(10));
+        assertThat(inseridas.getValue()).extracting(NovaReserva::valorFinal)
+                .containsOnly(new BigDecimal("240.00"));
+    }
+
+    @Test
+    void importar_emHoras_calculaValorEExigeHoraCheia() {
+        when(reservaRepo.linhasEmConflito(anyList())).thenReturn(Set.of());
+
+        ReservaLoteResultadoDTO out = service.importar(corpo("""
+                {"clienteId":1,"locacaoId":1,"dataInicio":"2030-01-01T09:00","dataFim":"2030-01-01T11:00","situacao":"PENDENTE"}
+                {"clienteId":1,"locacaoId":1,"dataInicio":"2030-01-01T11:30","dataFim":"2030-01-01T13:00","situacao":"PENDENTE"}
+                """), MediaType.APPLICATION_NDJSON);
+
+        assertThat(out.getLinhas()).extracting(ReservaLoteLinhaDTO::getReservaId).containsExactly(101, null);
+        assertThat(out.getLinhas().get(1).getErro()).contains("hora cheia");
+        ArgumentCaptor<List<NovaReserva>> inseridas = ArgumentCaptor.captor();
+        verify(reservaRepo).inserirLote(inseridas.capture(), eq(10));
+        assertThat(inseridas.getValue()).extracting(NovaReserva::valorFinal).containsExactly(new BigDecimal("20.00"));
+    }
+
+    @Test
+    void importar_csv_usaCabecalhoComoNomeDasPropriedades() {
+        when(reservaRepo.linhasEmConflito(anyList())).thenReturn(Set.of());
+
+        ReservaLoteResultadoDTO out = service.importar(corpo("""
+                clienteId,locacaoId,dataInicio,dataFim,situacao
+                1,1,2030-01-01,2030-01-02,CONFIRMADA
+                1,,2030-01-05,2030-01-06,CONFIRMADA
+                """), MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+        assertThat(out.getLinhas()).extracting(ReservaLoteLinhaDTO::getReservaId).containsExactly(101, null);
+        assertThat(out.getLinhas().get(1).getErro()).contains("A locação é um campo obrigatório.");
+    }
+
+    @Test
+    void importar_acimaDoLimite_deveFalhar() {
+        String linha = "{\"clienteId\":1,\"locacaoId\":1,\"dataInicio\":\"2030-01-01\",\"dataFim\":\"2030-01-02\",\"situacao\":\"PENDENTE\"}\n";
+
+        assertThatThrownBy(() -> service.importar(corpo(linha.repeat(101)), MediaType.APPLICATION_NDJSON))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("limite de 100");
+        verifyNoInteractions(reservaRepo);
+    }
+
+    @Test
+    void sobrepostas_venceQuemComecaAntes() {
+        LocalDateTime d = LocalDate.of(2030, 1, 1).atStartOfDay();
+        List<NovaReserva> ativas = List.of(
+                nova(1, 1, d.plusDays(2), d.plusDays(4)),
+                nova(2, 1, d, d.plusDays(3)),
+                nova(3, 2, d, d.plusDays(3)),
+                nova(4, 1, d.plusDays(3), d.plusDays(5)));
+
+        assertThat(ReservaLoteService.sobrepostas(ativas, Map.of(1, locacao(1, 1), 2, locacao(2, 1)), Map.of()))
+                .isEqualTo(Map.of(1, 2));
+    }
+
+    @Test
+    void sobrepostas_locacaoComUnidades_somaGravadasELote() {
+        LocalDateTime d = LocalDate.of(2030, 1, 1).atStartOfDay();
+        List<NovaReserva> ativas = List.of(
+                nova(1, 1, d, d.plusDays(2)),
+                nova(2, 1, d.plusDays(1), d.plusDays(3)),   // dia 1: gravada + linha 1 + linha 2
+                nova(3, 1, d.plusDays(2), d.plusDays(4)));  // a linha 1 já terminou
+        Map<Integer, List<PeriodoReserva>> gravadas = Map.of(1, List.of(
+                new PeriodoReserva(50, 1, d.plusDays(1), d.plusDays(2))));
+
+        assertThat(ReservaLoteService.sobrepostas(ativas, Map.of(1, locacao(1, 2)), gravadas))
+                .isEqualTo(Map.of(2, 1));
+        assertThat(ReservaLoteService.sobrepostas(ativas, Map.of(1, locacao(1, 3)), gravadas)).isEmpty();
+    }
+
+    private static LocacaoEntity locacao(int id, int quantidade) {
+        return new LocacaoEntity(id, "Sala", TiposLocacao.TEMPORADA, "", BigDecimal.TEN, 1, 48, quantidade, null);
+    }
+
+    private static NovaReserva nova(int linha, int locacaoId, LocalDateTime inicio, LocalDateTime fim) {
+        return new NovaReserva(linha, 1, locacaoId, inicio, fim, BigDecimal.ONE, SituacaoReserva.CONFIRMADA);
+    }
+
+    private static InputStream corpo(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
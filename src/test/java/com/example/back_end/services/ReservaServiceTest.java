@@ -6,20 +6,34 @@ import com.example.back_end.dtos.reserva.ReservaPostDTO;
 import com.example.back_end.dtos.reserva.ReservaPutDTO;
 import com.example.back_end.entities.ClienteEntity;
 import com.example.back_end.entities.LocacaoEntity;
+import com.example.back_end.entities.RegraPrecoEntity;
 import com.example.back_end.entities.ReservaEntity;
 import com.example.back_end.enums.SituacaoReserva;
+import com.example.back_end.enums.TipoRegraPreco;
 import com.example.back_end.enums.TiposLocacao;
 import com.example.back_end.mappers.ReservaMapper;
 import com.example.back_end.repositories.ClienteRepository;
 import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.RegraPrecoRepository;
 import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.DiagnosticoReserva;
+import com.example.back_end.services.disponibilidade.DisponibilidadeStrategy;
+import com.example.back_end.services.disponibilidade.ReservaAlteradaEvent;
+import com.example.back_end.services.disponibilidade.SerializadorReservas;
+import com.example.back_end.services.preco.MotorPrecos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.*;
     import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +44,11 @@ class ReservaServiceTest {
     @Mock private LocacaoRepository locacaoRepo;
     @Mock private ClienteRepository clienteRepo;
     @Mock private ReservaMapper mapper;
+    @Mock private DisponibilidadeStrategy disponibilidade;
+    @Mock private ApplicationEventPublisher events;
+    @Mock private SerializadorReservas serializador;
+    private final RegraPrecoRepository regraRepo = mock(RegraPrecoRepository.class);
+    @Spy private MotorPrecos precos = new MotorPrecos(regraRepo, new SimpleMeterRegistry(), 730, 100);
 
     @InjectMocks private ReservaService service;
 
@@ -40,56 +59,155 @@ class ReservaServiceTest {
     void setup() {
         MockitoAnnotations.openMocks(this);
         cliente = new ClienteEntity(1,"Carlos","c@mail.com","119","12345678901", null);
-        locacao = new LocacaoEntity(1,"Sala", TiposLocacao.TEMPORADA,"", new BigDecimal("10.00"), 1, 48, null);
+        locacao = new LocacaoEntity(1,"Sala", TiposLocacao.TEMPORADA,"", new BigDecimal("10.00"), 1, 48, 1, null);
+        when(serializador.executar(any(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(serializador.executarEmTodas(any(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
+        when(locacaoRepo.findById(1)).thenReturn(Optional.of(locacao));
     }
 
     @Test
     void criar_deveValidarConflito() {
-        ReservaPostDTO dto = new ReservaPostDTO(1,1, LocalDate.now(), LocalDate.now().plusDays(1), SituacaoReserva.CONFIRMADA);
+        ReservaPostDTO dto = new ReservaPostDTO(1,1, LocalDate.now().atStartOfDay(), LocalDate.now().atStartOfDay().plusDays(1), SituacaoReserva.CONFIRMADA);
 
-        when(clienteRepo.findById(1)).thenReturn(Optional.of(cliente));
-        when(locacaoRepo.findById(1)).thenReturn(Optional.of(locacao));
-        when(reservaRepo.existsByLocacaoIdAndDataInicioLessThanAndDataFimGreaterThan(eq(1), any(), any()))
+        when(disponibilidade.verificarAntesDeCriar()).thenReturn(true);
+        when(disponibilidade.possuiConflito(eq(1), isNull(), any(), any()))
                 .thenReturn(true);
 
         assertThatThrownBy(() -> service.criar(dto))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Período indisponível");
+        verify(reservaRepo, never()).inserirSeDisponivel(any(), any(), any(), any(), anyLong(), any(), any());
     }
 
     @Test
     void criar_ok_semConflito() {
-        LocalDate inicio = LocalDate.now();
-        LocalDate fim    = inicio.plusDays(1);
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fim    = inicio.plusDays(1);
         ReservaPostDTO dto = new ReservaPostDTO(1,1, inicio, fim, SituacaoReserva.CONFIRMADA);
 
-        when(clienteRepo.findById(1)).thenReturn(Optional.of(cliente));
-        when(locacaoRepo.findById(1)).thenReturn(Optional.of(locacao));
-        when(reservaRepo.existsByLocacaoIdAndDataInicioLessThanAndDataFimGreaterThan(1, fim, inicio))
-                .thenReturn(false);
-
-        // simula salvar
-        ReservationCapture cap = new ReservationCapture();
-        when(reservaRepo.save(any(ReservaEntity.class))).thenAnswer(inv -> {
-            ReservaEntity r = inv.getArgument(0);
-            cap.entity = r;
-            r.setId(10);
-            return r;
-        });
-
         ReservaGetDTO saida = new ReservaGetDTO(10, 1, 1, inicio, fim, new BigDecimal("240.00"), SituacaoReserva.CONFIRMADA, null);
-        when(mapper.toGetDTO(any(ReservaEntity.class))).thenReturn(saida);
+        // sem regras o valor sai do próprio INSERT
+        when(reservaRepo.inserirSeDisponivel(1, 1, inicio, fim, 24L, null, SituacaoReserva.CONFIRMADA))
+                .thenReturn(Optional.of(saida));
 
         ReservaGetDTO out = service.criar(dto);
 
         assertThat(out.getId()).isEqualTo(10);
-        assertThat(cap.entity.getValorFinal()).isEqualByComparingTo(new BigDecimal("240.00"));
+        assertThat(out.getValorFinal()).isEqualByComparingTo(new BigDecimal("240.00"));
+        verify(events).publishEvent(any(ReservaAlteradaEvent.class));
+        verifyNoInteractions(clienteRepo, locacaoRepo);
+    }
+
+    @Test
+    void criar_comRegraNoPeriodo_precificaPeloMotor() {
+        LocalDateTime inicio = LocalDate.of(2030, 1, 5).atStartOfDay(); // sábado
+        LocalDateTime fim    = inicio.plusDays(1);
+        ReservaPostDTO dto = new ReservaPostDTO(1,1, inicio, fim, SituacaoReserva.CONFIRMADA);
+        when(regraRepo.findByAtivaTrue()).thenReturn(List.of(new RegraPrecoEntity(null, "fds", TipoRegraPreco.FIM_DE_SEMANA,
+                null, TiposLocacao.TEMPORADA, new BigDecimal("25"), null, null, null, true, null)));
+        when(reservaRepo.inserirSeDisponivel(1, 1, inicio, fim, 24L, new BigDecimal("300.00"), SituacaoReserva.CONFIRMADA))
+                .thenReturn(Optional.of(new ReservaGetDTO(12, 1, 1, inicio, fim, new BigDecimal("300.00"),
+                        SituacaoReserva.CONFIRMADA, null)));
+
+        assertThat(service.criar(dto).getValorFinal()).isEqualByComparingTo(new BigDecimal("300.00"));
+    }
+
+    @Test
+    void criar_emHoras_cobraAsHorasDoPeriodo() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay().plusHours(9);
+        LocalDateTime fim    = inicio.plusHours(3);
+        ReservaPostDTO dto = new ReservaPostDTO(1,1, inicio, fim, SituacaoReserva.CONFIRMADA);
+
+        ReservaGetDTO saida = new ReservaGetDTO(11, 1, 1, inicio, fim, new BigDecimal("30.00"), SituacaoReserva.CONFIRMADA, null);
+        when(reservaRepo.inserirSeDisponivel(1, 1, inicio, fim, 3L, null, SituacaoReserva.CONFIRMADA))
+                .thenReturn(Optional.of(saida));
+
+        assertThat(service.criar(dto).getValorFinal()).isEqualByComparingTo(new BigDecimal("30.00"));
+    }
+
+    @Test
+    void criar_foraDaHoraCheia_deveFalhar() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay().plusHours(9).plusMinutes(30);
+        ReservaPostDTO dto = new ReservaPostDTO(1,1, inicio, inicio.plusHours(2), SituacaoReserva.CONFIRMADA);
+
+        assertThatThrownBy(() -> service.criar(dto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("hora cheia");
+        verify(reservaRepo, never()).inserirSeDisponivel(any(), any(), any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void criar_locacaoInexistente_diagnosticadaPeloInsert() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        ReservaPostDTO dto = new ReservaPostDTO(1,2, inicio, inicio.plusDays(1), SituacaoReserva.CONFIRMADA);
+        when(reservaRepo.inserirSeDisponivel(any(), any(), any(), any(), anyLong(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(reservaRepo.diagnosticar(1, 2)).thenReturn(new DiagnosticoReserva(true, null, null));
+
+        assertThatThrownBy(() -> service.criar(dto))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Locação não encontrada");
+        verify(locacaoRepo, never()).findById(any());
+    }
+
+    @Test
+    void criar_semChecagemPrevia_deixaConflitoParaOInsert() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fim    = inicio.plusDays(1);
+        ReservaPostDTO dto = new ReservaPostDTO(1,1, inicio, fim, SituacaoReserva.CONFIRMADA);
+
+        when(disponibilidade.verificarAntesDeCriar()).thenReturn(false);
+        when(reservaRepo.inserirSeDisponivel(any(), any(), any(), any(), anyLong(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(reservaRepo.diagnosticar(1, 1)).thenReturn(new DiagnosticoReserva(true, 1, 48));
+
+        assertThatThrownBy(() -> service.criar(dto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Período indisponível");
+        verify(disponibilidade, never()).possuiConflito(any(), any(), any(), any());
+    }
+
+    @Test
+    void criar_insercaoRecusada_classificaOMotivo() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        ReservaPostDTO dto = new ReservaPostDTO(1,1, inicio, inicio.plusDays(1), SituacaoReserva.CONFIRMADA);
+        when(reservaRepo.inserirSeDisponivel(any(), any(), any(), any(), anyLong(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        when(reservaRepo.diagnosticar(1, 1)).thenReturn(new DiagnosticoReserva(false, 1, 48));
+        assertThatThrownBy(() -> service.criar(dto))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Cliente não encontrado");
+
+        when(reservaRepo.diagnosticar(1, 1)).thenReturn(new DiagnosticoReserva(true, null, null));
+        assertThatThrownBy(() -> service.criar(dto))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Locação não encontrada");
+
+        when(reservaRepo.diagnosticar(1, 1)).thenReturn(new DiagnosticoReserva(true, 48, 72));
+        assertThatThrownBy(() -> service.criar(dto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("abaixo do tempo mínimo");
+    }
+
+    @Test
+    void criar_cancelada_naoVerificaConflito() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fim    = inicio.plusDays(1);
+        ReservaPostDTO dto = new ReservaPostDTO(1,1, inicio, fim, SituacaoReserva.CANCELADA);
+
+        when(reservaRepo.inserirSeDisponivel(1, 1, inicio, fim, 24L, null, SituacaoReserva.CANCELADA))
+                .thenReturn(Optional.of(new ReservaGetDTO(11, 1, 1, inicio, fim, new BigDecimal("240.00"), SituacaoReserva.CANCELADA, null)));
+
+        service.criar(dto);
+
+        verifyNoInteractions(disponibilidade);
     }
 
     @Test
     void atualizar_deveTrocarClienteELocacao_ValidandoConflito() {
-        LocalDate inicio = LocalDate.now();
-        LocalDate fim    = inicio.plusDays(2);
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fim    = inicio.plusDays(2);
 
         ReservaEntity existente = new ReservaEntity();
         existente.setId(5);
@@ -99,12 +217,14 @@ class ReservaServiceTest {
         existente.setDataFim(fim);
 
         ClienteEntity novoCliente = new ClienteEntity(2,"Ana","ana@mail.com","118","22222222222",null);
-        LocacaoEntity novaLocacao = new LocacaoEntity(2,"Sala B", TiposLocacao.TEMPORADA,"", new BigDecimal("20.00"), 24, 72, null);
+        LocacaoEntity novaLocacao = new LocacaoEntity(2,"Sala B", TiposLocacao.TEMPORADA,"", new BigDecimal("20.00"), 24, 72, 1, null);
 
+        when(reservaRepo.findDTOById(5)).thenReturn(Optional.of(
+                new ReservaGetDTO(5, 1, 1, inicio, fim, null, SituacaoReserva.CONFIRMADA, null)));
         when(reservaRepo.findById(5)).thenReturn(Optional.of(existente));
         when(clienteRepo.findById(2)).thenReturn(Optional.of(novoCliente));
         when(locacaoRepo.findById(2)).thenReturn(Optional.of(novaLocacao));
-        when(reservaRepo.existsByLocacaoIdAndIdNotAndDataInicioLessThanAndDataFimGreaterThan(eq(2), eq(5), any(), any()))
+        when(disponibilidade.possuiConflito(eq(2), eq(5), any(), any()))
                 .thenReturn(false);
         when(reservaRepo.save(any(ReservaEntity.class))).thenAnswer(inv -> inv.getArgument(0));
         when(mapper.toGetDTO(any(ReservaEntity.class))).thenReturn(
@@ -117,12 +237,48 @@ class ReservaServiceTest {
         assertThat(out.getClienteId()).isEqualTo(2);
         assertThat(out.getLocacaoId()).isEqualTo(2);
         assertThat(out.getValorFinal()).isEqualByComparingTo(new BigDecimal("960.00"));
+        // a locação de antes e a de depois ficam travadas durante a alteração
+        verify(serializador).executarEmTodas(eq(Set.of(1, 2)), any());
+    }
+
+    @Test
+    void atualizarParcial_reservaMovidaAntesDoLock_repeteComALocacaoNova() {
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fim    = inicio.plusDays(1);
+        LocacaoEntity outra = new LocacaoEntity(3,"Sala C", TiposLocacao.TEMPORADA,"", new BigDecimal("10.00"), 1, 48, 1, null);
+
+        // lida na locação 1, mas outra escrita a moveu para a 3 antes do lock
+        ReservaEntity existente = new ReservaEntity();
+        existente.setId(7);
+        existente.setCliente(cliente);
+        existente.setLocacao(outra);
+        existente.setDataInicio(inicio);
+        existente.setDataFim(fim);
+        existente.setSituacao(SituacaoReserva.CONFIRMADA);
+
+        when(reservaRepo.findDTOById(7)).thenReturn(
+                Optional.of(new ReservaGetDTO(7, 1, 1, inicio, fim, null, SituacaoReserva.CONFIRMADA, null)),
+                Optional.of(new ReservaGetDTO(7, 1, 3, inicio, fim, null, SituacaoReserva.CONFIRMADA, null)));
+        when(reservaRepo.findById(7)).thenReturn(Optional.of(existente));
+        when(reservaRepo.save(any(ReservaEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(mapper.toGetDTO(any(ReservaEntity.class))).thenReturn(
+                new ReservaGetDTO(7, 1, 3, inicio, inicio.plusDays(2), null, SituacaoReserva.CONFIRMADA, null));
+
+        ReservaPatchDTO patch = new ReservaPatchDTO();
+        patch.setDataFim(inicio.plusDays(2));
+        service.atualizarParcial(7, patch);
+
+        InOrder ordem = inOrder(serializador);
+        ordem.verify(serializador).executarEmTodas(eq(Set.of(1)), any());
+        ordem.verify(serializador).executarEmTodas(eq(Set.of(3)), any());
+        verify(reservaRepo, times(1)).save(existente);
+        assertThat(existente.getDataFim()).isEqualTo(inicio.plusDays(2));
     }
 
     @Test
     void atualizarParcial_deveValidarRangeETempoMinMax() {
-        LocalDate inicio = LocalDate.now();
-        LocalDate fim    = inicio.plusDays(1);
+        LocalDateTime inicio = LocalDate.now().atStartOfDay();
+        LocalDateTime fim    = inicio.plusDays(1);
 
         ReservaEntity existente = new ReservaEntity();
         existente.setId(7);
@@ -131,6 +287,8 @@ class ReservaServiceTest {
         existente.setDataInicio(inicio);
         existente.setDataFim(fim);
 
+        when(reservaRepo.findDTOById(7)).thenReturn(Optional.of(
+                new ReservaGetDTO(7, 1, 1, inicio, fim, null, SituacaoReserva.CONFIRMADA, null)));
         when(reservaRepo.findById(7)).thenReturn(Optional.of(existente));
 
         ReservaPatchDTO patch = new ReservaPatchDTO();
@@ -143,11 +301,9 @@ class ReservaServiceTest {
 
     @Test
     void deletar_inexistente_deveFalhar() {
-        when(reservaRepo.existsById(99)).thenReturn(false);
+        when(reservaRepo.findById(99)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> service.deletar(99))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Reserva não encontrada");
     }
-
-    private static class ReservationCapture { ReservaEntity entity; }
 }
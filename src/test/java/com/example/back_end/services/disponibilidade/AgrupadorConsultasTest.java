@@ -0,0 +1,122 @@
+package com.example.back_end.services.disponibilidade;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AgrupadorConsultasTest {
+
+    private SimpleMeterRegistry registry;
+    private Counter agrupadas;
+    private Counter esgotadas;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        agrupadas = registry.counter("agrupadas");
+        esgotadas = registry.counter("esgotadas");
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void executar_chamadasSimultaneas_compartilhamUmaConsulta() throws Exception {
+        AgrupadorConsultas<String, Integer> agrupador =
+                new AgrupadorConsultas<>(Duration.ofSeconds(5), agrupadas, esgotadas);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger consultas = new AtomicInteger();
+
+        Future<Integer> primeira = executor.submit(() -> agrupador.executar("fds", () -> {
+            consultas.incrementAndGet();
+            aguardar(liberar);
+            return 42;
+        }));
+        aguardarAte(() -> consultas.get() == 1);
+
+        List<Future<Integer>> demais = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            demais.add(executor.submit(() -> agrupador.executar("fds", () -> consultas.incrementAndGet() + 100)));
+        }
+        aguardarAte(() -> agrupadas.count() == 7);
+        liberar.countDown();
+
+        assertThat(primeira.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        for (Future<Integer> f : demais) {
+            assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(consultas).hasValue(1);
+        assertThat(esgotadas.count()).isZero();
+    }
+
+    @Test
+    void executar_esperaEsgotada_consultaPorContaPropria() throws Exception {
+        AgrupadorConsultas<String, Integer> agrupador =
+                new AgrupadorConsultas<>(Duration.ofMillis(50), agrupadas, esgotadas);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciou = new CountDownLatch(1);
+
+        Future<Integer> lenta = executor.submit(() -> agrupador.executar("fds", () -> {
+            iniciou.countDown();
+            aguardar(liberar);
+            return 1;
+        }));
+        iniciou.await(5, TimeUnit.SECONDS);
+
+        assertThat(agrupador.executar("fds", () -> 2)).isEqualTo(2);
+        assertThat(esgotadas.count()).isEqualTo(1);
+        liberar.countDown();
+        assertThat(lenta.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+    }
+
+    @Test
+    void executar_falhaDaConsulta_chegaATodosEPermiteNovaTentativa() throws Exception {
+        AgrupadorConsultas<String, Integer> agrupador =
+                new AgrupadorConsultas<>(Duration.ofSeconds(5), agrupadas, esgotadas);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch iniciou = new CountDownLatch(1);
+
+        Future<Integer> primeira = executor.submit(() -> agrupador.executar("fds", () -> {
+            iniciou.countDown();
+            aguardar(liberar);
+            throw new IllegalArgumentException("banco fora");
+        }));
+        iniciou.await(5, TimeUnit.SECONDS);
+        Future<Integer> segunda = executor.submit(() -> agrupador.executar("fds", () -> 0));
+        aguardarAte(() -> agrupadas.count() == 1);
+        liberar.countDown();
+
+        assertThatThrownBy(() -> segunda.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> primeira.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(agrupador.executar("fds", () -> 3)).isEqualTo(3);
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void aguardarAte(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertThat(condicao.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.dtos.locacao.LocacaoDisponivelDTO;
+import com.example.back_end.enums.TiposLocacao;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import com.example.back_end.services.disponibilidade.LocacaoAlteradaEvent.Perfil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.data.domain.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CacheDisponibilidadeTest {
+
+    private static final LocalDateTime SEXTA = LocalDate.of(2030, 1, 4).atStartOfDay();
+    private static final Pageable PAGINA = PageRequest.of(0, 20);
+
+    private SimpleMeterRegistry registry;
+    private CacheDisponibilidade cache;
+    private AtomicInteger consultas;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        cache = new CacheDisponibilidade(registry, 100, Duration.ofMinutes(10), Duration.ofSeconds(2));
+        consultas = new AtomicInteger();
+    }
+
+    @Test
+    void obter_mesmaJanela_consultaUmaVez() {
+        consultar(SEXTA, 2);
+        consultar(SEXTA, 2);
+
+        assertThat(consultas).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void aoAlterarReserva_removeSoJanelasSobrepostas() {
+        consultar(SEXTA, 2);
+        consultar(SEXTA.plusDays(7), 2);
+
+        cache.aoAlterarReserva(ReservaAlteradaEvent.criada(
+                new PeriodoReserva(1, 9, SEXTA.plusDays(1), SEXTA.plusDays(3))));
+        consultar(SEXTA, 2);
+        consultar(SEXTA.plusDays(7), 2);
+
+        assertThat(consultas).hasValue(3);
+        assertThat(invalidacoes("reserva")).isEqualTo(1);
+    }
+
+    @Test
+    void aoAlterarReserva_fimExclusivoNaoInvalida() {
+        consultar(SEXTA, 2);
+
+        cache.aoAlterarReserva(ReservaAlteradaEvent.removida(
+                new PeriodoReserva(1, 9, SEXTA.minusDays(2), SEXTA)));
+        consultar(SEXTA, 2);
+
+        assertThat(consultas).hasValue(1);
+    }
+
+    @Test
+    void aoAlterarReserva_janelasPorHora_removeSoAsSobrepostas() {
+        cache.obter(SEXTA.plusHours(9), SEXTA.plusHours(11), 2, FiltroDisponibilidade.NENHUM, PAGINA, Page::empty);
+        cache.obter(SEXTA.plusHours(14), SEXTA.plusHours(16), 2, FiltroDisponibilidade.NENHUM, PAGINA, Page::empty);
+
+        cache.aoAlterarReserva(ReservaAlteradaEvent.criada(
+                new PeriodoReserva(1, 9, SEXTA.plusHours(10), SEXTA.plusHours(14))));
+
+        assertThat(invalidacoes("reserva")).isEqualTo(1);
+    }
+
+    @Test
+    void aoAlterarLocacao_consideraFaixaDeTempo() {
+        consultar(SEXTA, 1);                 // 24h
+        consultar(SEXTA.plusDays(7), 3);     // 72h
+        consultar(SEXTA.plusDays(14), 10);   // 240h
+
+        // a locação 1 passa de 1..48h para 1..96h: mudam as buscas de 24h e 72h, não a de 240h
+        cache.aoAlterarLocacao(LocacaoAlteradaEvent.alterada(1, perfil(BigDecimal.TEN, 1, 48), perfil(BigDecimal.TEN, 1, 96)));
+        consultar(SEXTA, 1);
+        consultar(SEXTA.plusDays(7), 3);
+        consultar(SEXTA.plusDays(14), 10);
+
+        assertThat(consultas).hasValue(5);
+        assertThat(invalidacoes("locacao")).isEqualTo(2);
+    }
+
+    @Test
+    void aoAlterarLocacao_consideraFiltroDePreco() {
+        FiltroDisponibilidade ate300 = new FiltroDisponibilidade(null, new BigDecimal("300"));
+        consultar(SEXTA.plusDays(7), 1, ate300);   // 24h: exibe a locação 1 (240)
+        consultar(SEXTA.plusDays(14), 2, ate300);  // 48h: 480 passa do limite
+
+        // a locação 1 cai de 10 para 5 por hora: entra na busca de 48h e muda a página de 24h
+        cache.aoAlterarLocacao(LocacaoAlteradaEvent.alterada(1, perfil(BigDecimal.TEN, 1, 48),
+                perfil(new BigDecimal("5"), 1, 48)));
+        consultar(SEXTA.plusDays(7), 1, ate300);
+        consultar(SEXTA.plusDays(14), 2, ate300);
+
+        assertThat(consultas).hasValue(4);
+    }
+
+    @Test
+    void aoAlterarLocacao_admitidaAntesEDepois_removeTodasAsPaginasDaBusca() {
+        cache.obter(SEXTA, SEXTA.plusDays(1), 24, FiltroDisponibilidade.NENHUM, PageRequest.of(0, 20, Sort.by("valorHora")),
+                Page::empty);
+        cache.obter(SEXTA, SEXTA.plusDays(1), 24, FiltroDisponibilidade.NENHUM, PageRequest.of(1, 20, Sort.by("valorHora")),
+                Page::empty);
+
+        // a locação 9 não aparece em nenhuma das duas, mas o novo valor pode levá-la a qualquer uma
+        cache.aoAlterarLocacao(LocacaoAlteradaEvent.alterada(9, perfil(BigDecimal.TEN, 1, 48),
+                perfil(BigDecimal.ONE, 1, 48)));
+
+        assertThat(invalidacoes("locacao")).isEqualTo(2);
+    }
+
+    @Test
+    void aoAlterarLocacao_cargaEmLoteInvalidaTudo() {
+        consultar(SEXTA, 1);
+        consultar(SEXTA.plusDays(7), 3);
+
+        cache.aoAlterarLocacao(LocacaoAlteradaEvent.carga());
+        consultar(SEXTA, 1);
+        consultar(SEXTA.plusDays(7), 3);
+
+        assertThat(consultas).hasValue(4);
+    }
+
+    @Test
+    void valorHoraMaximo_truncaEmCentavos() {
+        FiltroDisponibilidade filtro = new FiltroDisponibilidade(null, new BigDecimal("100"));
+
+        assertThat(filtro.valorHoraMaximo(72)).isEqualByComparingTo("1.38");
+        assertThat(filtro.aceita(TiposLocacao.TEMPORADA, new BigDecimal("1.38"), 72)).isTrue();
+        assertThat(filtro.aceita(TiposLocacao.TEMPORADA, new BigDecimal("1.39"), 72)).isFalse();
+        assertThat(FiltroDisponibilidade.NENHUM.valorHoraMaximo(72)).isNull();
+    }
+
+    @Test
+    void obter_invalidacaoDuranteConsulta_naoGuardaResultado() {
+        cache.obter(SEXTA, SEXTA.plusDays(2), 48, FiltroDisponibilidade.NENHUM, PAGINA, () -> {
+            cache.aoAlterarReserva(ReservaAlteradaEvent.criada(
+                    new PeriodoReserva(1, 9, SEXTA.plusDays(20), SEXTA.plusDays(21))));
+            return Page.empty();
+        });
+        consultar(SEXTA, 2);
+
+        assertThat(consultas).hasValue(1);
+    }
+
+    private void consultar(LocalDateTime inicio, int dias) {
+        consultar(inicio, dias, FiltroDisponibilidade.NENHUM);
+    }
+
+    private void consultar(LocalDateTime inicio, int dias, FiltroDisponibilidade filtro) {
+        cache.obter(inicio, inicio.plusDays(dias), dias * 24, filtro, PAGINA, () -> {
+            consultas.incrementAndGet();
+            return new PageImpl<>(List.of(new LocacaoDisponivelDTO(1, "Sala", TiposLocacao.TEMPORADA, "",
+                    BigDecimal.TEN, 1, 48, 1, null, BigDecimal.TEN.multiply(BigDecimal.valueOf(dias * 24L)))), PAGINA, 1);
+        });
+    }
+
+    private static Perfil perfil(BigDecimal valorHora, int tempoMinimo, int tempoMaximo) {
+        return new Perfil(TiposLocacao.TEMPORADA, valorHora, tempoMinimo, tempoMaximo, 1);
+    }
+
+    private double invalidacoes(String origem) {
+        return registry.get("disponibilidade.cache.invalidacoes").tag("origem", origem).counter().count();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Compara o calendário em bits (estrategia=calendario) ao índice de intervalos (estrategia=memoria)
+ * com reservas de dias inteiros: 5000 locações e 500 mil reservas, como a carga de
+ * src/test/resources/benchmark/disponiveis_anti_join.sql, que mede a busca da estratégia SQL
+ * (LocacaoService.listarDisponiveis sem índice em memória) no banco. Roda só com -Dbenchmark=true:
+ *
+ *   mvn test -Dtest=CalendarioOcupacaoBenchmarkTest -Dbenchmark=true
+ *
+ * Todas as buscas são medidas antes de avaliar. A falha lista os tempos e a memória do calendário.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CalendarioOcupacaoBenchmarkTest {
+
+    private static final LocalDateTime HOJE = LocalDate.of(2030, 1, 1).atStartOfDay();
+    private static final int LOCACOES = 5_000;
+    private static final int RESERVAS_POR_LOCACAO = 100;
+    private static final int HORIZONTE_DIAS = 800;
+    private static final int CONSULTAS = 200_000;
+    private static final int CONSULTAS_OCUPADAS = 1_000;
+    private static final int AQUECIMENTO = 5;
+    private static final int RODADAS = 15;
+    // margem para o ruído de medição da JVM
+    private static final double TOLERANCIA = 1.10;
+
+    private final SoftAssertions resultados = new SoftAssertions();
+
+    @Test
+    void calendario_naoFicaMaisLentoQueOsIntervalos() {
+        Random r = new Random(42);
+        List<PeriodoReserva> reservas = reservas(r);
+        LocalDateTime[][] janelas = janelas(r);
+        int[] locacoes = r.ints(CONSULTAS, 1, LOCACOES + 1).toArray();
+
+        IndiceIntervalos intervalos = new IndiceIntervalos();
+        intervalos.substituir(reservas);
+        CalendarioOcupacao calendario = new CalendarioOcupacao(
+                Clock.fixed(HOJE.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 0, HORIZONTE_DIAS);
+        calendario.substituir(reservas);
+
+        comparar("possuiConflito", conflitos(intervalos, janelas, locacoes), conflitos(calendario, janelas, locacoes),
+                CONSULTAS);
+        comparar("locacoesOcupadas", ocupadas(intervalos, janelas), ocupadas(calendario, janelas), CONSULTAS_OCUPADAS);
+
+        // duas visões de um bit por locação por dia
+        long bytesPorLocacao = calendario.bytesTotais() / LOCACOES;
+        resultados.assertThat(bytesPorLocacao)
+                .as("memória do calendário: %d bytes por locação (%d na visão por locação), %d no total",
+                        bytesPorLocacao, calendario.bytesPorLocacao(), calendario.bytesTotais())
+                .isLessThanOrEqualTo(2 * calendario.bytesPorLocacao());
+        resultados.assertAll();
+    }
+
+    // reservas de 1 a 7 dias com folgas de até 3 dias, todas dentro do horizonte
+    private static List<PeriodoReserva> reservas(Random r) {
+        List<PeriodoReserva> reservas = new ArrayList<>();
+        for (int l = 1; l <= LOCACOES; l++) {
+            LocalDateTime t = HOJE.plusDays(r.nextInt(4));
+            for (int i = 0; i < RESERVAS_POR_LOCACAO; i++) {
+                LocalDateTime fim = t.plusDays(1 + r.nextInt(7));
+                reservas.add(new PeriodoReserva(reservas.size() + 1, l, t, fim));
+                t = fim.plusDays(r.nextInt(4));
+            }
+        }
+        return reservas;
+    }
+
+    private static LocalDateTime[][] janelas(Random r) {
+        LocalDateTime[][] janelas = new LocalDateTime[CONSULTAS][];
+        for (int q = 0; q < CONSULTAS; q++) {
+            LocalDateTime inicio = HOJE.plusDays(r.nextInt(500));
+            janelas[q] = new LocalDateTime[] {inicio, inicio.plusDays(1 + r.nextInt(7))};
+        }
+        return janelas;
+    }
+
+    private static IntUnaryOperator conflitos(IndiceDisponibilidade indice, LocalDateTime[][] janelas, int[] locacoes) {
+        return q -> indice.possuiConflito(locacoes[q], null, janelas[q][0], janelas[q][1]) ? 1 : 0;
+    }
+
+    private static IntUnaryOperator ocupadas(IndiceDisponibilidade indice, LocalDateTime[][] janelas) {
+        return q -> indice.locacoesOcupadas(janelas[q][0], janelas[q][1]).size();
+    }
+
+    private void comparar(String nome, IntUnaryOperator intervalos, IntUnaryOperator calendario, int consultas) {
+        ComparacaoTempos.Medianas medianas = ComparacaoTempos.medir(intervalos, calendario, consultas, AQUECIMENTO, RODADAS);
+        resultados.assertThat(medianas.depois())
+                .as(medianas.descrever(nome, "intervalos", "calendário"))
+                .isLessThanOrEqualTo(medianas.antes() * TOLERANCIA);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import org.junit.jupiter.api.*;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CalendarioOcupacaoTest {
+
+    private static final LocalDateTime HOJE = LocalDate.of(2025, 1, 10).atStartOfDay();
+
+    private CalendarioOcupacao calendario;
+
+    @BeforeEach
+    void setup() {
+        Clock clock = Clock.fixed(HOJE.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        calendario = new CalendarioOcupacao(clock, 10, 200);
+        calendario.substituir(List.of(
+                new PeriodoReserva(1, 1, HOJE, HOJE.plusDays(3)),
+                // atravessa a fronteira entre palavras de 64 bits
+                new PeriodoReserva(2, 1, HOJE.plusDays(50), HOJE.plusDays(70)),
+                new PeriodoReserva(3, 130, HOJE.plusDays(1), HOJE.plusDays(2))));
+    }
+
+    @Test
+    void possuiConflito_sobreposicao() {
+        assertThat(calendario.possuiConflito(1, null, HOJE.plusDays(2), HOJE.plusDays(5))).isTrue();
+        assertThat(calendario.possuiConflito(1, null, HOJE.plusDays(60), HOJE.plusDays(61))).isTrue();
+        assertThat(calendario.possuiConflito(1, null, HOJE.minusDays(5), HOJE.plusDays(100))).isTrue();
+    }
+
+    @Test
+    void possuiConflito_intervalosAdjacentesNaoConflitam() {
+        assertThat(calendario.possuiConflito(1, null, HOJE.plusDays(3), HOJE.plusDays(50))).isFalse();
+        assertThat(calendario.possuiConflito(1, null, HOJE.plusDays(70), HOJE.plusDays(150))).isFalse();
+        assertThat(calendario.possuiConflito(2, null, HOJE, HOJE.plusDays(100))).isFalse();
+    }
+
+    @Test
+    void possuiConflito_ignoraAPropriaReserva() {
+        assertThat(calendario.possuiConflito(1, 2, HOJE.plusDays(45), HOJE.plusDays(75))).isFalse();
+        assertThat(calendario.possuiConflito(1, 2, HOJE.plusDays(1), HOJE.plusDays(75))).isTrue();
+    }
+
+    @Test
+    void registrarERemover_atualizamAsDuasVisoes() {
+        calendario.registrar(new PeriodoReserva(1, 1, HOJE.plusDays(100), HOJE.plusDays(101)));
+
+        assertThat(calendario.possuiConflito(1, null, HOJE, HOJE.plusDays(3))).isFalse();
+        assertThat(calendario.locacoesOcupadas(HOJE.plusDays(100), HOJE.plusDays(101))).containsExactly(1);
+
+        calendario.remover(1);
+
+        assertThat(calendario.locacoesOcupadas(HOJE.plusDays(100), HOJE.plusDays(101))).isEmpty();
+        assertThat(calendario.snapshot()).containsOnlyKeys(2, 3);
+    }
+
+    @Test
+    void reservasPorHora_respondemEmHorasSemPerderAsOutrasDoDia() {
+        LocalDateTime dia = HOJE.plusDays(5);
+        calendario.registrar(new PeriodoReserva(10, 7, dia.plusHours(9), dia.plusHours(11)));
+        calendario.registrar(new PeriodoReserva(11, 7, dia.plusHours(14), dia.plusHours(16)));
+
+        // o dia está marcado, mas a resposta vem dos intervalos
+        assertThat(calendario.possuiConflito(7, null, dia.plusHours(11), dia.plusHours(14))).isFalse();
+        assertThat(calendario.possuiConflito(7, 10, dia.plusHours(8), dia.plusHours(12))).isFalse();
+        assertThat(calendario.possuiConflito(7, 10, dia.plusHours(8), dia.plusHours(15))).isTrue();
+        assertThat(calendario.possuiConflito(7, null, dia.plusDays(1), dia.plusDays(1).plusHours(2))).isFalse();
+        assertThat(calendario.locacoesOcupadas(dia.plusHours(11), dia.plusHours(14))).isEmpty();
+        assertThat(calendario.sobrepostas(7, dia.plusHours(10), dia.plusHours(15)))
+                .extracting(PeriodoReserva::reservaId).containsExactly(10, 11);
+
+        calendario.remover(10);
+
+        assertThat(calendario.locacoesOcupadas(dia.plusHours(9), dia.plusHours(10))).isEmpty();
+        assertThat(calendario.locacoesOcupadas(dia.plusHours(15), dia.plusHours(17))).containsExactly(7);
+        calendario.remover(11);
+        assertThat(calendario.locacoesOcupadas(dia, dia.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void diasInteirosDecidemPelosBits_bordasPelosMinutos() {
+        LocalDateTime dia = HOJE.plusDays(5);
+        calendario.registrar(new PeriodoReserva(10, 7, dia.plusHours(9), dia.plusHours(11)));
+
+        // o dia 5 está inteiro na janela: o bit basta
+        assertThat(calendario.possuiConflito(7, null, dia.minusHours(4), dia.plusDays(1))).isTrue();
+        assertThat(calendario.locacoesOcupadas(dia.minusHours(4), dia.plusDays(1))).containsExactly(7);
+        // o dia 5 é borda: o bit só aponta a candidata
+        assertThat(calendario.possuiConflito(7, null, dia.plusHours(12), dia.plusDays(1).plusHours(3))).isFalse();
+        assertThat(calendario.possuiConflito(7, null, dia.minusDays(1).plusHours(20), dia.plusHours(10))).isTrue();
+        assertThat(calendario.locacoesOcupadas(dia.plusHours(11), dia.plusDays(1))).isEmpty();
+        assertThat(calendario.locacoesOcupadas(dia.minusHours(12), dia.plusHours(10))).containsExactly(7);
+        assertThat(calendario.sobrepostas(7, dia.plusDays(1), dia.plusDays(3))).isEmpty();
+    }
+
+    @Test
+    void janelaForaDoHorizonte_vaiAosIntervalos() {
+        assertThat(calendario.possuiConflito(1, null, HOJE.plusDays(60), LocalDateTime.MAX)).isTrue();
+        assertThat(calendario.possuiConflito(1, null, LocalDateTime.MIN, HOJE.minusDays(20))).isFalse();
+        assertThat(calendario.sobrepostas(1, HOJE.minusDays(20), HOJE.plusDays(1)))
+                .extracting(PeriodoReserva::reservaId).containsExactly(1);
+    }
+
+    @Test
+    void locacoesOcupadas_combinaOsDiasDoPeriodo() {
+        assertThat(calendario.locacoesOcupadas(HOJE.plusDays(1), HOJE.plusDays(2))).containsExactlyInAnyOrder(1, 130);
+        assertThat(calendario.locacoesOcupadas(HOJE.plusDays(2), HOJE.plusDays(60))).containsExactly(1);
+        assertThat(calendario.locacoesOcupadas(HOJE.plusDays(3), HOJE.plusDays(50))).isEmpty();
+    }
+
+    @Test
+    void cobre_somenteDentroDoHorizonte() {
+        assertThat(calendario.cobre(HOJE.minusDays(10), HOJE.plusDays(200))).isTrue();
+        assertThat(calendario.cobre(HOJE.minusDays(11), HOJE)).isFalse();
+        assertThat(calendario.cobre(HOJE, HOJE.plusDays(201))).isFalse();
+    }
+
+    @Test
+    void bytesPorLocacao_umBitPorDia() {
+        // 210 dias -> 4 palavras de 64 bits
+        assertThat(calendario.bytesPorLocacao()).isEqualTo(32);
+    }
+}
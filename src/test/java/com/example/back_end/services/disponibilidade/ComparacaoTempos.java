@@ -0,0 +1,61 @@
+package com.example.back_end.services.disponibilidade;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.IntUnaryOperator;
+
+// Mediana em ns por consulta de duas versões da mesma busca, medidas em rodadas alternadas:
+// aquecimento e ruído da JVM pesam igual nos dois lados. Usada pelos benchmarks opcionais.
+final class ComparacaoTempos {
+
+    private ComparacaoTempos() {
+    }
+
+    record Medianas(double antes, double depois) {
+
+        double razao() {
+            return depois / antes;
+        }
+
+        String descrever(String nome, String rotuloAntes, String rotuloDepois) {
+            return String.format(Locale.ROOT, "%s: %s %.1f ns/op, %s %.1f ns/op, razão %.2f",
+                    nome, rotuloAntes, antes, rotuloDepois, depois, razao());
+        }
+    }
+
+    static Medianas medir(IntUnaryOperator antes, IntUnaryOperator depois, int consultas, int aquecimento,
+            int rodadas) {
+        double[] nsAntes = new double[rodadas];
+        double[] nsDepois = new double[rodadas];
+        long sumidouro = 0;
+        for (int rodada = -aquecimento; rodada < rodadas; rodada++) {
+            long t0 = System.nanoTime();
+            sumidouro += executar(antes, consultas);
+            long t1 = System.nanoTime();
+            sumidouro += executar(depois, consultas);
+            long t2 = System.nanoTime();
+            if (rodada >= 0) {
+                nsAntes[rodada] = (t1 - t0) / (double) consultas;
+                nsDepois[rodada] = (t2 - t1) / (double) consultas;
+            }
+        }
+        // o resultado das consultas precisa ser usado para o JIT não descartá-las
+        if (sumidouro == Long.MIN_VALUE) {
+            throw new IllegalStateException();
+        }
+        return new Medianas(mediana(nsAntes), mediana(nsDepois));
+    }
+
+    private static long executar(IntUnaryOperator consulta, int consultas) {
+        long soma = 0;
+        for (int q = 0; q < consultas; q++) {
+            soma += consulta.applyAsInt(q);
+        }
+        return soma;
+    }
+
+    private static double mediana(double[] rodadas) {
+        Arrays.sort(rodadas);
+        return rodadas[rodadas.length / 2];
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.repositories.LocacaoRepository;
+import com.example.back_end.repositories.ReservaRepository;
+import com.example.back_end.repositories.projections.CapacidadeLocacao;
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+import org.springframework.data.domain.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DisponibilidadeMemoriaTest {
+
+    private static final LocalDateTime D = LocalDate.of(2025, 1, 10).atStartOfDay();
+
+    @Mock private ReservaRepository reservaRepo;
+    @Mock private LocacaoRepository locacaoRepo;
+
+    private DisponibilidadeMemoria disponibilidade;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(reservaRepo.findAllPeriodos()).thenReturn(List.of(
+                new PeriodoReserva(1, 1, D.plusHours(9), D.plusHours(11)),
+                // locação 2 tem duas unidades
+                new PeriodoReserva(2, 2, D.plusHours(9), D.plusHours(11)),
+                new PeriodoReserva(3, 2, D.plusHours(10), D.plusHours(12))));
+        when(locacaoRepo.findCapacidadesMultiplas()).thenReturn(List.of(new CapacidadeLocacao(2, 2)));
+        disponibilidade = new DisponibilidadeMemoria(reservaRepo, locacaoRepo);
+        disponibilidade.carregar();
+        clearInvocations(reservaRepo);
+        clearInvocations(locacaoRepo);
+    }
+
+    @Test
+    void possuiConflito_decideSemIrAoBanco() {
+        assertThat(disponibilidade.possuiConflito(1, null, D.plusHours(10), D.plusHours(12))).isTrue();
+        assertThat(disponibilidade.possuiConflito(1, 1, D.plusHours(10), D.plusHours(12))).isFalse();
+        assertThat(disponibilidade.possuiConflito(2, null, D.plusHours(10), D.plusHours(11))).isTrue();
+        assertThat(disponibilidade.possuiConflito(2, null, D.plusHours(11), D.plusHours(12))).isFalse();
+        assertThat(disponibilidade.possuiConflito(2, 3, D.plusHours(10), D.plusHours(11))).isFalse();
+
+        verifyNoInteractions(reservaRepo, locacaoRepo);
+    }
+
+    @Test
+    void listarDisponiveis_excluiSoAsLotadasEmUmArray() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(locacaoRepo.findAdmitindoExceto(any(), anyInt(), any(), any(), any())).thenReturn(Page.empty());
+
+        disponibilidade.listarDisponiveis(D.plusHours(9), D.plusHours(12), 3, FiltroDisponibilidade.NENHUM, pageable);
+
+        verify(locacaoRepo).findAdmitindoExceto(new Integer[] {1, 2}, 3, null, null, pageable);
+    }
+
+    @Test
+    void listarDisponiveis_comUnidadeLivre_naoExclui() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(locacaoRepo.findAdmitindoExceto(any(), anyInt(), any(), any(), any())).thenReturn(Page.empty());
+
+        disponibilidade.listarDisponiveis(D.plusHours(11), D.plusHours(12), 1, FiltroDisponibilidade.NENHUM, pageable);
+
+        verify(locacaoRepo).findAdmitindo(1, null, null, pageable);
+        verify(locacaoRepo, never()).findAdmitindoExceto(any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void aoAlterarLocacao_atualizaAQuantidade() {
+        LocacaoAlteradaEvent.Perfil perfil = new LocacaoAlteradaEvent.Perfil(null, null, 1, 48, 1);
+        disponibilidade.aoAlterarLocacao(LocacaoAlteradaEvent.alterada(2, perfil, perfil));
+
+        assertThat(disponibilidade.possuiConflito(2, null, D.plusHours(11), D.plusHours(12))).isTrue();
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Compara as buscas em memória do caminho por dia, com N reservas, às do caminho por hora, com 10N,
+ * na mesma quantidade de locações e de consultas. O índice de intervalos por dia é a cópia do que
+ * havia até a V7 (IndicePorDia); a varredura não mudou de algoritmo e roda as duas cargas. Com
+ * janelas de horas todo dia marcado é borda e o calendário confirma as candidatas nos intervalos
+ * em minutos, então ele é comparado aos próprios intervalos na carga por hora. Roda só com
+ * -Dbenchmark=true:
+ *
+ *   mvn test -Dtest=DisponibilidadePorHoraBenchmarkTest -Dbenchmark=true
+ *
+ * Todas as buscas são medidas antes de avaliar. A falha lista os tempos das que passaram da margem.
+ *
+ * A parte do banco (GiST sobre daterange e tsrange) está em src/test/resources/benchmark/reservas_por_hora.sql.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class DisponibilidadePorHoraBenchmarkTest {
+
+    private static final LocalDateTime HOJE = LocalDate.of(2030, 1, 1).atStartOfDay();
+    private static final int LOCACOES = 200;
+    private static final int RESERVAS_POR_LOCACAO = 100;
+    private static final int CONSULTAS = 200_000;
+    private static final int CONSULTAS_OCUPADAS = 2_000;
+    private static final int AQUECIMENTO = 5;
+    private static final int RODADAS = 15;
+    // margem para o ruído de medição da JVM
+    private static final double TOLERANCIA = 1.10;
+
+    private final SoftAssertions resultados = new SoftAssertions();
+
+    @Test
+    void porHora_comDezVezesAsLinhas_naoFicaMaisLentoQuePorDia() {
+        Carga dia = porDia(new Random(42));
+        Carga hora = porHora(new Random(42));
+        assertThat(hora.reservas()).hasSize(10 * dia.reservas().size());
+
+        IndicePorDia porDia = new IndicePorDia(dia.reservas());
+        comparar("intervalos.possuiConflito", q -> porDia.possuiConflito(dia.locacoes()[q], dia.janelas()[q]) ? 1 : 0,
+                conflitos(new IndiceIntervalos(), hora), CONSULTAS);
+        comparar("intervalos.locacoesOcupadas", q -> porDia.locacoesOcupadas(dia.janelas()[q]).size(),
+                ocupadas(new IndiceIntervalos(), hora), CONSULTAS_OCUPADAS);
+        // na carga por hora os bits do calendário só filtram: não pode custar mais que ir direto aos intervalos
+        comparar("calendario.possuiConflito", conflitos(new IndiceIntervalos(), hora), conflitos(calendario(), hora),
+                "intervalos", "calendário", CONSULTAS);
+        comparar("calendario.locacoesOcupadas", ocupadas(new IndiceIntervalos(), hora), ocupadas(calendario(), hora),
+                "intervalos", "calendário", CONSULTAS_OCUPADAS);
+        comparar("ocupacao.primeiraLacuna", lacunas(dia, Duration.ofDays(2)), lacunas(hora, Duration.ofHours(2)), CONSULTAS);
+        resultados.assertAll();
+    }
+
+    // reservas de 1 a 3 dias com folgas de até 1 dia
+    private static Carga porDia(Random r) {
+        List<PeriodoReserva> reservas = new ArrayList<>();
+        for (int l = 0; l < LOCACOES; l++) {
+            LocalDateTime t = HOJE.plusDays(r.nextInt(3));
+            for (int i = 0; i < RESERVAS_POR_LOCACAO; i++) {
+                LocalDateTime fim = t.plusDays(1 + r.nextInt(3));
+                reservas.add(new PeriodoReserva(reservas.size() + 1, l, t, fim));
+                t = fim.plusDays(r.nextInt(2));
+            }
+        }
+        LocalDateTime[][] janelas = new LocalDateTime[CONSULTAS][];
+        for (int q = 0; q < CONSULTAS; q++) {
+            LocalDateTime inicio = HOJE.plusDays(r.nextInt(250));
+            janelas[q] = new LocalDateTime[] {inicio, inicio.plusDays(1 + r.nextInt(3))};
+        }
+        return new Carga(reservas, janelas, r.ints(CONSULTAS, 0, LOCACOES).toArray());
+    }
+
+    // dez vezes mais reservas, de 1 a 4 horas com folgas de até 3 horas, no mesmo horizonte
+    private static Carga porHora(Random r) {
+        List<PeriodoReserva> reservas = new ArrayList<>();
+        for (int l = 0; l < LOCACOES; l++) {
+            LocalDateTime t = HOJE.plusHours(r.nextInt(24));
+            for (int i = 0; i < 10 * RESERVAS_POR_LOCACAO; i++) {
+                LocalDateTime fim = t.plusHours(1 + r.nextInt(4));
+                reservas.add(new PeriodoReserva(reservas.size() + 1, l, t, fim));
+                t = fim.plusHours(r.nextInt(4));
+            }
+        }
+        LocalDateTime[][] janelas = new LocalDateTime[CONSULTAS][];
+        for (int q = 0; q < CONSULTAS; q++) {
+            LocalDateTime inicio = HOJE.plusHours(r.nextInt(250 * 24));
+            janelas[q] = new LocalDateTime[] {inicio, inicio.plusHours(1 + r.nextInt(4))};
+        }
+        return new Carga(reservas, janelas, r.ints(CONSULTAS, 0, LOCACOES).toArray());
+    }
+
+    private static CalendarioOcupacao calendario() {
+        return new CalendarioOcupacao(Clock.fixed(HOJE.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), 10, 400);
+    }
+
+    private static IntUnaryOperator conflitos(IndiceDisponibilidade indice, Carga carga) {
+        indice.substituir(carga.reservas());
+        return q -> {
+            LocalDateTime[] j = carga.janelas()[q];
+            return indice.possuiConflito(carga.locacoes()[q], null, j[0], j[1]) ? 1 : 0;
+        };
+    }
+
+    private static IntUnaryOperator ocupadas(IndiceDisponibilidade indice, Carga carga) {
+        indice.substituir(carga.reservas());
+        return q -> {
+            LocalDateTime[] j = carga.janelas()[q];
+            return indice.locacoesOcupadas(j[0], j[1]).size();
+        };
+    }
+
+    // como streamPeriodosAPartirDe: as reservas da locação que terminam depois de aPartirDe, em ordem de início
+    private static IntUnaryOperator lacunas(Carga carga, Duration duracao) {
+        List<List<PeriodoReserva>> porLocacao = new ArrayList<>();
+        for (int l = 0; l < LOCACOES; l++) {
+            porLocacao.add(new ArrayList<>());
+        }
+        carga.reservas().forEach(p -> porLocacao.get(p.locacaoId()).add(p));
+        return q -> {
+            List<PeriodoReserva> reservas = porLocacao.get(carga.locacoes()[q]);
+            LocalDateTime aPartirDe = carga.janelas()[q][0];
+            int de = 0;
+            int ate = reservas.size();
+            while (de < ate) {
+                int meio = (de + ate) >>> 1;
+                if (reservas.get(meio).dataFim().isAfter(aPartirDe)) {
+                    ate = meio;
+                } else {
+                    de = meio + 1;
+                }
+            }
+            return OcupacaoSimultanea.primeiraLacuna(reservas.subList(de, reservas.size()).iterator(),
+                    aPartirDe, duracao, 1).getDayOfYear();
+        };
+    }
+
+    private void comparar(String nome, IntUnaryOperator dia, IntUnaryOperator hora, int consultas) {
+        comparar(nome, dia, hora, "dia", "hora (10x linhas)", consultas);
+    }
+
+    private void comparar(String nome, IntUnaryOperator antes, IntUnaryOperator depois, String rotuloAntes,
+            String rotuloDepois, int consultas) {
+        ComparacaoTempos.Medianas medianas = ComparacaoTempos.medir(antes, depois, consultas, AQUECIMENTO, RODADAS);
+        resultados.assertThat(medianas.depois())
+                .as(medianas.descrever(nome, rotuloAntes, rotuloDepois))
+                .isLessThanOrEqualTo(medianas.antes() * TOLERANCIA);
+    }
+
+    // o índice de intervalos até a V7: árvore por data de início e maior duração em dias
+    private static class IndicePorDia {
+        private final Map<Integer, NavigableMap<LocalDate, List<PeriodoReserva>>> porLocacao = new HashMap<>();
+        private final Map<Integer, Long> maiorDuracaoDias = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        IndicePorDia(List<PeriodoReserva> reservas) {
+            for (PeriodoReserva p : reservas) {
+                porLocacao.computeIfAbsent(p.locacaoId(), id -> new TreeMap<>())
+                        .computeIfAbsent(p.dataInicio().toLocalDate(), d -> new ArrayList<>(1)).add(p);
+                maiorDuracaoDias.merge(p.locacaoId(), ChronoUnit.DAYS.between(p.dataInicio(), p.dataFim()), Math::max);
+            }
+        }
+
+        boolean possuiConflito(Integer locacaoId, LocalDateTime[] janela) {
+            lock.readLock().lock();
+            try {
+                NavigableMap<LocalDate, List<PeriodoReserva>> porInicio = porLocacao.get(locacaoId);
+                return porInicio != null && possuiConflito(porInicio, maiorDuracaoDias.get(locacaoId),
+                        janela[0].toLocalDate(), janela[1].toLocalDate());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Set<Integer> locacoesOcupadas(LocalDateTime[] janela) {
+            lock.readLock().lock();
+            try {
+                Set<Integer> ocupadas = new HashSet<>();
+                porLocacao.forEach((locacaoId, porInicio) -> {
+                    if (possuiConflito(porInicio, maiorDuracaoDias.get(locacaoId),
+                            janela[0].toLocalDate(), janela[1].toLocalDate())) {
+                        ocupadas.add(locacaoId);
+                    }
+                });
+                return ocupadas;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static boolean possuiConflito(NavigableMap<LocalDate, List<PeriodoReserva>> porInicio,
+                long maiorDuracaoDias, LocalDate inicio, LocalDate fim) {
+            LocalDate limite = inicio.minusDays(maiorDuracaoDias);
+            for (List<PeriodoReserva> candidatos : porInicio.subMap(limite, false, fim, false).values()) {
+                for (PeriodoReserva r : candidatos) {
+                    if (r.dataFim().toLocalDate().isAfter(inicio)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Carga(List<PeriodoReserva> reservas, LocalDateTime[][] janelas, int[] locacoes) {
+    }
+}
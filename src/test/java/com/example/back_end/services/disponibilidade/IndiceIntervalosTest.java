@@ -0,0 +1,123 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndiceIntervalosTest {
+
+    private static final LocalDateTime D = LocalDate.of(2025, 1, 10).atStartOfDay();
+
+    private IndiceIntervalos indice;
+
+    @BeforeEach
+    void setup() {
+        indice = new IndiceIntervalos();
+        indice.substituir(List.of(
+                new PeriodoReserva(1, 1, D, D.plusDays(3)),
+                new PeriodoReserva(2, 1, D.plusDays(20), D.plusDays(40)),
+                new PeriodoReserva(3, 2, D.plusDays(1), D.plusDays(2))));
+    }
+
+    @Test
+    void possuiConflito_sobreposicao() {
+        assertThat(indice.possuiConflito(1, null, D.plusDays(2), D.plusDays(5))).isTrue();
+        assertThat(indice.possuiConflito(1, null, D.minusDays(2), D.plusDays(1))).isTrue();
+        // reserva longa começa bem antes da janela consultada
+        assertThat(indice.possuiConflito(1, null, D.plusDays(35), D.plusDays(36))).isTrue();
+    }
+
+    @Test
+    void possuiConflito_intervalosAdjacentesNaoConflitam() {
+        assertThat(indice.possuiConflito(1, null, D.plusDays(3), D.plusDays(20))).isFalse();
+        assertThat(indice.possuiConflito(1, null, D.minusDays(1), D)).isFalse();
+        assertThat(indice.possuiConflito(3, null, D, D.plusDays(30))).isFalse();
+    }
+
+    @Test
+    void possuiConflito_ignoraAPropriaReserva() {
+        assertThat(indice.possuiConflito(1, 1, D.plusDays(1), D.plusDays(4))).isFalse();
+        assertThat(indice.possuiConflito(1, 1, D.plusDays(1), D.plusDays(21))).isTrue();
+    }
+
+    @Test
+    void possuiConflito_emHoras() {
+        LocalDateTime dia = D.plusDays(10);
+        indice.registrar(new PeriodoReserva(4, 3, dia.plusHours(9), dia.plusHours(11)));
+
+        assertThat(indice.possuiConflito(3, null, dia.plusHours(10), dia.plusHours(12))).isTrue();
+        assertThat(indice.possuiConflito(3, null, dia.plusHours(11), dia.plusHours(13))).isFalse();
+        assertThat(indice.possuiConflito(3, null, dia.plusHours(7), dia.plusHours(9))).isFalse();
+    }
+
+    @Test
+    void possuiConflito_janelaMuitoDistante_naoEstoura() {
+        LocalDateTime distante = LocalDate.of(9999, 12, 31).atStartOfDay();
+        indice.registrar(new PeriodoReserva(4, 3, distante, distante.plusHours(2)));
+
+        assertThat(indice.possuiConflito(1, null, D, distante)).isTrue();
+        assertThat(indice.possuiConflito(3, null, distante.plusHours(1), LocalDateTime.MAX)).isTrue();
+        assertThat(indice.possuiConflito(3, null, distante.plusHours(2), LocalDateTime.MAX)).isFalse();
+    }
+
+    @Test
+    void registrar_foraDeOrdemEComMesmoInicio_mantemABusca() {
+        LocalDateTime dia = D.plusDays(10);
+        indice.registrar(new PeriodoReserva(5, 4, dia.plusHours(14), dia.plusHours(15)));
+        indice.registrar(new PeriodoReserva(6, 4, dia.plusHours(8), dia.plusHours(9)));
+        indice.registrar(new PeriodoReserva(7, 4, dia.plusHours(14), dia.plusHours(16)));
+        indice.registrar(new PeriodoReserva(8, 4, dia.plusHours(10), dia.plusHours(12)));
+
+        assertThat(indice.possuiConflito(4, null, dia.plusHours(9), dia.plusHours(10))).isFalse();
+        assertThat(indice.possuiConflito(4, null, dia.plusHours(11), dia.plusHours(12))).isTrue();
+        assertThat(indice.possuiConflito(4, 7, dia.plusHours(15), dia.plusHours(16))).isFalse();
+
+        indice.remover(5);
+        assertThat(indice.possuiConflito(4, null, dia.plusHours(15), dia.plusHours(16))).isTrue();
+        indice.remover(7);
+        assertThat(indice.possuiConflito(4, null, dia.plusHours(12), dia.plusHours(20))).isFalse();
+    }
+
+    @Test
+    void sobrepostas_retornaAsReservasDaJanela() {
+        LocalDateTime dia = D.plusDays(10);
+        indice.registrar(new PeriodoReserva(4, 3, dia.plusHours(9), dia.plusHours(11)));
+        indice.registrar(new PeriodoReserva(5, 3, dia.plusHours(10), dia.plusHours(12)));
+        indice.registrar(new PeriodoReserva(6, 3, dia.plusHours(12), dia.plusHours(13)));
+
+        assertThat(indice.sobrepostas(3, dia.plusHours(10), dia.plusHours(12)))
+                .extracting(PeriodoReserva::reservaId).containsExactly(4, 5);
+        assertThat(indice.sobrepostas(3, dia.plusHours(11), dia.plusHours(12)))
+                .extracting(PeriodoReserva::reservaId).containsExactly(5);
+        assertThat(indice.sobrepostas(9, dia, dia.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void registrar_substituiPeriodoAnterior() {
+        indice.registrar(new PeriodoReserva(1, 2, D.plusDays(5), D.plusDays(6)));
+
+        assertThat(indice.possuiConflito(1, null, D, D.plusDays(3))).isFalse();
+        assertThat(indice.possuiConflito(2, null, D.plusDays(5), D.plusDays(6))).isTrue();
+        assertThat(indice.tamanho()).isEqualTo(3);
+    }
+
+    @Test
+    void remover_liberaPeriodo() {
+        indice.remover(2);
+
+        assertThat(indice.possuiConflito(1, null, D.plusDays(25), D.plusDays(26))).isFalse();
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    @Test
+    void locacoesOcupadas_retornaSomenteAsComConflito() {
+        assertThat(indice.locacoesOcupadas(D.plusDays(1), D.plusDays(2))).containsExactlyInAnyOrder(1, 2);
+        assertThat(indice.locacoesOcupadas(D.plusDays(2), D.plusDays(3))).containsExactly(1);
+        assertThat(indice.locacoesOcupadas(D.plusDays(3), D.plusDays(20))).isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.back_end.services.disponibilidade;
+
+import com.example.back_end.repositories.projections.PeriodoReserva;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OcupacaoSimultaneaTest {
+
+    private static final LocalDateTime D = LocalDate.of(2030, 1, 1).atStartOfDay();
+
+    @Test
+    void maximo_contaSoOQueSobrepoeAJanela() {
+        List<PeriodoReserva> periodos = List.of(
+                periodo(1, 0, 3),
+                periodo(2, 1, 2),
+                periodo(3, 1, 4),
+                periodo(4, 5, 6));
+
+        assertThat(OcupacaoSimultanea.maximo(periodos, D, D.plusDays(5))).isEqualTo(3);
+        assertThat(OcupacaoSimultanea.maximo(periodos, D.plusDays(2), D.plusDays(6))).isEqualTo(2);
+        assertThat(OcupacaoSimultanea.maximo(periodos, D.plusDays(4), D.plusDays(5))).isZero();
+    }
+
+    @Test
+    void maximo_fimExclusivoNaoSoma() {
+        List<PeriodoReserva> periodos = List.of(periodo(1, 0, 2), periodo(2, 2, 4), periodo(3, 4, 6));
+
+        assertThat(OcupacaoSimultanea.maximo(periodos, D, D.plusDays(6))).isEqualTo(1);
+    }
+
+    @Test
+    void primeiraLacuna_comQuantidadeUm_exigeDiasSemReserva() {
+        List<PeriodoReserva> periodos = List.of(
+                periodo(1, -1, 1),
+                periodo(2, 2, 4),
+                periodo(3, 6, 7));
+
+        assertThat(OcupacaoSimultanea.primeiraLacuna(periodos.iterator(), D, Duration.ofDays(2), 1)).isEqualTo(D.plusDays(4));
+        assertThat(OcupacaoSimultanea.primeiraLacuna(periodos.iterator(), D, Duration.ofDays(1), 1)).isEqualTo(D.plusDays(1));
+    }
+
+    @Test
+    void primeiraLacuna_comUnidades_esperaOsFinsNecessarios() {
+        List<PeriodoReserva> periodos = List.of(
+                periodo(1, 0, 5),
+                periodo(2, 1, 3),
+                periodo(3, 1, 4));
+
+        assertThat(OcupacaoSimultanea.primeiraLacuna(periodos.iterator(), D, Duration.ofDays(1), 3)).isEqualTo(D);
+        assertThat(OcupacaoSimultanea.primeiraLacuna(periodos.iterator(), D, Duration.ofDays(2), 3)).isEqualTo(D.plusDays(3));
+        assertThat(OcupacaoSimultanea.primeiraLacuna(periodos.iterator(), D, Duration.ofDays(2), 2)).isEqualTo(D.plusDays(4));
+    }
+
+    @Test
+    void primeiraLacuna_emHoras_aproveitaIntervaloEntreReservas() {
+        List<PeriodoReserva> periodos = List.of(
+                new PeriodoReserva(1, 1, D.plusHours(8), D.plusHours(10)),
+                new PeriodoReserva(2, 1, D.plusHours(11), D.plusHours(12)),
+                new PeriodoReserva(3, 1, D.plusHours(14), D.plusHours(18)));
+
+        assertThat(OcupacaoSimultanea.primeiraLacuna(periodos.iterator(), D.plusHours(8), Duration.ofHours(1), 1))
+                .isEqualTo(D.plusHours(10));
+        assertThat(OcupacaoSimultanea.primeiraLacuna(periodos.iterator(), D.plusHours(8), Duration.ofHours(2), 1))
+                .isEqualTo(D.plusHours(12));
+        assertThat(OcupacaoSimultanea.maximo(periodos, D.plusHours(9), D.plusHours(15))).isEqualTo(1);
+    }
+
+    private static PeriodoReserva periodo(int id, int de, int ate) {
+        return new PeriodoReserva(id, 1, D.plusDays(de), D.plusDays(ate));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.back_end.services.disponibilidade;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Duas instâncias do serializador, cada uma com suas próprias conexões e listras, contra um
+ * PostgreSQL de verdade: só o pg_advisory_xact_lock pode serializar a mesma locação entre elas.
+ * Roda só com a URL do banco:
+ *
+ *   mvn test -Dtest=SerializadorReservasPostgresTest -Dpostgres.url=jdbc:postgresql://localhost:5432/reservas \
+ *       -Dpostgres.usuario=postgres -Dpostgres.senha=postgres
+ */
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class SerializadorReservasPostgresTest {
+
+    private SerializadorReservas instanciaA;
+    private SerializadorReservas instanciaB;
+
+    @BeforeEach
+    void setup() {
+        instanciaA = instancia();
+        instanciaB = instancia();
+    }
+
+    @Test
+    void mesmaLocacao_esperaAOutraInstancia_locacaoDiferenteNao() throws Exception {
+        CountDownLatch dentroA = new CountDownLatch(1);
+        CountDownLatch liberarA = new CountDownLatch(1);
+        CountDownLatch dentroB = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> a = pool.submit(() -> instanciaA.executar(7, () -> {
+                dentroA.countDown();
+                aguardar(liberarA);
+                return null;
+            }));
+            assertThat(dentroA.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> b = pool.submit(() -> instanciaB.executar(7, () -> {
+                dentroB.countDown();
+                return null;
+            }));
+            Future<String> outra = pool.submit(() -> instanciaB.executar(8, () -> "livre"));
+
+            assertThat(outra.get(10, TimeUnit.SECONDS)).isEqualTo("livre");
+            assertThat(dentroB.await(1, TimeUnit.SECONDS)).as("B entrou com A segurando a locação 7").isFalse();
+
+            liberarA.countDown();
+            a.get(10, TimeUnit.SECONDS);
+            assertThat(dentroB.await(10, TimeUnit.SECONDS)).isTrue();
+            b.get(10, TimeUnit.SECONDS);
+        } finally {
+            liberarA.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void locacoesCruzadas_naoTravamEntreInstancias() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 200; i++) {
+                Future<?> a = pool.submit(() -> instanciaA.executarEmTodas(List.of(7, 8), () -> null));
+                Future<?> b = pool.submit(() -> instanciaB.executarEmTodas(List.of(8, 7), () -> null));
+                a.get(10, TimeUnit.SECONDS);
+                b.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static SerializadorReservas instancia() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getProperty("postgres.url"),
+                System.getProperty("postgres.usuario", "postgres"), System.getProperty("postgres.senha", ""));
+        return new SerializadorReservas("advisory", 16, new DataSourceTransactionManager(dataSource),
+                new JdbcTemplate(dataSource));
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.back_end.services.disponibilidade;
+
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SerializadorReservasTest {
+
+    private JdbcTemplate jdbc;
+    private SerializadorReservas serializador;
+
+    @BeforeEach
+    void setup() {
+        jdbc = mock(JdbcTemplate.class);
+        serializador = new SerializadorReservas("advisory", 16, mock(PlatformTransactionManager.class), jdbc);
+    }
+
+    @Test
+    void executar_semBloqueio_naoAbreTransacaoNemLock() {
+        SerializadorReservas semBloqueio = new SerializadorReservas("nenhum", 16, mock(PlatformTransactionManager.class), jdbc);
+
+        assertThat(semBloqueio.executar(1, () -> "ok")).isEqualTo("ok");
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void executar_advisory_pegaLockDaLocacao() {
+        serializador.executar(7, () -> null);
+
+        verify(jdbc).query(contains("pg_advisory_xact_lock"), ArgumentMatchers.<ResultSetExtractor<Object>>any(),
+                eq(1), eq(7));
+    }
+
+    @Test
+    void executarEmTodas_travaCadaLocacaoUmaVezEmOrdemCrescente() {
+        serializador.executarEmTodas(List.of(9, 3, 9), () -> null);
+
+        InOrder ordem = inOrder(jdbc);
+        ordem.verify(jdbc).query(contains("pg_advisory_xact_lock"), ArgumentMatchers.<ResultSetExtractor<Object>>any(),
+                eq(1), eq(3));
+        ordem.verify(jdbc).query(contains("pg_advisory_xact_lock"), ArgumentMatchers.<ResultSetExtractor<Object>>any(),
+                eq(1), eq(9));
+        verifyNoMoreInteractions(jdbc);
+    }
+
+    @Test
+    void modoInvalido_falhaNaInicializacao() {
+        assertThatThrownBy(() -> new SerializadorReservas("serializable", 16, mock(PlatformTransactionManager.class), jdbc))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void locacoesDiferentes_executamEmParalelo() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> presa = pool.submit(() -> serializador.executar(1, () -> {
+                dentro.countDown();
+                await(liberar);
+                return null;
+            }));
+            assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<String> outra = pool.submit(() -> serializador.executar(2, () -> "livre"));
+            assertThat(outra.get(5, TimeUnit.SECONDS)).isEqualTo("livre");
+
+            liberar.countDown();
+            presa.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Listra de locks da própria instância: verificação e inserção separadas (como no serviço),
+    // muitas threads disputando poucas locações; nenhuma reserva pode se sobrepor a outra.
+    // Transação e JdbcTemplate são mocks, então o pg_advisory_xact_lock entre instâncias não
+    // entra aqui; no banco quem garante é o trigger de capacidade (V7).
+    @Test
+    void listraDeLocks_serializaAMesmaLocacaoNaInstancia() throws Exception {
+        int threads = 16;
+        int tentativasPorThread = 2_000;
+        int locacoes = 8;
+        Map<Integer, List<int[]>> reservas = new ConcurrentHashMap<>();
+        for (int l = 1; l <= locacoes; l++) {
+            reservas.put(l, new ArrayList<>());
+        }
+        AtomicInteger criadas = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futuros.add(pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < tentativasPorThread; i++) {
+                    int locacao = rnd.nextInt(locacoes) + 1;
+                    int de = rnd.nextInt(365);
+                    int ate = de + 1 + rnd.nextInt(3);
+                    serializador.executar(locacao, () -> {
+                        List<int[]> existentes = reservas.get(locacao);
+                        boolean conflito = existentes.stream().anyMatch(r -> r[0] < ate && r[1] > de);
+                        Thread.yield();
+                        if (!conflito) {
+                            existentes.add(new int[] { de, ate });
+                            criadas.incrementAndGet();
+                        }
+                        return null;
+                    });
+                }
+            }));
+        }
+        for (Future<?> f : futuros) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int total = 0;
+        for (List<int[]> lista : reservas.values()) {
+            total += lista.size();
+            for (int i = 0; i < lista.size(); i++) {
+                for (int j = i + 1; j < lista.size(); j++) {
+                    int[] a = lista.get(i);
+                    int[] b = lista.get(j);
+                    assertThat(a[0] < b[1] && a[1] > b[0]).as("reservas sobrepostas").isFalse();
+                }
+            }
+        }
+        assertThat(total).isEqualTo(criadas.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.back_end.services.preco;
+
+import com.example.back_end.entities.RegraPrecoEntity;
+import com.example.back_end.enums.TipoRegraPreco;
+import com.example.back_end.enums.TiposLocacao;
+import com.example.back_end.repositories.RegraPrecoRepository;
+import com.example.back_end.services.preco.RegraPrecoAlteradaEvent.Escopo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MotorPrecosTest {
+
+    private static final LocalDate TERCA = LocalDate.of(2030, 1, 1);
+    private static final BigDecimal DEZ = new BigDecimal("10.00"); // diária de 240.00
+
+    private RegraPrecoRepository regraRepo;
+    private SimpleMeterRegistry registry;
+    private List<RegraPrecoEntity> regras;
+    private MotorPrecos motor;
+
+    @BeforeEach
+    void setup() {
+        regraRepo = mock(RegraPrecoRepository.class);
+        registry = new SimpleMeterRegistry();
+        regras = new ArrayList<>();
+        when(regraRepo.findByAtivaTrue()).thenAnswer(inv -> List.copyOf(regras));
+        motor = motor(730);
+    }
+
+    @Test
+    void semRegras_igualAValorHoraVezesHoras() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            BigDecimal valorHora = BigDecimal.valueOf(1 + random.nextLong(10_000_000_000L - 1), 2);
+            LocalDate inicio = TERCA.plusDays(random.nextInt(400) - 30);
+            int dias = 1 + random.nextInt(366);
+
+            BigDecimal esperado = valorHora.multiply(BigDecimal.valueOf(dias * 24L)).setScale(2, RoundingMode.HALF_UP);
+
+            assertThat(motor.valorFinal(i, TiposLocacao.TEMPORADA, valorHora, inicio.atStartOfDay(),
+                    inicio.plusDays(dias).atStartOfDay()))
+                    .isEqualTo(esperado);
+        }
+    }
+
+    @Test
+    void fimDeSemanaETemporada_somamNasDiarias() {
+        regras.add(regra(TipoRegraPreco.FIM_DE_SEMANA, null, TiposLocacao.TEMPORADA, "25", null, null, null));
+        regras.add(regra(TipoRegraPreco.TEMPORADA, null, TiposLocacao.TEMPORADA, "10",
+                TERCA.plusDays(4), TERCA.plusDays(20), null));
+
+        // qua, qui, sex 240; sáb, dom 324 (fim de semana e temporada, +35%); seg 264 (temporada)
+        assertThat(preco(1, TERCA.plusDays(1), TERCA.plusDays(7))).isEqualByComparingTo("1632.00");
+        // outro tipo não é afetado
+        assertThat(motor.valorFinal(2, TiposLocacao.RESIDENCIAL, DEZ, TERCA.plusDays(1).atStartOfDay(),
+                TERCA.plusDays(7).atStartOfDay()))
+                .isEqualByComparingTo("1440.00");
+    }
+
+    @Test
+    void regraDaLocacao_substituiADoTipo() {
+        regras.add(regra(TipoRegraPreco.FIM_DE_SEMANA, null, TiposLocacao.TEMPORADA, "25", null, null, null));
+        regras.add(regra(TipoRegraPreco.FIM_DE_SEMANA, 1, null, "-50", null, null, null));
+
+        assertThat(preco(1, TERCA.plusDays(4), TERCA.plusDays(6))).isEqualByComparingTo("240.00");
+        assertThat(preco(2, TERCA.plusDays(4), TERCA.plusDays(6))).isEqualByComparingTo("600.00");
+    }
+
+    @Test
+    void longaEstadia_usaAMaiorFaixaAlcancada() {
+        regras.add(regra(TipoRegraPreco.LONGA_ESTADIA, null, TiposLocacao.TEMPORADA, "-5", null, null, 7));
+        regras.add(regra(TipoRegraPreco.LONGA_ESTADIA, null, TiposLocacao.TEMPORADA, "-15", null, null, 28));
+
+        assertThat(preco(1, TERCA, TERCA.plusDays(6))).isEqualByComparingTo("1440.00");
+        assertThat(preco(1, TERCA, TERCA.plusDays(7))).isEqualByComparingTo("1596.00");
+        assertThat(preco(1, TERCA, TERCA.plusDays(30))).isEqualByComparingTo("6120.00");
+    }
+
+    @Test
+    void horasAvulsas_pagamAHoraComAsRegrasDoDia() {
+        regras.add(regra(TipoRegraPreco.FIM_DE_SEMANA, null, TiposLocacao.TEMPORADA, "25", null, null, null));
+        LocalDateTime sexta = TERCA.plusDays(3).atStartOfDay();
+
+        assertThat(preco(1, TERCA.atTime(9, 0), TERCA.atTime(17, 0))).isEqualByComparingTo("80.00");
+        // sexta 4h a 10.00; sábado 2h a 12.50
+        assertThat(preco(1, sexta.plusHours(20), sexta.plusHours(26))).isEqualByComparingTo("65.00");
+        // sexta 2h, sábado inteiro pela tabela, domingo 22h
+        assertThat(preco(1, sexta.plusHours(22), sexta.plusDays(2).plusHours(22))).isEqualByComparingTo("595.00");
+    }
+
+    @Test
+    void longaEstadia_emHoras_contaDiasCompletos() {
+        regras.add(regra(TipoRegraPreco.LONGA_ESTADIA, null, TiposLocacao.TEMPORADA, "-5", null, null, 7));
+        LocalDateTime meioDia = TERCA.atTime(12, 0);
+
+        assertThat(preco(1, meioDia, meioDia.plusHours(167))).isEqualByComparingTo("1670.00");
+        assertThat(preco(1, meioDia, meioDia.plusHours(168))).isEqualByComparingTo("1596.00");
+    }
+
+    @Test
+    void foraDoHorizonte_mesmoValorQueNaTabela() {
+        regras.add(regra(TipoRegraPreco.FIM_DE_SEMANA, null, TiposLocacao.TEMPORADA, "12.5", null, null, null));
+        regras.add(regra(TipoRegraPreco.TEMPORADA, null, TiposLocacao.TEMPORADA, "-7.25",
+                TERCA.plusDays(10), TERCA.plusDays(50), null));
+        MotorPrecos curto = motor(5);
+
+        for (int de = -10; de < 60; de += 3) {
+            LocalDate inicio = TERCA.plusDays(de);
+            LocalDateTime de0 = inicio.atStartOfDay();
+            LocalDateTime ate0 = inicio.plusDays(9).atStartOfDay();
+            assertThat(curto.valorFinal(1, TiposLocacao.TEMPORADA, new BigDecimal("7.33"), de0, ate0))
+                    .isEqualTo(motor.valorFinal(1, TiposLocacao.TEMPORADA, new BigDecimal("7.33"), de0, ate0));
+        }
+    }
+
+    @Test
+    void aoAlterarRegra_refazSoAsTabelasAlcancadas() {
+        preco(1, TERCA, TERCA.plusDays(7));
+        motor.valorFinal(2, TiposLocacao.RESIDENCIAL, DEZ, TERCA.atStartOfDay(), TERCA.plusDays(7).atStartOfDay());
+
+        regras.add(regra(TipoRegraPreco.TEMPORADA, null, TiposLocacao.TEMPORADA, "50", TERCA, TERCA.plusDays(7), null));
+        motor.aoAlterarRegra(RegraPrecoAlteradaEvent.criada(new Escopo(null, TiposLocacao.TEMPORADA)));
+
+        assertThat(preco(1, TERCA, TERCA.plusDays(7))).isEqualByComparingTo("2520.00");
+        motor.valorFinal(2, TiposLocacao.RESIDENCIAL, DEZ, TERCA.atStartOfDay(), TERCA.plusDays(7).atStartOfDay());
+        assertThat(acertos()).isEqualTo(1);
+    }
+
+    @Test
+    void valorHoraAlterado_refazATabela() {
+        preco(1, TERCA, TERCA.plusDays(1));
+
+        assertThat(motor.valorFinal(1, TiposLocacao.TEMPORADA, new BigDecimal("12.00"), TERCA.atStartOfDay(),
+                TERCA.plusDays(1).atStartOfDay()))
+                .isEqualByComparingTo("288.00");
+    }
+
+    private MotorPrecos motor(int dias) {
+        return new MotorPrecos(regraRepo, registry, Clock.fixed(TERCA.atStartOfDay().toInstant(ZoneOffset.UTC),
+                ZoneOffset.UTC), dias, 100);
+    }
+
+    private BigDecimal preco(Integer locacaoId, LocalDate inicio, LocalDate fim) {
+        return preco(locacaoId, inicio.atStartOfDay(), fim.atStartOfDay());
+    }
+
+    private BigDecimal preco(Integer locacaoId, LocalDateTime inicio, LocalDateTime fim) {
+        return motor.valorFinal(locacaoId, TiposLocacao.TEMPORADA, DEZ, inicio, fim);
+    }
+
+    private double acertos() {
+        return registry.get("cache.gets").tag("cache", "tarifas").tag("result", "hit").functionCounter().count();
+    }
+
+    private static RegraPrecoEntity regra(TipoRegraPreco tipo, Integer locacaoId, TiposLocacao tipoLocacao,
+            String percentual, LocalDate inicio, LocalDate fim, Integer diasMinimos) {
+        return new RegraPrecoEntity(null, tipo.name(), tipo, locacaoId, tipoLocacao, new BigDecimal(percentual),
+                inicio, fim, diasMinimos, true, null);
+    }
+}
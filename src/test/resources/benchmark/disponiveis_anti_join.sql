@@ -0,0 +1,182 @@
+-- Busca de locações disponíveis: o caminho em dois passos que havia antes de findDisponiveis
+-- (reservas conflitantes carregadas, ids devolvidos como NOT IN) contra o NOT EXISTS de hoje.
+--
+--   psql -d reservas -v locacoes=5000 -v linhas=500000 -f src/test/resources/benchmark/disponiveis_anti_join.sql
+--
+-- 'locacoes' é o número de locações (padrão 5000) e 'linhas' o de reservas (padrão 500000),
+-- concentradas numa alta temporada em que quase todas as locações estão ocupadas. Tudo roda em
+-- tabelas temporárias e a transação é desfeita no final: pode rodar no banco da aplicação.
+-- O resultado sai em NOTICE; um WARNING aponta o NOT EXISTS mais lento que os dois passos.
+-- O primeiro passo só lê as reservas no banco: mandar as linhas para a JVM e hidratar as
+-- entidades não entra na conta, o que favorece o caminho antigo.
+\set ON_ERROR_STOP on
+\if :{?locacoes}
+\else
+    \set locacoes 5000
+\endif
+\if :{?linhas}
+\else
+    \set linhas 500000
+\endif
+
+BEGIN;
+
+CREATE TEMP TABLE locacoes (
+    id           INTEGER PRIMARY KEY,
+    nome         VARCHAR(50) NOT NULL,
+    valor_hora   NUMERIC(10, 2) NOT NULL,
+    tempo_minimo INTEGER NOT NULL,
+    tempo_maximo INTEGER NOT NULL
+);
+
+CREATE TEMP TABLE reservas (
+    id               INTEGER PRIMARY KEY,
+    locacao_id       INTEGER NOT NULL,
+    data_hora_inicio TIMESTAMP NOT NULL,
+    data_hora_fim    TIMESTAMP NOT NULL,
+    situacao         VARCHAR(20) NOT NULL
+);
+
+INSERT INTO locacoes (id, nome, valor_hora, tempo_minimo, tempo_maximo)
+SELECT l, 'Locação ' || l, 50 + l % 200, 1 + l % 4, 24 * (2 + l % 30)
+FROM generate_series(1, :locacoes) l;
+
+-- Reservas de 1 a 7 dias; 80% delas no verão (dezembro a fevereiro), o resto no ano todo.
+INSERT INTO reservas (id, locacao_id, data_hora_inicio, data_hora_fim, situacao)
+SELECT r, 1 + floor(random() * :locacoes)::INTEGER, inicio,
+       inicio + make_interval(days => 1 + floor(random() * 7)::INTEGER),
+       CASE WHEN random() < 0.1 THEN 'CANCELADA' ELSE 'CONFIRMADA' END
+FROM (SELECT r, CASE WHEN random() < 0.8
+                     THEN TIMESTAMP '2030-12-01' + make_interval(days => floor(random() * 90)::INTEGER)
+                     ELSE TIMESTAMP '2030-01-01' + make_interval(days => floor(random() * 365)::INTEGER)
+                END AS inicio
+      FROM generate_series(1, :linhas) r) AS s;
+
+-- Índices da V8.
+CREATE INDEX ON reservas USING gist (locacao_id, tsrange(data_hora_inicio, data_hora_fim, '[)'))
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+CREATE INDEX ON reservas (locacao_id, data_hora_inicio, data_hora_fim)
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+
+ANALYZE locacoes;
+ANALYZE reservas;
+
+-- Janelas de 1 a 7 dias: metade na alta temporada, metade fora dela.
+CREATE TEMP TABLE janelas AS
+SELECT q, inicio, inicio + make_interval(days => 1 + floor(random() * 7)::INTEGER) AS fim
+FROM (SELECT q, CASE WHEN q % 2 = 0
+                     THEN TIMESTAMP '2030-12-01' + make_interval(days => floor(random() * 90)::INTEGER)
+                     ELSE TIMESTAMP '2030-03-01' + make_interval(days => floor(random() * 270)::INTEGER)
+                END AS inicio
+      FROM generate_series(1, 200) q) AS s;
+
+-- Antes: reservas sobrepostas carregadas, ids distintos no serviço e a página (com count)
+-- filtrada por NOT IN com a lista literal, como o Spring Data montava.
+CREATE FUNCTION pg_temp.dois_passos(p_inicio TIMESTAMP, p_fim TIMESTAMP)
+    RETURNS INTEGER LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_ocupadas INTEGER[];
+    v_filtro TEXT;
+    v_pagina INTEGER;
+    v_total INTEGER;
+    v_horas INTEGER := extract(epoch FROM p_fim - p_inicio)::INTEGER / 3600;
+BEGIN
+    SELECT array_agg(DISTINCT r.locacao_id) INTO v_ocupadas
+    FROM (SELECT * FROM pg_temp.reservas r
+          WHERE r.data_hora_inicio < p_fim AND r.data_hora_fim > p_inicio) AS r;
+
+    v_filtro := CASE WHEN v_ocupadas IS NULL THEN ''
+                     ELSE format(' AND l.id NOT IN (%s)', array_to_string(v_ocupadas, ',')) END;
+    EXECUTE format('SELECT count(*) FROM (SELECT l.* FROM pg_temp.locacoes l
+                    WHERE l.tempo_minimo <= $1 AND l.tempo_maximo >= $1%s
+                    ORDER BY l.id LIMIT 20) AS p', v_filtro) INTO v_pagina USING v_horas;
+    EXECUTE format('SELECT count(*) FROM pg_temp.locacoes l
+                    WHERE l.tempo_minimo <= $1 AND l.tempo_maximo >= $1%s', v_filtro) INTO v_total USING v_horas;
+    RETURN v_pagina + v_total;
+END
+$$;
+
+-- Agora: página e count de findDisponiveis, com o NOT EXISTS executado como anti-join.
+CREATE FUNCTION pg_temp.anti_join(p_inicio TIMESTAMP, p_fim TIMESTAMP)
+    RETURNS INTEGER LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_pagina INTEGER;
+    v_total INTEGER;
+    v_horas INTEGER := extract(epoch FROM p_fim - p_inicio)::INTEGER / 3600;
+BEGIN
+    SELECT count(*) INTO v_pagina
+    FROM (SELECT l.* FROM pg_temp.locacoes l
+          WHERE l.tempo_minimo <= v_horas AND l.tempo_maximo >= v_horas
+            AND NOT EXISTS (SELECT 1 FROM pg_temp.reservas r
+                            WHERE r.locacao_id = l.id
+                              AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                              AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(p_inicio, p_fim, '[)'))
+          ORDER BY l.id LIMIT 20) AS p;
+    SELECT count(*) INTO v_total
+    FROM pg_temp.locacoes l
+    WHERE l.tempo_minimo <= v_horas AND l.tempo_maximo >= v_horas
+      AND NOT EXISTS (SELECT 1 FROM pg_temp.reservas r
+                      WHERE r.locacao_id = l.id
+                        AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                        AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(p_inicio, p_fim, '[)'));
+    RETURN v_pagina + v_total;
+END
+$$;
+
+-- Rodadas alternadas (a primeira só aquece o cache); vale a mediana por consulta.
+CREATE FUNCTION pg_temp.medir(p_nome TEXT, p_filtro TEXT)
+    RETURNS VOID LANGUAGE plpgsql
+AS $$
+DECLARE
+    t0 TIMESTAMPTZ;
+    t1 TIMESTAMPTZ;
+    consultas INTEGER;
+    antes FLOAT8[] := '{}';
+    agora FLOAT8[] := '{}';
+    mediana_antes FLOAT8;
+    mediana_agora FLOAT8;
+BEGIN
+    EXECUTE format('SELECT count(*) FROM pg_temp.janelas WHERE %s', p_filtro) INTO consultas;
+    FOR rodada IN 0..5 LOOP
+        t0 := clock_timestamp();
+        EXECUTE format('SELECT sum(pg_temp.dois_passos(inicio, fim)) FROM pg_temp.janelas WHERE %s', p_filtro);
+        t1 := clock_timestamp();
+        EXECUTE format('SELECT sum(pg_temp.anti_join(inicio, fim)) FROM pg_temp.janelas WHERE %s', p_filtro);
+        IF rodada > 0 THEN
+            antes := antes || extract(epoch FROM t1 - t0) * 1e3 / consultas;
+            agora := agora || extract(epoch FROM clock_timestamp() - t1) * 1e3 / consultas;
+        END IF;
+    END LOOP;
+    SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY x) INTO mediana_antes FROM unnest(antes) AS x;
+    SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY x) INTO mediana_agora FROM unnest(agora) AS x;
+    RAISE NOTICE '%  dois passos % ms   NOT EXISTS % ms   razão %', rpad(p_nome, 16),
+            round(mediana_antes::NUMERIC, 2), round(mediana_agora::NUMERIC, 2),
+            round((mediana_agora / mediana_antes)::NUMERIC, 2);
+    IF mediana_agora > mediana_antes THEN
+        RAISE WARNING '%: o NOT EXISTS ficou mais lento que os dois passos', p_nome;
+    END IF;
+END
+$$;
+
+SELECT (SELECT count(*) FROM locacoes) AS locacoes,
+       (SELECT count(*) FROM reservas) AS reservas,
+       (SELECT count(DISTINCT r.locacao_id) FROM reservas r, janelas j
+        WHERE j.q = 2 AND r.data_hora_inicio < j.fim AND r.data_hora_fim > j.inicio) AS ocupadas_numa_janela_de_pico;
+
+SELECT pg_temp.medir('alta temporada', 'q % 2 = 0');
+SELECT pg_temp.medir('fora dela', 'q % 2 = 1');
+
+-- Plano do NOT EXISTS numa janela de pico: Anti Join sobre o índice GiST parcial.
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT l.* FROM locacoes l
+WHERE l.tempo_minimo <= 48 AND l.tempo_maximo >= 48
+  AND NOT EXISTS (SELECT 1 FROM reservas r
+                  WHERE r.locacao_id = l.id
+                    AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                    AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)')
+                        && tsrange(TIMESTAMP '2031-01-01', TIMESTAMP '2031-01-03', '[)'))
+ORDER BY l.id LIMIT 20;
+
+ROLLBACK;
@@ -0,0 +1,135 @@
+-- Inserção de reservas: IDENTITY linha a linha, como o Hibernate fazia antes da V4, contra ids
+-- em blocos da sequência (INCREMENT BY 50) e INSERTs de 50 linhas, que é o que o driver manda
+-- com reWriteBatchedInserts=true e hibernate.jdbc.batch_size=50.
+--
+--   psql -d reservas -v linhas=100000 -f src/test/resources/benchmark/insercao_reservas.sql
+--
+-- 'linhas' é o número de reservas inseridas em cada caminho (padrão 100000). Tudo roda em
+-- tabelas temporárias e a transação é desfeita no final: pode rodar no banco da aplicação.
+-- O resultado sai em NOTICE; um WARNING aponta o lote mais lento que o IDENTITY. Os comandos
+-- rodam dentro do servidor, sem a ida e volta de rede de cada INSERT, o que favorece o IDENTITY.
+-- A última linha mostra quantos ids cada caminho gastou: o DEFAULT da sequência de incremento
+-- 50 consome um bloco inteiro por linha, por isso AlocadorIds guarda o resto de cada bloco.
+\set ON_ERROR_STOP on
+\if :{?linhas}
+\else
+    \set linhas 100000
+\endif
+
+BEGIN;
+
+CREATE TEMP TABLE reservas_identity (
+    id               INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    cliente_id       INTEGER NOT NULL,
+    locacao_id       INTEGER NOT NULL,
+    data_hora_inicio TIMESTAMP NOT NULL,
+    data_hora_fim    TIMESTAMP NOT NULL,
+    valor_final      NUMERIC(10, 2),
+    situacao         VARCHAR(20) NOT NULL
+);
+
+CREATE TEMP SEQUENCE reservas_lote_id_seq INCREMENT BY 50;
+CREATE TEMP TABLE reservas_lote (LIKE reservas_identity INCLUDING DEFAULTS);
+ALTER TABLE reservas_lote ALTER COLUMN id SET DEFAULT nextval('reservas_lote_id_seq');
+ALTER TABLE reservas_lote ADD PRIMARY KEY (id);
+ALTER SEQUENCE reservas_lote_id_seq OWNED BY reservas_lote.id;
+
+CREATE TEMP SEQUENCE reservas_default_id_seq INCREMENT BY 50;
+CREATE TEMP TABLE reservas_default (LIKE reservas_lote INCLUDING DEFAULTS);
+ALTER TABLE reservas_default ALTER COLUMN id SET DEFAULT nextval('reservas_default_id_seq');
+ALTER TABLE reservas_default ADD PRIMARY KEY (id);
+ALTER SEQUENCE reservas_default_id_seq OWNED BY reservas_default.id;
+
+-- Antes: um INSERT ... RETURNING id por reserva.
+CREATE FUNCTION pg_temp.identity(p_linhas INTEGER)
+    RETURNS VOID LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_id INTEGER;
+BEGIN
+    FOR i IN 1..p_linhas LOOP
+        EXECUTE 'INSERT INTO pg_temp.reservas_identity
+                     (cliente_id, locacao_id, data_hora_inicio, data_hora_fim, valor_final, situacao)
+                 VALUES ($1, $2, $3, $3 + INTERVAL ''2 hours'', 100, ''CONFIRMADA'') RETURNING id'
+            INTO v_id USING 1 + i % 1000, 1 + i % 5000, TIMESTAMP '2030-01-01' + make_interval(hours => i);
+    END LOOP;
+END
+$$;
+
+-- Agora: um nextval por bloco de 50 ids e um INSERT de 50 linhas com os ids já definidos.
+CREATE FUNCTION pg_temp.lote(p_linhas INTEGER)
+    RETURNS VOID LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_topo BIGINT;
+BEGIN
+    FOR bloco IN 0..(p_linhas - 1) / 50 LOOP
+        v_topo := nextval('pg_temp.reservas_lote_id_seq');
+        EXECUTE 'INSERT INTO pg_temp.reservas_lote
+                     (id, cliente_id, locacao_id, data_hora_inicio, data_hora_fim, valor_final, situacao)
+                 SELECT $1 - 49 + k, 1 + i % 1000, 1 + i % 5000, TIMESTAMP ''2030-01-01'' + make_interval(hours => i),
+                        TIMESTAMP ''2030-01-01'' + make_interval(hours => i + 2), 100, ''CONFIRMADA''
+                 FROM generate_series(0, LEAST(49, $2 - 1 - $3 * 50)) k, LATERAL (SELECT $3 * 50 + k + 1 AS i) AS x'
+            USING v_topo, p_linhas, bloco;
+    END LOOP;
+END
+$$;
+
+-- O caminho que a revisão apontou: linha a linha pelo DEFAULT da sequência de incremento 50.
+CREATE FUNCTION pg_temp.default_sequencia(p_linhas INTEGER)
+    RETURNS VOID LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_id INTEGER;
+BEGIN
+    FOR i IN 1..p_linhas LOOP
+        EXECUTE 'INSERT INTO pg_temp.reservas_default
+                     (cliente_id, locacao_id, data_hora_inicio, data_hora_fim, valor_final, situacao)
+                 VALUES ($1, $2, $3, $3 + INTERVAL ''2 hours'', 100, ''CONFIRMADA'') RETURNING id'
+            INTO v_id USING 1 + i % 1000, 1 + i % 5000, TIMESTAMP '2030-01-01' + make_interval(hours => i);
+    END LOOP;
+END
+$$;
+
+-- Rodadas alternadas (a primeira só aquece o cache); vale a mediana, em ms por mil linhas.
+CREATE FUNCTION pg_temp.medir(p_linhas INTEGER)
+    RETURNS VOID LANGUAGE plpgsql
+AS $$
+DECLARE
+    t0 TIMESTAMPTZ;
+    t1 TIMESTAMPTZ;
+    antes FLOAT8[] := '{}';
+    agora FLOAT8[] := '{}';
+    mediana_antes FLOAT8;
+    mediana_agora FLOAT8;
+BEGIN
+    FOR rodada IN 0..3 LOOP
+        TRUNCATE pg_temp.reservas_identity, pg_temp.reservas_lote RESTART IDENTITY;
+        t0 := clock_timestamp();
+        PERFORM pg_temp.identity(p_linhas);
+        t1 := clock_timestamp();
+        PERFORM pg_temp.lote(p_linhas);
+        IF rodada > 0 THEN
+            antes := antes || extract(epoch FROM t1 - t0) * 1e6 / p_linhas;
+            agora := agora || extract(epoch FROM clock_timestamp() - t1) * 1e6 / p_linhas;
+        END IF;
+    END LOOP;
+    SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY x) INTO mediana_antes FROM unnest(antes) AS x;
+    SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY x) INTO mediana_agora FROM unnest(agora) AS x;
+    RAISE NOTICE '% linhas  IDENTITY % ms/mil   lote % ms/mil   razão %', p_linhas,
+            round(mediana_antes::NUMERIC, 2), round(mediana_agora::NUMERIC, 2),
+            round((mediana_agora / mediana_antes)::NUMERIC, 2);
+    IF mediana_agora > mediana_antes THEN
+        RAISE WARNING 'o lote ficou mais lento que o IDENTITY';
+    END IF;
+END
+$$;
+
+SELECT pg_temp.medir(:linhas);
+
+SELECT pg_temp.default_sequencia(:linhas);
+SELECT (SELECT max(id) FROM reservas_identity) AS ids_identity,
+       (SELECT max(id) FROM reservas_lote) AS ids_lote,
+       (SELECT max(id) FROM reservas_default) AS ids_default_incremento_50;
+
+ROLLBACK;
@@ -0,0 +1,204 @@
+-- Disponibilidade por hora (V8, tsrange) contra por dia (V7, daterange) com 10x as linhas.
+--
+--   psql -d reservas -v linhas=200000 -f src/test/resources/benchmark/reservas_por_hora.sql
+--
+-- 'linhas' é o número de reservas por dia (padrão 200000); as por hora são 10 vezes isso.
+-- Tudo roda em tabelas temporárias e a transação é desfeita no final: pode rodar no banco
+-- da aplicação. O resultado sai em NOTICE; um WARNING aponta consulta mais lenta por hora.
+\set ON_ERROR_STOP on
+\if :{?linhas}
+\else
+    \set linhas 200000
+\endif
+
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Forma da V7: período em dias.
+CREATE TEMP TABLE reservas_dia (
+    id          INTEGER PRIMARY KEY,
+    locacao_id  INTEGER NOT NULL,
+    data_inicio DATE NOT NULL,
+    data_fim    DATE NOT NULL,
+    situacao    VARCHAR(20) NOT NULL,
+    periodo     DATERANGE GENERATED ALWAYS AS (daterange(data_inicio, data_fim, '[)')) STORED
+);
+
+-- Forma da V8: período em horas.
+CREATE TEMP TABLE reservas_hora (
+    id               INTEGER PRIMARY KEY,
+    locacao_id       INTEGER NOT NULL,
+    data_hora_inicio TIMESTAMP NOT NULL,
+    data_hora_fim    TIMESTAMP NOT NULL,
+    situacao         VARCHAR(20) NOT NULL
+);
+
+-- 200 locações. Por dia: reservas de 1 a 3 dias com folgas de até 1 dia.
+INSERT INTO reservas_dia (id, locacao_id, data_inicio, data_fim, situacao)
+SELECT row_number() OVER (), l, DATE '2030-01-01' + (fim - dur)::INTEGER, DATE '2030-01-01' + fim::INTEGER,
+       CASE WHEN random() < 0.1 THEN 'CANCELADA' ELSE 'CONFIRMADA' END
+FROM (
+    SELECT l, dur, SUM(dur + folga) OVER (PARTITION BY l ORDER BY i) - folga AS fim
+    FROM (SELECT l, i, 1 + floor(random() * 3)::INTEGER AS dur, floor(random() * 2)::INTEGER AS folga
+          FROM generate_series(1, 200) l, generate_series(1, :linhas / 200) i) AS s
+) AS t;
+
+-- Por hora: dez vezes mais reservas, de 1 a 4 horas com folgas de até 3 horas.
+INSERT INTO reservas_hora (id, locacao_id, data_hora_inicio, data_hora_fim, situacao)
+SELECT row_number() OVER (), l,
+       TIMESTAMP '2030-01-01' + make_interval(hours => (fim - dur)::INTEGER),
+       TIMESTAMP '2030-01-01' + make_interval(hours => fim::INTEGER),
+       CASE WHEN random() < 0.1 THEN 'CANCELADA' ELSE 'CONFIRMADA' END
+FROM (
+    SELECT l, dur, SUM(dur + folga) OVER (PARTITION BY l ORDER BY i) - folga AS fim
+    FROM (SELECT l, i, 1 + floor(random() * 4)::INTEGER AS dur, floor(random() * 4)::INTEGER AS folga
+          FROM generate_series(1, 200) l, generate_series(1, :linhas / 20) i) AS s
+) AS t;
+
+-- Índices de cada versão (V2/V7 e V8).
+CREATE INDEX ON reservas_dia USING gist (locacao_id, periodo)
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+CREATE INDEX ON reservas_dia (locacao_id, data_inicio, data_fim)
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+CREATE INDEX ON reservas_hora USING gist (locacao_id, tsrange(data_hora_inicio, data_hora_fim, '[)'))
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+CREATE INDEX ON reservas_hora (locacao_id, data_hora_inicio, data_hora_fim)
+    WHERE situacao IN ('PENDENTE', 'CONFIRMADA');
+
+ANALYZE reservas_dia;
+ANALYZE reservas_hora;
+
+-- Janelas de consulta no trecho ocupado das duas cargas: 1 a 3 dias ou 1 a 4 horas.
+CREATE TEMP TABLE janelas AS
+SELECT q, 1 + floor(random() * 200)::INTEGER AS locacao_id,
+       d, d + (1 + floor(random() * 3)::INTEGER) AS d_fim,
+       h, h + make_interval(hours => 1 + floor(random() * 4)::INTEGER) AS h_fim
+FROM (SELECT q, DATE '2030-01-01' + floor(random() * 1000)::INTEGER AS d,
+             TIMESTAMP '2030-01-01' + make_interval(hours => floor(random() * 24000)::INTEGER) AS h
+      FROM generate_series(1, 2000) q) AS s;
+
+-- Conflito de uma locação (criação de reserva, possuiConflito).
+CREATE FUNCTION pg_temp.conflito_dia(p_locacao_id INTEGER, p_inicio DATE, p_fim DATE)
+    RETURNS BOOLEAN LANGUAGE sql STABLE
+AS $$
+    SELECT EXISTS (SELECT 1 FROM pg_temp.reservas_dia r
+                   WHERE r.locacao_id = p_locacao_id
+                     AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                     AND r.periodo && daterange(p_inicio, p_fim, '[)'))
+$$;
+
+CREATE FUNCTION pg_temp.conflito_hora(p_locacao_id INTEGER, p_inicio TIMESTAMP, p_fim TIMESTAMP)
+    RETURNS BOOLEAN LANGUAGE sql STABLE
+AS $$
+    SELECT EXISTS (SELECT 1 FROM pg_temp.reservas_hora r
+                   WHERE r.locacao_id = p_locacao_id
+                     AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                     AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(p_inicio, p_fim, '[)'))
+$$;
+
+-- Varredura de reservas_simultaneas da V7 e da V8.
+CREATE FUNCTION pg_temp.simultaneas_dia(p_locacao_id INTEGER, p_inicio DATE, p_fim DATE)
+    RETURNS INTEGER LANGUAGE sql STABLE
+AS $$
+    SELECT COALESCE(MAX(simultaneas), 0)::INTEGER
+    FROM (
+        SELECT SUM(e.delta) OVER (ORDER BY e.dia, e.delta ROWS UNBOUNDED PRECEDING) AS simultaneas
+        FROM pg_temp.reservas_dia r
+        CROSS JOIN LATERAL (VALUES (GREATEST(r.data_inicio, p_inicio), 1),
+                                   (LEAST(r.data_fim, p_fim), -1)) AS e(dia, delta)
+        WHERE r.locacao_id = p_locacao_id
+          AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+          AND r.periodo && daterange(p_inicio, p_fim, '[)')
+    ) AS varredura
+$$;
+
+CREATE FUNCTION pg_temp.simultaneas_hora(p_locacao_id INTEGER, p_inicio TIMESTAMP, p_fim TIMESTAMP)
+    RETURNS INTEGER LANGUAGE sql STABLE
+AS $$
+    SELECT COALESCE(MAX(simultaneas), 0)::INTEGER
+    FROM (
+        SELECT SUM(e.delta) OVER (ORDER BY e.instante, e.delta ROWS UNBOUNDED PRECEDING) AS simultaneas
+        FROM pg_temp.reservas_hora r
+        CROSS JOIN LATERAL (VALUES (GREATEST(r.data_hora_inicio, p_inicio), 1),
+                                   (LEAST(r.data_hora_fim, p_fim), -1)) AS e(instante, delta)
+        WHERE r.locacao_id = p_locacao_id
+          AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+          AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(p_inicio, p_fim, '[)')
+    ) AS varredura
+$$;
+
+-- Busca de disponibilidade: locações sem reserva ativa na janela, uma sonda por locação.
+CREATE FUNCTION pg_temp.livres_dia(p_inicio DATE, p_fim DATE)
+    RETURNS INTEGER LANGUAGE sql STABLE
+AS $$
+    SELECT count(*)::INTEGER FROM generate_series(1, 200) l
+    WHERE NOT EXISTS (SELECT 1 FROM pg_temp.reservas_dia r
+                      WHERE r.locacao_id = l
+                        AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                        AND r.periodo && daterange(p_inicio, p_fim, '[)'))
+$$;
+
+CREATE FUNCTION pg_temp.livres_hora(p_inicio TIMESTAMP, p_fim TIMESTAMP)
+    RETURNS INTEGER LANGUAGE sql STABLE
+AS $$
+    SELECT count(*)::INTEGER FROM generate_series(1, 200) l
+    WHERE NOT EXISTS (SELECT 1 FROM pg_temp.reservas_hora r
+                      WHERE r.locacao_id = l
+                        AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+                        AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange(p_inicio, p_fim, '[)'))
+$$;
+
+-- Rodadas alternadas (a primeira só aquece o cache); vale a mediana por consulta.
+CREATE FUNCTION pg_temp.medir(p_nome TEXT, p_por_dia TEXT, p_por_hora TEXT, p_consultas INTEGER)
+    RETURNS VOID LANGUAGE plpgsql
+AS $$
+DECLARE
+    t0 TIMESTAMPTZ;
+    t1 TIMESTAMPTZ;
+    dia FLOAT8[] := '{}';
+    hora FLOAT8[] := '{}';
+    mediana_dia FLOAT8;
+    mediana_hora FLOAT8;
+BEGIN
+    FOR rodada IN 0..5 LOOP
+        t0 := clock_timestamp();
+        EXECUTE format('SELECT sum((%s)::INTEGER) FROM pg_temp.janelas WHERE q <= $1', p_por_dia) USING p_consultas;
+        t1 := clock_timestamp();
+        EXECUTE format('SELECT sum((%s)::INTEGER) FROM pg_temp.janelas WHERE q <= $1', p_por_hora) USING p_consultas;
+        IF rodada > 0 THEN
+            dia := dia || extract(epoch FROM t1 - t0) * 1e6 / p_consultas;
+            hora := hora || extract(epoch FROM clock_timestamp() - t1) * 1e6 / p_consultas;
+        END IF;
+    END LOOP;
+    SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY x) INTO mediana_dia FROM unnest(dia) AS x;
+    SELECT percentile_cont(0.5) WITHIN GROUP (ORDER BY x) INTO mediana_hora FROM unnest(hora) AS x;
+    RAISE NOTICE '%  dia % us   hora (10x linhas) % us   razão %', rpad(p_nome, 12),
+            round(mediana_dia::NUMERIC, 1), round(mediana_hora::NUMERIC, 1), round((mediana_hora / mediana_dia)::NUMERIC, 2);
+    IF mediana_hora > mediana_dia * 1.10 THEN
+        RAISE WARNING '%: o caminho por hora ficou mais lento que o por dia', p_nome;
+    END IF;
+END
+$$;
+
+SELECT (SELECT count(*) FROM reservas_dia) AS linhas_dia,
+       (SELECT count(*) FROM reservas_hora) AS linhas_hora;
+
+SELECT pg_temp.medir('conflito', 'pg_temp.conflito_dia(locacao_id, d, d_fim)',
+                     'pg_temp.conflito_hora(locacao_id, h, h_fim)', 2000);
+SELECT pg_temp.medir('simultaneas', 'pg_temp.simultaneas_dia(locacao_id, d, d_fim)',
+                     'pg_temp.simultaneas_hora(locacao_id, h, h_fim)', 2000);
+SELECT pg_temp.medir('livres', 'pg_temp.livres_dia(d, d_fim)', 'pg_temp.livres_hora(h, h_fim)', 100);
+
+-- Plano de uma sonda de cada lado: as duas devem usar o GiST parcial.
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT 1 FROM reservas_dia r
+WHERE r.locacao_id = 7 AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+  AND r.periodo && daterange('2030-06-01', '2030-06-03', '[)');
+
+EXPLAIN (ANALYZE, BUFFERS, COSTS OFF)
+SELECT 1 FROM reservas_hora r
+WHERE r.locacao_id = 7 AND r.situacao IN ('PENDENTE', 'CONFIRMADA')
+  AND tsrange(r.data_hora_inicio, r.data_hora_fim, '[)') && tsrange('2030-06-01 10:00', '2030-06-01 12:00', '[)');
+
+ROLLBACK;